@@ -0,0 +1,17 @@
+package ru.otus.main_patterns.concurrent;
+
+import java.util.concurrent.BlockingQueue;
+
+// Прежнее поведение: поток спит в take(), пока очередь пуста. Ядро не занимает
+public class BlockingWaitStrategy implements WaitStrategy {
+
+  @Override
+  public <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+    return queue.take();
+  }
+
+  @Override
+  public String toString() {
+    return "BlockingWaitStrategy";
+  }
+}
@@ -0,0 +1,30 @@
+package ru.otus.main_patterns.concurrent;
+
+import java.util.concurrent.BlockingQueue;
+
+/*
+   Поток никогда не засыпает и опрашивает очередь в цикле: минимальная задержка передачи команды,
+   но поток всё время занимает целое ядро. Только для потоков, закреплённых за выделенными ядрами,
+   и только если потоков с этой стратегией меньше, чем ядер, - иначе они отнимают время
+   у производителей команд и задержка, наоборот, растёт.
+*/
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+  @Override
+  public <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+    while (true) {
+      T item = queue.poll();
+      if (item != null) {
+        return item;
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BusySpinWaitStrategy";
+  }
+}
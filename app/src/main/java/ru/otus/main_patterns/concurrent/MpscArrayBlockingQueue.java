@@ -0,0 +1,313 @@
+package ru.otus.main_patterns.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+   Ограниченная очередь на кольцевом буфере для многих производителей и одного потребителя
+   (MPSC) - очередь команд цикла выполнения (ServerThread): добавляют команды любые потоки,
+   извлекает только поток цикла.
+   ArrayBlockingQueue берёт один ReentrantLock и на добавление, и на извлечение, поэтому
+   производители и потребитель мешают друг другу. Здесь блокировок нет:
+   - производитель занимает ячейку CAS-ом индекса хвоста (producerIndex) и публикует в неё команду;
+   - потребитель читает ячейку по своему индексу (consumerIndex), очищает её и сдвигает индекс
+     обычной упорядоченной записью (lazySet), без CAS.
+   Индексы лежат на разных кэш-линиях (отступы в родительских классах), чтобы запись одной
+   стороны не сбрасывала кэш-линию другой. Предел производителя (producerLimit) кэширует
+   consumerIndex + capacity: индекс потребителя читается, только когда хвост дошёл до предела.
+
+   Блокирующие операции:
+   - take/poll(timeout) потребителя: перед засыпанием (park) поток записывает себя в consumerWaiter
+     и ещё раз проверяет очередь; производитель после публикации будит его (unpark);
+   - put/offer(timeout) производителя при заполненной очереди ждут паузами по FULL_BACKOFF_NS -
+     для очереди команд это исключение (перегрузка), поэтому на это не тратится блокировка.
+
+   ВАЖНО: извлекать элементы (poll, take, peek, drainTo, clear, remove) может только один поток.
+   Поэтому очередь не подходит для AdmissionPolicy.DROP_OLDEST, где старую команду извлекает
+   производитель. size, isEmpty и итератор можно вызывать из любого потока, но их значение
+   приблизительное (как и у других конкурентных очередей). null не допускается.
+*/
+public class MpscArrayBlockingQueue<E> extends MpscConsumerWaiter<E> implements BlockingQueue<E> {
+  private static final long FULL_BACKOFF_NS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private final AtomicReferenceArray<E> buffer;
+  private final int mask;
+  private final int capacity;
+
+  public MpscArrayBlockingQueue(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be positive: " + capacity);
+    }
+    // Размер буфера - степень двойки: номер ячейки считается маской, а не делением
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.capacity = capacity;
+    this.producerLimit = capacity;
+  }
+
+  @Override
+  public boolean offer(E e) {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+    long index;
+    do {
+      index = producerIndex;
+      if (index >= producerLimit) {
+        long limit = consumerIndex + capacity;
+        if (index >= limit) {
+          return false;
+        }
+        // Гонка производителей безопасна: предел только занижается, а не завышается
+        producerLimit = limit;
+      }
+    } while (!casProducerIndex(index, index + 1));
+    buffer.lazySet(offset(index), e);
+    // Чтение после CAS хвоста: либо потребитель увидит новый хвост, либо мы увидим его ожидание
+    Thread waiter = consumerWaiter;
+    if (waiter != null) {
+      LockSupport.unpark(waiter);
+    }
+    return true;
+  }
+
+  @Override
+  public E poll() {
+    long index = consumerIndex;
+    int offset = offset(index);
+    E e = buffer.get(offset);
+    if (e == null) {
+      if (index == producerIndex) {
+        return null;
+      }
+      // Ячейка занята производителем, но команда ещё не опубликована
+      e = awaitPublished(offset);
+    }
+    buffer.lazySet(offset, null);
+    CONSUMER_INDEX.lazySet(this, index + 1);
+    return e;
+  }
+
+  @Override
+  public E peek() {
+    long index = consumerIndex;
+    int offset = offset(index);
+    E e = buffer.get(offset);
+    if (e == null && index != producerIndex) {
+      e = awaitPublished(offset);
+    }
+    return e;
+  }
+
+  @Override
+  public void put(E e) throws InterruptedException {
+    while (!offer(e)) {
+      backoffWhileFull();
+    }
+  }
+
+  @Override
+  public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!offer(e)) {
+      if (deadline - System.nanoTime() <= 0) {
+        return false;
+      }
+      backoffWhileFull();
+    }
+    return true;
+  }
+
+  @Override
+  public E take() throws InterruptedException {
+    E e = poll();
+    while (e == null) {
+      awaitNotEmpty(0);
+      e = poll();
+    }
+    return e;
+  }
+
+  @Override
+  public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    E e = poll();
+    if (e != null) {
+      return e;
+    }
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (true) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return null;
+      }
+      awaitNotEmpty(remaining);
+      e = poll();
+      if (e != null) {
+        return e;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    // Индекс потребителя читается до и после хвоста, чтобы пара индексов была согласованной
+    long after = consumerIndex;
+    while (true) {
+      long before = after;
+      long tail = producerIndex;
+      after = consumerIndex;
+      if (before == after) {
+        return (int) Math.max(0, Math.min(tail - after, capacity));
+      }
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return consumerIndex == producerIndex;
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - size();
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c, int maxElements) {
+    if (c == this) {
+      throw new IllegalArgumentException();
+    }
+    int count = 0;
+    E e;
+    while (count < maxElements && (e = poll()) != null) {
+      c.add(e);
+      count++;
+    }
+    return count;
+  }
+
+  // Слабо согласованный снимок очереди: для отладочного вывода, удаление не поддерживается
+  @Override
+  public Iterator<E> iterator() {
+    List<E> snapshot = new ArrayList<>();
+    long tail = producerIndex;
+    for (long index = consumerIndex; index < tail; index++) {
+      E e = buffer.get(offset(index));
+      if (e != null) {
+        snapshot.add(e);
+      }
+    }
+    return Collections.unmodifiableList(snapshot).iterator();
+  }
+
+  @Override
+  public String toString() {
+    return "MpscArrayBlockingQueue{capacity=" + capacity + ", size=" + size() + "}";
+  }
+
+  private int offset(long index) {
+    return (int) index & mask;
+  }
+
+  private E awaitPublished(int offset) {
+    E e;
+    while ((e = buffer.get(offset)) == null) {
+      // Производитель мог быть вытеснен между CAS и публикацией: отдаём ему ядро
+      Thread.yield();
+    }
+    return e;
+  }
+
+  // nanos == 0 - без ограничения времени
+  private void awaitNotEmpty(long nanos) throws InterruptedException {
+    consumerWaiter = Thread.currentThread();
+    try {
+      // Повторная проверка после записи consumerWaiter: иначе можно проспать публикацию
+      if (isEmpty()) {
+        if (nanos > 0) {
+          LockSupport.parkNanos(this, nanos);
+        } else {
+          LockSupport.park(this);
+        }
+      }
+    } finally {
+      consumerWaiter = null;
+    }
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  private static void backoffWhileFull() throws InterruptedException {
+    LockSupport.parkNanos(FULL_BACKOFF_NS);
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+}
+
+/*
+   Поля очереди разнесены по кэш-линиям родительскими классами: JVM располагает поля родителя
+   раньше полей наследника и не переставляет их между классами. 15 long - 120 байт отступа,
+   с запасом на соседнюю кэш-линию, которую процессор подгружает парой.
+*/
+abstract class MpscPadding0<E> extends AbstractQueue<E> {
+  long p00, p01, p02, p03, p04, p05, p06, p07, p08, p09, p0a, p0b, p0c, p0d, p0e;
+}
+
+// Индекс хвоста и кэшированный предел - пишут только производители
+abstract class MpscProducerFields<E> extends MpscPadding0<E> {
+  // newUpdater принимает только сырой Class, параметр типа поля не важен
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static final AtomicLongFieldUpdater<MpscProducerFields<?>> PRODUCER_INDEX =
+      (AtomicLongFieldUpdater)
+          AtomicLongFieldUpdater.newUpdater(MpscProducerFields.class, "producerIndex");
+
+  volatile long producerIndex;
+  volatile long producerLimit;
+
+  final boolean casProducerIndex(long expect, long update) {
+    return PRODUCER_INDEX.compareAndSet(this, expect, update);
+  }
+}
+
+abstract class MpscPadding1<E> extends MpscProducerFields<E> {
+  long p10, p11, p12, p13, p14, p15, p16, p17, p18, p19, p1a, p1b, p1c, p1d, p1e;
+}
+
+// Индекс головы - пишет только потребитель
+abstract class MpscConsumerFields<E> extends MpscPadding1<E> {
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  static final AtomicLongFieldUpdater<MpscConsumerFields<?>> CONSUMER_INDEX =
+      (AtomicLongFieldUpdater)
+          AtomicLongFieldUpdater.newUpdater(MpscConsumerFields.class, "consumerIndex");
+
+  volatile long consumerIndex;
+}
+
+abstract class MpscPadding2<E> extends MpscConsumerFields<E> {
+  long p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p2a, p2b, p2c, p2d, p2e;
+}
+
+// Поток потребителя, уснувший на пустой очереди; производители читают поле на каждое добавление
+abstract class MpscConsumerWaiter<E> extends MpscPadding2<E> {
+  volatile Thread consumerWaiter;
+}
@@ -0,0 +1,22 @@
+package ru.otus.main_patterns.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Реализация очереди команд по имени (например, из настроек сервера)
+public enum QueueType {
+  // Один ReentrantLock на добавление и извлечение; извлекать могут любые потоки
+  ARRAY_BLOCKING,
+  // Кольцевой буфер без блокировок, извлекает только один поток (MpscArrayBlockingQueue)
+  MPSC_RING;
+
+  public <E> BlockingQueue<E> create(int capacity) {
+    switch (this) {
+      case MPSC_RING:
+        return new MpscArrayBlockingQueue<>(capacity);
+      case ARRAY_BLOCKING:
+      default:
+        return new ArrayBlockingQueue<>(capacity);
+    }
+  }
+}
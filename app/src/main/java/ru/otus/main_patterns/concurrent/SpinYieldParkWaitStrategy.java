@@ -0,0 +1,58 @@
+package ru.otus.main_patterns.concurrent;
+
+import java.util.concurrent.BlockingQueue;
+
+/*
+   Гибридное ожидание: сначала spins раз опрашивает очередь в цикле (команда, пришедшая
+   в ближайшие микросекунды, забирается без пробуждения потока), затем yields раз уступает
+   ядро другим потокам (Thread.yield) и только потом засыпает в take().
+   Под нагрузкой поток почти не засыпает, а в простое не занимает ядро дольше фазы опроса.
+   На одном ядре опрос только отнимает время у производителя команды, поэтому по умолчанию
+   там он пропускается (как в SynchronousQueue) и остаётся только Thread.yield.
+*/
+public class SpinYieldParkWaitStrategy implements WaitStrategy {
+  public static final int DEFAULT_SPINS =
+      Runtime.getRuntime().availableProcessors() < 2 ? 0 : 10_000;
+  public static final int DEFAULT_YIELDS = 100;
+
+  private final int spins;
+  private final int yields;
+
+  public SpinYieldParkWaitStrategy() {
+    this(DEFAULT_SPINS, DEFAULT_YIELDS);
+  }
+
+  public SpinYieldParkWaitStrategy(int spins, int yields) {
+    if (spins < 0 || yields < 0) {
+      throw new IllegalArgumentException("Spins and yields must not be negative");
+    }
+    this.spins = spins;
+    this.yields = yields;
+  }
+
+  @Override
+  public <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+    for (int i = 0; i < spins; i++) {
+      T item = queue.poll();
+      if (item != null) {
+        return item;
+      }
+    }
+    for (int i = 0; i < yields; i++) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      Thread.yield();
+      T item = queue.poll();
+      if (item != null) {
+        return item;
+      }
+    }
+    return queue.take();
+  }
+
+  @Override
+  public String toString() {
+    return "SpinYieldParkWaitStrategy{" + "spins=" + spins + ", yields=" + yields + '}';
+  }
+}
@@ -0,0 +1,15 @@
+package ru.otus.main_patterns.concurrent;
+
+import java.util.concurrent.BlockingQueue;
+
+/*
+   Как поток цикла выполнения команд (ServerThread) ждёт следующую команду из своей очереди.
+   take() на BlockingQueue усыпляет поток (park), и каждая передача команды спящему потоку
+   стоит пробуждения (unpark) - это десятки микросекунд. Стратегия позволяет вместо этого
+   какое-то время опрашивать очередь, занимая ядро.
+   Все стратегии отвечают на прерывание потока InterruptedException, как и take().
+*/
+public interface WaitStrategy {
+
+  <T> T take(BlockingQueue<T> queue) throws InterruptedException;
+}
@@ -0,0 +1,20 @@
+package ru.otus.main_patterns.concurrent;
+
+// Стратегия ожидания по имени (например, из настроек сервера)
+public enum WaitStrategyType {
+  BLOCKING,
+  SPIN_YIELD_PARK,
+  BUSY_SPIN;
+
+  public WaitStrategy create() {
+    switch (this) {
+      case SPIN_YIELD_PARK:
+        return new SpinYieldParkWaitStrategy();
+      case BUSY_SPIN:
+        return new BusySpinWaitStrategy();
+      case BLOCKING:
+      default:
+        return new BlockingWaitStrategy();
+    }
+  }
+}
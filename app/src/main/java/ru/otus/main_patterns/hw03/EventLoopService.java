@@ -1,9 +1,9 @@
 package ru.otus.main_patterns.hw03;
 
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.concurrent.MpscArrayBlockingQueue;
 import ru.otus.main_patterns.hw03.command.Command;
 import ru.otus.main_patterns.hw03.handler.ExceptionHandler;
 
@@ -28,7 +28,8 @@ import ru.otus.main_patterns.hw03.handler.ExceptionHandler;
  Locks are more flexible way to provide mutual exclusion and synchronization in Java, a powerful alternative of synchronized keyword.
 */
 public class EventLoopService {
-  private final BlockingQueue<Command> blockingQueue = new ArrayBlockingQueue<>(100);
+  // Команды извлекает только EventLoop-Thread, поэтому подходит очередь без блокировок (MPSC)
+  private final BlockingQueue<Command> blockingQueue = new MpscArrayBlockingQueue<>(100);
   private boolean canStop = false;
   private Thread executeThread;
 
@@ -0,0 +1,96 @@
+package ru.otus.main_patterns.hw07;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw07.interfaces.Command;
+
+/*
+   Состояние одной остановки с бюджетом времени - общее для ServerThread и ServerThreadPool.
+   Стратегия остановки: цикл завершается, когда выполнил все принятые команды или когда истёк
+   срок. Стратегия проверяется только между командами, поэтому в срок остановку ещё и
+   принудительно выполняет таймер (scheduleHardStop): цикл получает Hard Stop, а его потоки
+   будятся и прерываются (interrupt), чтобы долгая или ждущая команда не задержала остановку.
+   Остаток очереди цикл передаёт в complete уже после завершения своих потоков, и итог
+   завершается только после передачи остатка handoff.
+*/
+final class DeadlineShutdown {
+  private static final Logger logger = LoggerFactory.getLogger(DeadlineShutdown.class);
+
+  private final long startedNanos = System.nanoTime();
+  private final long deadlineNanos;
+  private final long executedBefore;
+  private final Consumer<Command> handoff;
+  private final CompletableFuture<ShutdownReport> report = new CompletableFuture<>();
+  private volatile ScheduledFuture<?> hardStop;
+
+  DeadlineShutdown(long timeout, TimeUnit unit, long executedBefore, Consumer<Command> handoff) {
+    this.deadlineNanos = startedNanos + unit.toNanos(timeout);
+    this.executedBefore = executedBefore;
+    this.handoff = handoff;
+  }
+
+  Supplier<Boolean> stopStrategy(Supplier<Boolean> drained) {
+    return () -> drained.get() || System.nanoTime() - deadlineNanos >= 0;
+  }
+
+  CompletableFuture<ShutdownReport> getReport() {
+    return report;
+  }
+
+  // forceStop выполнится в срок, если цикл к тому времени ещё не завершился
+  void scheduleHardStop(Runnable forceStop) {
+    hardStop =
+        Timer.INSTANCE.schedule(
+            () -> {
+              if (!report.isDone()) {
+                logger.warn("shutdown, deadline is over, forcing hard stop");
+                forceStop.run();
+              }
+            },
+            Math.max(0, deadlineNanos - System.nanoTime()),
+            TimeUnit.NANOSECONDS);
+  }
+
+  // remainder - команды, оставшиеся в очередях остановленного цикла
+  void complete(List<Command> remainder, long executedTotal) {
+    ScheduledFuture<?> scheduled = hardStop;
+    if (scheduled != null) {
+      scheduled.cancel(false);
+    }
+    int handedOff = 0;
+    for (Command command : remainder) {
+      try {
+        handoff.accept(command);
+        handedOff++;
+      } catch (RuntimeException e) {
+        logger.error("shutdown, fail to hand off command: " + command, e);
+      }
+    }
+    ShutdownReport result =
+        new ShutdownReport(
+            executedTotal - executedBefore,
+            handedOff,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos));
+    logger.info("shutdown, {}", result);
+    report.complete(result);
+  }
+
+  // Один поток-таймер на все остановки; создаётся при первой остановке с бюджетом
+  private static final class Timer {
+    private static final ScheduledExecutorService INSTANCE =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "ShutdownDeadline");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+}
@@ -1,9 +1,9 @@
 package ru.otus.main_patterns.hw07;
 
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.concurrent.MpscArrayBlockingQueue;
 import ru.otus.main_patterns.hw07.command.*;
 import ru.otus.main_patterns.hw07.interfaces.Command;
 
@@ -58,17 +58,23 @@ public class HW07 {
         System.getProperty("java.version"),
         System.getProperty("java.vendor"));
 
-    BlockingQueue<Command> blockingQueue = new ArrayBlockingQueue<>(100);
+    // Команды извлекает только ServerThread - очередь без блокировок для одного потребителя
+    BlockingQueue<Command> blockingQueue = new MpscArrayBlockingQueue<>(100);
     ServerThread serverThread = new ServerThread(blockingQueue);
+
+    // Команды добавляются через serverThread.add до запуска: SoftStopCommand закрывает цикл,
+    // и команды, добавленные после её выполнения, были бы отклонены
+    serverThread.add(new SoftStopCommand(serverThread));
+    serverThread.add(new FillFuelCommand());
+    serverThread.add(new LoadWeaponsCommand());
+    serverThread.add(new ErrorCommand());
+    serverThread.add(new MoveCommand());
+    // serverThread.add(new HardStopCommand(serverThread));
+    serverThread.add(new RotateCommand());
+
     StartCommand startCommand = new StartCommand(serverThread);
     startCommand.execute();
-
-    blockingQueue.add(new SoftStopCommand(blockingQueue, serverThread));
-    blockingQueue.add(new FillFuelCommand());
-    blockingQueue.add(new LoadWeaponsCommand());
-    blockingQueue.add(new ErrorCommand());
-    blockingQueue.add(new MoveCommand());
-    // blockingQueue.add(new HardStopCommand(serverThread));
-    blockingQueue.add(new RotateCommand());
+    serverThread.getTermination().join();
+    logger.info("ServerThread stopped");
   }
 }
@@ -0,0 +1,56 @@
+package ru.otus.main_patterns.hw07;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import ru.otus.main_patterns.hw07.interfaces.Command;
+
+/*
+   Цикл выполнения команд, которым управляют StartCommand, HardStopCommand и SoftStopCommand:
+   один поток со своей очередью (ServerThread) или несколько потоков с перехватом работы
+   (ServerThreadPool). Команды не знают, какой из них запущен.
+
+   Soft stop (softStop) - протокол остановки без гонки с производителями:
+   1. цикл закрывается: add отклоняет новые команды;
+   2. поток цикла будится, если он ждёт команду в пустой очереди;
+   3. цикл выполняет все команды, принятые до закрытия, включая те, что добавлялись в момент закрытия;
+   4. getTermination() завершается, когда завершились все потоки цикла.
+   Поэтому команды нужно добавлять через add, а не в очередь напрямую.
+
+   shutdown - soft stop с бюджетом времени для предсказуемой остановки узла при выкладке:
+   цикл выполняет принятые команды не дольше timeout, затем останавливается как при hard stop
+   (потоки цикла при этом прерываются, чтобы не ждать долгую команду), а команды, оставшиеся
+   в очереди, передаются handoff (например, на сохранение). Итог - ShutdownReport: сколько
+   команд выполнено и сколько передано; он завершается после передачи остатка.
+*/
+public interface ServerLoop {
+
+  void start();
+
+  // IllegalStateException, если цикл закрыт (softStop) или очередь заполнена
+  void add(Command command);
+
+  // Hard stop: цикл завершается после текущей команды, оставшиеся в очереди не выполняются
+  void stop();
+
+  // Soft stop: закрывает цикл для новых команд и завершает его, выполнив принятые; см. выше
+  CompletableFuture<Void> softStop();
+
+  // Повторный вызов возвращает итог первой остановки
+  CompletableFuture<ShutdownReport> shutdown(
+      long timeout, TimeUnit unit, Consumer<Command> handoff);
+
+  // Завершается, когда завершились все потоки цикла (после soft stop или hard stop)
+  CompletableFuture<Void> getTermination();
+
+  // Цикл завершится, когда стратегия вернёт true (проверяется перед каждой командой)
+  void setStopStrategy(Supplier<Boolean> stopStrategy);
+
+  // Нет команд, ожидающих выполнения
+  boolean isQueueEmpty();
+
+  void join() throws InterruptedException;
+
+  boolean isAlive();
+}
@@ -1,9 +1,19 @@
 package ru.otus.main_patterns.hw07;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.concurrent.BlockingWaitStrategy;
+import ru.otus.main_patterns.concurrent.WaitStrategy;
 import ru.otus.main_patterns.hw07.interfaces.Command;
 
 /*
@@ -13,44 +23,191 @@ import ru.otus.main_patterns.hw07.interfaces.Command;
     Имплементация паттерна Command в многопоточной среде.
     EventLoop - это цикл, который выполняет команды из очереди.
     Он запускается в отдельном потоке(ServerThread) и продолжает работать, пока не будет остановлен(ServerThread#stop()).
+    Как поток ждёт команду из пустой очереди, задаёт WaitStrategy (по умолчанию - спит в take()).
+    Команды из очереди извлекает только этот поток, поэтому подходит и MpscArrayBlockingQueue.
+    С batchSize > 1 поток забирает из очереди сразу до batchSize команд (drainTo) и выполняет их
+    подряд: синхронизация очереди оплачивается один раз на пачку. Стратегия остановки проверяется
+    и перед каждой следующей командой пачки, поэтому Hard Stop и срок shutdown срабатывают после
+    текущей команды; невыполненный остаток пачки shutdown передаёт handoff вместе с остатком очереди.
+    Для soft stop команды пачки считаются ещё не выполненными (isDrained), и пачка выполняется целиком.
+    Soft stop (см. ServerLoop): producers - число потоков, которые прямо сейчас добавляют команду
+    через add. Производитель увеличивает счётчик до проверки closed, поэтому, если поток цикла
+    увидел closed и producers == 0, все принятые команды уже в очереди, а новые будут отклонены.
+    Спящий в пустой очереди поток будится пустой командой WAKE_UP; после отклонения команды
+    закрытым циклом WAKE_UP может остаться в очереди остановленного потока - она ничего не делает.
+    shutdown (см. ServerLoop) забирает остаток очереди после завершения потока, дождавшись
+    производителей, которые успели пройти проверку closed. В срок поток получает Hard Stop и
+    прерывается (interrupt), даже если выполняет долгую команду или ждёт в очереди.
 
 */
-public class ServerThread {
+public class ServerThread implements ServerLoop {
   private final BlockingQueue<Command> blockingQueue;
   private volatile Supplier<Boolean> stopStrategy = () -> false;
+  private volatile boolean closed;
+  private final AtomicInteger producers = new AtomicInteger();
+  private final CompletableFuture<Void> termination = new CompletableFuture<>();
+  private final LongAdder executedCount = new LongAdder();
+  private DeadlineShutdown shutdown;
+  // Сколько команд текущей пачки ещё не выполнено; только для потока цикла
+  private int pendingInBatch;
+  // Остаток пачки, не выполненный из-за остановки; читается после завершения потока
+  private List<Command> unexecuted = Collections.emptyList();
   private final Thread thread;
+  private static final Command WAKE_UP = () -> {};
   private static final Logger logger = LoggerFactory.getLogger(ServerThread.class);
 
   public ServerThread(BlockingQueue<Command> blockingQueue) {
+    this(blockingQueue, new BlockingWaitStrategy());
+  }
+
+  public ServerThread(BlockingQueue<Command> blockingQueue, WaitStrategy waitStrategy) {
+    this(blockingQueue, waitStrategy, 1);
+  }
+
+  // batchSize - сколько команд поток забирает из очереди за раз (1 - по одной)
+  public ServerThread(
+      BlockingQueue<Command> blockingQueue, WaitStrategy waitStrategy, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+    }
     this.blockingQueue = blockingQueue;
 
     thread =
         new Thread(
             () -> {
-              // EventLoop -  выполняет команды из очереди.
-              // Теперь цикл зависит от результата выполнения метода get()
-              while (!stopStrategy.get()) {
-                Command command = null;
-                try {
-                  command = blockingQueue.take(); // если очередь пуста, то поток ждёт.
-                  command.execute();
-                } catch (Exception e) {
-                  logger.error("ServerThread, fail execution command: " + command, e);
-                }
+              try {
+                eventLoop(waitStrategy, batchSize);
+              } finally {
+                termination.complete(null);
               }
             });
     thread.setName("ServerThread");
   }
 
+  private void eventLoop(WaitStrategy waitStrategy, int batchSize) {
+    List<Command> batch = new ArrayList<>(batchSize);
+    // EventLoop -  выполняет команды из очереди.
+    // Теперь цикл зависит от результата выполнения метода get()
+    while (!stopStrategy.get()) {
+      try {
+        batch.add(waitStrategy.take(blockingQueue)); // если очередь пуста, то поток ждёт.
+        if (batchSize > 1) {
+          blockingQueue.drainTo(batch, batchSize - 1); // остальные - без ожидания
+        }
+      } catch (InterruptedException e) {
+        // Прерван в ожидании команды (остановка в срок) - проверяем стратегию остановки
+        logger.debug("ServerThread interrupted");
+      } catch (Exception e) {
+        logger.error("ServerThread, fail to take command", e);
+      }
+      int next = 0;
+      for (; next < batch.size(); next++) {
+        pendingInBatch = batch.size() - next;
+        // Первую команду пачки уже пропустила проверка в while
+        if (next > 0 && stopStrategy.get()) {
+          break;
+        }
+        Command command = batch.get(next);
+        if (command == WAKE_UP) {
+          continue;
+        }
+        try {
+          command.execute();
+        } catch (Exception e) {
+          logger.error("ServerThread, fail execution command: " + command, e);
+        }
+        executedCount.increment();
+      }
+      pendingInBatch = 0;
+      if (next < batch.size()) {
+        unexecuted = new ArrayList<>(batch.subList(next, batch.size()));
+        return;
+      }
+      batch.clear();
+    }
+  }
+
+  @Override
   public void start() {
     logger.debug("start");
     thread.start();
   }
 
+  @Override
+  public void add(Command command) {
+    producers.incrementAndGet();
+    try {
+      if (closed) {
+        throw new IllegalStateException("ServerThread is closed for new commands");
+      }
+      blockingQueue.add(command);
+    } finally {
+      // Поток цикла мог уснуть, пока эта команда добавлялась: будим его проверить остановку
+      if (producers.decrementAndGet() == 0 && closed) {
+        blockingQueue.offer(WAKE_UP);
+      }
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> softStop() {
+    logger.debug("softStop");
+    closed = true;
+    setStopStrategy(this::isDrained);
+    // Поток, ждущий в пустой очереди, проснётся и проверит стратегию остановки
+    blockingQueue.offer(WAKE_UP);
+    return termination;
+  }
+
+  @Override
+  public synchronized CompletableFuture<ShutdownReport> shutdown(
+      long timeout, TimeUnit unit, Consumer<Command> handoff) {
+    if (shutdown == null) {
+      logger.debug("shutdown, timeout: {} {}", timeout, unit);
+      DeadlineShutdown deadline = new DeadlineShutdown(timeout, unit, executedCount.sum(), handoff);
+      shutdown = deadline;
+      closed = true;
+      setStopStrategy(deadline.stopStrategy(this::isDrained));
+      blockingQueue.offer(WAKE_UP);
+      deadline.scheduleHardStop(
+          () -> {
+            stop();
+            thread.interrupt();
+          });
+      // После завершения потока очередь больше никто не читает
+      termination.thenRun(() -> deadline.complete(drainRemainder(), executedCount.sum()));
+    }
+    return shutdown.getReport();
+  }
+
+  private boolean isDrained() {
+    return pendingInBatch == 0 && producers.get() == 0 && blockingQueue.isEmpty();
+  }
+
+  private List<Command> drainRemainder() {
+    // Цикл закрыт: производители, уже прошедшие проверку closed, вот-вот добавят свою команду
+    while (producers.get() != 0) {
+      Thread.yield();
+    }
+    // Остаток пачки был в очереди раньше остальных команд
+    List<Command> remainder = new ArrayList<>(unexecuted);
+    blockingQueue.drainTo(remainder);
+    remainder.removeIf(command -> command == WAKE_UP);
+    return remainder;
+  }
+
+  @Override
+  public CompletableFuture<Void> getTermination() {
+    return termination;
+  }
+
   // Обычная остановка (Hard Stop)
+  @Override
   public void stop() {
     logger.debug("stop");
     this.stopStrategy = () -> true;
+    // Иначе поток, ждущий в пустой очереди, не завершится до следующей команды
+    blockingQueue.offer(WAKE_UP);
   }
   /*
     Можно ли использовать просто boolean? Да, но тогда логика проверки "пуста ли очередь" при Soft Stop переедет внутрь
@@ -65,15 +222,23 @@ public class ServerThread {
     Вариант через Supplier более гибкий, чем просто boolean флаг.
     Supplier позволяет нам динамически менять стратегию остановки. Можно на лету менять само определение того, что значит "остановиться".
   */
+  @Override
   public void setStopStrategy(Supplier<Boolean> stopStrategy) {
     this.stopStrategy = stopStrategy;
   }
 
+  @Override
+  public boolean isQueueEmpty() {
+    return blockingQueue.isEmpty();
+  }
+
   // wait for thread to finish
+  @Override
   public void join() throws InterruptedException {
     thread.join();
   }
 
+  @Override
   public boolean isAlive() {
     return thread.isAlive();
   }
@@ -0,0 +1,267 @@
+package ru.otus.main_patterns.hw07;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw07.interfaces.Command;
+
+/*
+   Несколько EventLoop с перехватом работы (work stealing), чтобы выполнение команд
+   масштабировалось по ядрам.
+   У каждого потока своя очередь (дек). add раскладывает команды по очередям по кругу;
+   поток выполняет команды своей очереди по порядку (с одного конца дека), а когда она пуста -
+   забирает самую новую команду очереди другого потока (с другого конца, чтобы реже встречаться
+   с её владельцем). Поэтому одна долгая команда не задерживает команды, попавшие в ту же
+   очередь: их выполнят свободные потоки. Порядок выполнения команд между потоками не гарантируется.
+
+   Свободные потоки не крутятся в цикле, а ждут на общем семафоре: каждая добавленная команда
+   даёт одно разрешение. Команда видна в очереди раньше своего разрешения, поэтому поток может
+   забрать чужую команду и оставить без команды поток с её разрешением; такой поток возвращает
+   разрешение, если в очередях ещё есть команды, и ни одна команда не остаётся без потока.
+   stop() и setStopStrategy() добавляют по разрешению на поток (пробуждение без команды):
+   проснувшийся поток сначала проверяет стратегию остановки и только потом берёт команду.
+
+   Семантика команд прежняя: HardStopCommand - все потоки завершаются после своей текущей команды,
+   SoftStopCommand(pool) - пул закрывается для новых команд (softStop, см. ServerLoop), и потоки
+   завершаются, когда опустеют очереди всех потоков и ни один производитель не добавляет команду.
+*/
+public class ServerThreadPool implements ServerLoop {
+  private final List<BlockingDeque<Command>> queues = new ArrayList<>();
+  private final List<Thread> threads = new ArrayList<>();
+  private final Semaphore available = new Semaphore(0);
+  private final AtomicInteger nextQueue = new AtomicInteger();
+  private volatile Supplier<Boolean> stopStrategy = () -> false;
+  private volatile boolean closed;
+  // Сколько потоков прямо сейчас добавляют команду (add)
+  private final AtomicInteger producers = new AtomicInteger();
+  private final AtomicInteger running;
+  private final CompletableFuture<Void> termination = new CompletableFuture<>();
+  private final LongAdder executedCount = new LongAdder();
+  private DeadlineShutdown shutdown;
+  private static final Logger logger = LoggerFactory.getLogger(ServerThreadPool.class);
+
+  public ServerThreadPool(int workers, int capacity) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Workers count must be positive: " + workers);
+    }
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be positive: " + capacity);
+    }
+    for (int i = 0; i < workers; i++) {
+      queues.add(new LinkedBlockingDeque<>(capacity));
+      int index = i;
+      Thread thread = new Thread(() -> eventLoop(index));
+      thread.setName("ServerThread-" + i);
+      threads.add(thread);
+    }
+    running = new AtomicInteger(workers);
+  }
+
+  // Как BlockingQueue.add: IllegalStateException, если заполнены очереди всех потоков
+  // или пул закрыт (softStop)
+  @Override
+  public void add(Command command) {
+    producers.incrementAndGet();
+    try {
+      if (closed) {
+        throw new IllegalStateException("ServerThreadPool is closed for new commands");
+      }
+      int start = nextQueue.getAndIncrement();
+      for (int i = 0; i < queues.size(); i++) {
+        if (queues.get(Math.floorMod(start + i, queues.size())).offerFirst(command)) {
+          // Команда видна в очереди раньше, чем появится её разрешение
+          available.release();
+          return;
+        }
+      }
+      throw new IllegalStateException("Queues of all server threads are full");
+    } finally {
+      // Потоки могли уснуть, пока эта команда добавлялась: будим их проверить остановку
+      if (producers.decrementAndGet() == 0 && closed) {
+        available.release(threads.size());
+      }
+    }
+  }
+
+  private void eventLoop(int index) {
+    try {
+      runCommands(index);
+    } finally {
+      if (running.decrementAndGet() == 0) {
+        termination.complete(null);
+      }
+    }
+  }
+
+  private void runCommands(int index) {
+    BlockingDeque<Command> own = queues.get(index);
+    while (!stopStrategy.get()) {
+      Command command = null;
+      try {
+        available.acquire(); // если команд нет, то поток ждёт.
+        if (stopStrategy.get()) {
+          // Остановка, пока поток ждал: ещё одну команду не выполняем
+          return;
+        }
+        command = own.pollLast();
+        if (command == null) {
+          command = steal(index);
+        }
+        if (command == null) {
+          // Команду этого разрешения уже забрал другой поток, а его разрешение досталось нам.
+          // Если в очередях остались команды, возвращаем разрешение, чтобы ни одна не осталась
+          // без потока
+          if (!isQueueEmpty()) {
+            available.release();
+          }
+          continue;
+        }
+        try {
+          command.execute();
+        } finally {
+          executedCount.increment();
+        }
+      } catch (InterruptedException e) {
+        logger.debug("ServerThreadPool, {} interrupted", Thread.currentThread().getName());
+        return;
+      } catch (Exception e) {
+        logger.error("ServerThreadPool, fail execution command: " + command, e);
+      }
+    }
+  }
+
+  // Самая новая команда чужой очереди: владелец берёт с другого конца
+  private Command steal(int thief) {
+    for (int i = 1; i < queues.size(); i++) {
+      Command command = queues.get((thief + i) % queues.size()).pollFirst();
+      if (command != null) {
+        return command;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void start() {
+    logger.debug("start, workers: {}", threads.size());
+    for (Thread thread : threads) {
+      thread.start();
+    }
+  }
+
+  @Override
+  public void stop() {
+    logger.debug("stop");
+    setStopStrategy(() -> true);
+  }
+
+  @Override
+  public CompletableFuture<Void> softStop() {
+    logger.debug("softStop");
+    closed = true;
+    setStopStrategy(this::isDrained);
+    return termination;
+  }
+
+  // Остаток очередей всех потоков передаётся handoff, когда завершится последний поток
+  @Override
+  public synchronized CompletableFuture<ShutdownReport> shutdown(
+      long timeout, TimeUnit unit, Consumer<Command> handoff) {
+    if (shutdown == null) {
+      logger.debug("shutdown, timeout: {} {}", timeout, unit);
+      DeadlineShutdown deadline = new DeadlineShutdown(timeout, unit, executedCount.sum(), handoff);
+      shutdown = deadline;
+      closed = true;
+      setStopStrategy(deadline.stopStrategy(this::isDrained));
+      deadline.scheduleHardStop(
+          () -> {
+            stop();
+            for (Thread thread : threads) {
+              thread.interrupt();
+            }
+          });
+      termination.thenRun(() -> deadline.complete(drainRemainder(), executedCount.sum()));
+    }
+    return shutdown.getReport();
+  }
+
+  private boolean isDrained() {
+    return producers.get() == 0 && isQueueEmpty();
+  }
+
+  private List<Command> drainRemainder() {
+    // Пул закрыт: производители, уже прошедшие проверку closed, вот-вот добавят свою команду
+    while (producers.get() != 0) {
+      Thread.yield();
+    }
+    List<Command> remainder = new ArrayList<>();
+    for (BlockingDeque<Command> queue : queues) {
+      // Владелец берёт с конца дека: самые старые команды - последние
+      Command command;
+      while ((command = queue.pollLast()) != null) {
+        remainder.add(command);
+      }
+    }
+    return remainder;
+  }
+
+  @Override
+  public CompletableFuture<Void> getTermination() {
+    return termination;
+  }
+
+  @Override
+  public void setStopStrategy(Supplier<Boolean> stopStrategy) {
+    this.stopStrategy = stopStrategy;
+    // Будим ждущие потоки, чтобы они проверили новую стратегию
+    available.release(threads.size());
+  }
+
+  @Override
+  public boolean isQueueEmpty() {
+    for (BlockingDeque<Command> queue : queues) {
+      if (!queue.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void join() throws InterruptedException {
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+  // Жив хотя бы один поток
+  @Override
+  public boolean isAlive() {
+    for (Thread thread : threads) {
+      if (thread.isAlive()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int getAliveCount() {
+    int count = 0;
+    for (Thread thread : threads) {
+      if (thread.isAlive()) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
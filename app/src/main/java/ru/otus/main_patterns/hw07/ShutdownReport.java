@@ -0,0 +1,47 @@
+package ru.otus.main_patterns.hw07;
+
+/*
+   Итог остановки цикла с бюджетом времени (ServerLoop.shutdown):
+   executed - сколько команд цикл выполнил с начала остановки (включая выполнявшиеся в этот момент),
+   handedOff - сколько невыполненных команд передано обработчику (например, на сохранение),
+   elapsedMillis - сколько длилась остановка до передачи остатка включительно.
+*/
+public final class ShutdownReport {
+  private final long executed;
+  private final int handedOff;
+  private final long elapsedMillis;
+
+  public ShutdownReport(long executed, int handedOff, long elapsedMillis) {
+    this.executed = executed;
+    this.handedOff = handedOff;
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public long getExecuted() {
+    return executed;
+  }
+
+  public int getHandedOff() {
+    return handedOff;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  // Цикл успел выполнить все принятые команды за отведённое время
+  public boolean isDrained() {
+    return handedOff == 0;
+  }
+
+  @Override
+  public String toString() {
+    return "ShutdownReport{executed="
+        + executed
+        + ", handedOff="
+        + handedOff
+        + ", elapsedMillis="
+        + elapsedMillis
+        + "}";
+  }
+}
@@ -0,0 +1,50 @@
+package ru.otus.main_patterns.hw07.command;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw07.ServerLoop;
+import ru.otus.main_patterns.hw07.ShutdownReport;
+import ru.otus.main_patterns.hw07.interfaces.Command;
+
+/*
+   Остановка с бюджетом времени: как SoftStopCommand, но выполняет оставшиеся команды
+   не дольше timeoutMs, после чего цикл останавливается, а невыполненные команды передаются
+   handoff. Итог остановки (ShutdownReport) доступен через getShutdownReport() ещё до
+   выполнения команды и завершится после передачи остатка handoff.
+*/
+public class DeadlineStopCommand implements Command {
+  private final ServerLoop serverLoop;
+  private final long timeoutMs;
+  private final Consumer<Command> handoff;
+  private final CompletableFuture<ShutdownReport> shutdownReport = new CompletableFuture<>();
+  private static final Logger logger = LoggerFactory.getLogger(DeadlineStopCommand.class);
+
+  public DeadlineStopCommand(ServerLoop serverLoop, long timeoutMs, Consumer<Command> handoff) {
+    this.serverLoop = serverLoop;
+    this.timeoutMs = timeoutMs;
+    this.handoff = handoff;
+  }
+
+  @Override
+  public void execute() {
+    logger.debug("\nDeadlineStopCommand, execute, timeout: {} ms", timeoutMs);
+    // Не ждёт остановки: команда выполняется в потоке самого цикла
+    serverLoop
+        .shutdown(timeoutMs, TimeUnit.MILLISECONDS, handoff)
+        .whenComplete(
+            (report, ex) -> {
+              if (ex == null) {
+                shutdownReport.complete(report);
+              } else {
+                shutdownReport.completeExceptionally(ex);
+              }
+            });
+  }
+
+  public CompletableFuture<ShutdownReport> getShutdownReport() {
+    return shutdownReport;
+  }
+}
@@ -2,17 +2,17 @@ package ru.otus.main_patterns.hw07.command;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.otus.main_patterns.hw07.ServerThread;
+import ru.otus.main_patterns.hw07.ServerLoop;
 import ru.otus.main_patterns.hw07.interfaces.Command;
 
 /*
    3. Написать команду, которая останавливает цикл выполнения команд из пункта 1, не дожидаясь их полного завершения (hard stop).
 */
 public class HardStopCommand implements Command {
-  private final ServerThread serverThread;
+  private final ServerLoop serverThread;
   private static final Logger logger = LoggerFactory.getLogger(HardStopCommand.class);
 
-  public HardStopCommand(ServerThread serverThread) {
+  public HardStopCommand(ServerLoop serverThread) {
     this.serverThread = serverThread;
   }
 
@@ -3,26 +3,39 @@ package ru.otus.main_patterns.hw07.command;
 import java.util.concurrent.BlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.otus.main_patterns.hw07.ServerThread;
+import ru.otus.main_patterns.hw07.ServerLoop;
 import ru.otus.main_patterns.hw07.interfaces.Command;
 
 /*
    4. Написать команду, которая останавливает цикл выполнения команд из пункта 1, только после того,
      как все команды завершат свою работу (soft stop).
+   Для ServerThreadPool "все команды" - это очереди всех его потоков: SoftStopCommand(serverLoop).
+   Раньше команда только ставила стратегию остановки blockingQueue::isEmpty: производители могли
+   добавлять команды и после неё, а поток, уже ждущий в пустой очереди, не просыпался.
+   Теперь она запускает протокол ServerLoop.softStop(): закрыть цикл, разбудить поток, выполнить
+   принятые команды; завершение видно через serverLoop.getTermination().
 */
 public class SoftStopCommand implements Command {
-  private final BlockingQueue<Command> blockingQueue;
-  private final ServerThread serverThread;
+  private final ServerLoop serverThread;
   private static final Logger logger = LoggerFactory.getLogger(SoftStopCommand.class);
 
-  public SoftStopCommand(BlockingQueue<Command> blockingQueue, ServerThread serverThread) {
-    this.blockingQueue = blockingQueue;
-    this.serverThread = serverThread;
+  /**
+   * @deprecated очередь не используется: условие "очередь пуста" цикл проверяет сам, а команды
+   *     после soft stop нужно добавлять через {@link ServerLoop#add}, иначе они минуют проверку
+   *     закрытого цикла. Используйте {@link #SoftStopCommand(ServerLoop)}.
+   */
+  @Deprecated
+  public SoftStopCommand(BlockingQueue<Command> blockingQueue, ServerLoop serverThread) {
+    this(serverThread);
+  }
+
+  public SoftStopCommand(ServerLoop serverLoop) {
+    this.serverThread = serverLoop;
   }
 
   @Override
   public void execute() {
     logger.debug("\nSoftCommand, execute");
-    serverThread.setStopStrategy(blockingQueue::isEmpty);
+    serverThread.softStop();
   }
 }
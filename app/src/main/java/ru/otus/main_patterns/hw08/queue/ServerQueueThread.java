@@ -24,7 +24,9 @@ public class ServerQueueThread {
                 Command command = null;
                 try {
                   command = blockingQueue.take(); // блокирует, если очередь пуста
-                  logger.debug("Executing {}", command.getClass().getSimpleName());
+                  if (logger.isDebugEnabled()) {
+                    logger.debug("Executing {}", command.getClass().getSimpleName());
+                  }
                   command.execute();
                 } catch (Exception e) {
                   logger.error("ServerThread, fail execution command: " + command, e);
@@ -24,9 +24,11 @@ public class QueueService {
   }
 
   public void addCommand(Command command) {
-    logger.debug("addCommand, add command {} to queue", command.getClass().getSimpleName());
     blockingQueue.add(command);
-    printQueue();
+    if (logger.isDebugEnabled()) {
+      logger.debug("addCommand, add command {} to queue", command.getClass().getSimpleName());
+      printQueue();
+    }
   }
 
   private void printQueue() {
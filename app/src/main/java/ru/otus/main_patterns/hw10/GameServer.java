@@ -4,8 +4,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
 import ru.otus.main_patterns.hw10.filter.AuthFilter;
+import ru.otus.main_patterns.hw10.service.GameConfigService;
+import ru.otus.main_patterns.hw10.service.JournalService;
+import ru.otus.main_patterns.hw10.service.QueueService;
+import ru.otus.main_patterns.hw10.service.SnapshotService;
+import ru.otus.main_patterns.hw10.servlet.BatchOrderServlet;
 import ru.otus.main_patterns.hw10.servlet.HelloServlet;
+import ru.otus.main_patterns.hw10.servlet.MetricsServlet;
 import ru.otus.main_patterns.hw10.servlet.OrderServlet;
 
 public class GameServer {
@@ -14,13 +21,26 @@ public class GameServer {
   public GameServer(int port) {
     server = new Server(port);
     ServletContextHandler handler = new ServletContextHandler(ServletContextHandler.SESSIONS);
-    handler.addFilter(new FilterHolder(new AuthFilter(new ObjectMapper())), "/game/*", null);
+    // OrderServlet обрабатывает приказы асинхронно, поэтому async должна поддерживать вся цепочка
+    FilterHolder authFilter = new FilterHolder(new AuthFilter(new ObjectMapper()));
+    authFilter.setAsyncSupported(true);
+    handler.addFilter(authFilter, "/game/*", null);
     handler.addServlet(HelloServlet.class, "/hello");
-    handler.addServlet(OrderServlet.class, "/game/order");
+    handler.addServlet(MetricsServlet.class, "/metrics");
+    ServletHolder orderServlet = handler.addServlet(OrderServlet.class, "/game/order");
+    orderServlet.setAsyncSupported(true);
+    handler.addServlet(BatchOrderServlet.class, "/game/orders");
     server.setHandler(handler);
   }
 
   public void start() throws Exception {
+    GameConfigService.getReloader().start();
+    // Состояние игр восстанавливается из снимка, а приказы из журнала после него - до запуска
+    // потоков игр и приёма новых приказов
+    SnapshotService.getInstance().restore();
+    JournalService.open();
+    SnapshotService.getInstance().start();
+    QueueService.getInstance().start();
     server.start();
   }
 
@@ -30,5 +50,10 @@ public class GameServer {
 
   public void stop() throws Exception {
     server.stop();
+    QueueService.getInstance().stop();
+    // Последний снимок пишется, когда потоки игр уже остановлены, но журнал ещё открыт
+    SnapshotService.getInstance().stop();
+    JournalService.close();
+    GameConfigService.getReloader().stop();
   }
 }
@@ -0,0 +1,45 @@
+package ru.otus.main_patterns.hw10.command;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Декоратор команды: после выполнения сообщает об этом через {@code executed}. Используется, когда
+ * клиенту нужно ответить только после выполнения приказа (см. {@code order.ack=EXECUTED}).
+ */
+public class AckCommand implements CancellableCommand {
+  private final Command command;
+  private final CompletableFuture<Void> executed;
+
+  public AckCommand(Command command, CompletableFuture<Void> executed) {
+    this.command = command;
+    this.executed = executed;
+  }
+
+  @Override
+  public void execute() {
+    try {
+      command.execute();
+    } catch (RuntimeException e) {
+      executed.completeExceptionally(e);
+      throw e;
+    }
+    executed.complete(null);
+  }
+
+  @Override
+  public void cancel(RuntimeException cause) {
+    if (command instanceof CancellableCommand) {
+      ((CancellableCommand) command).cancel(cause);
+    }
+    executed.completeExceptionally(cause);
+  }
+
+  public Command getCommand() {
+    return command;
+  }
+
+  @Override
+  public String toString() {
+    return "AckCommand{" + "command=" + command + '}';
+  }
+}
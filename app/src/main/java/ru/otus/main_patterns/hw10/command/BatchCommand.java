@@ -0,0 +1,52 @@
+package ru.otus.main_patterns.hw10.command;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Команды пакета приказов одной игры. Ставится в очередь одним элементом, поэтому команды пакета
+ * попадают в очередь все вместе (или ни одна) и выполняются подряд. Ошибка одной команды, как и в
+ * потоке очереди, не мешает выполнению остальных.
+ */
+public class BatchCommand implements CancellableCommand {
+  private final List<Command> commands;
+  private static final Logger logger = LoggerFactory.getLogger(BatchCommand.class);
+
+  public BatchCommand(List<Command> commands) {
+    this.commands = commands;
+  }
+
+  @Override
+  public void execute() {
+    for (Command command : commands) {
+      try {
+        command.execute();
+      } catch (Exception e) {
+        logger.error("BatchCommand, fail execution command: " + command, e);
+      }
+    }
+  }
+
+  @Override
+  public void cancel(RuntimeException cause) {
+    for (Command command : commands) {
+      if (command instanceof CancellableCommand) {
+        ((CancellableCommand) command).cancel(cause);
+      }
+    }
+  }
+
+  public int size() {
+    return commands.size();
+  }
+
+  public List<Command> getCommands() {
+    return commands;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchCommand{" + "commands=" + commands.size() + '}';
+  }
+}
@@ -1,19 +1,25 @@
 package ru.otus.main_patterns.hw10.command;
 
-import java.util.Map;
+import static ru.otus.main_patterns.hw10.game.GameState.FUEL_BURNED;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.dto.args.BurnFuelArgs;
+import ru.otus.main_patterns.hw10.game.UObject;
 
 public class BurnFuelCommand implements Command {
+  private final UObject ship;
   private final int fuelAmount;
   private static final Logger logger = LoggerFactory.getLogger(BurnFuelCommand.class);
 
-  public BurnFuelCommand(Map<String, Object> args) {
-    this.fuelAmount = (int) args.get("fuelAmount");
+  public BurnFuelCommand(UObject ship, BurnFuelArgs args) {
+    this.ship = ship;
+    this.fuelAmount = args.getFuelAmount();
   }
 
   @Override
   public void execute() {
+    ship.setProperty(FUEL_BURNED, (Integer) ship.getProperty(FUEL_BURNED) + fuelAmount);
     logger.debug("\nBurnFuelCommand, execute, fuelAmount = {}", fuelAmount);
   }
 }
@@ -0,0 +1,10 @@
+package ru.otus.main_patterns.hw10.command;
+
+/**
+ * Команда приказа, которую можно снять с выполнения, например при вытеснении из очереди
+ * (AdmissionPolicy.DROP_OLDEST): все, кто ждёт её выполнения или сохранения, получают ошибку.
+ */
+public interface CancellableCommand extends Command {
+
+  void cancel(RuntimeException cause);
+}
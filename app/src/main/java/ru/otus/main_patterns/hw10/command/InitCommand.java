@@ -0,0 +1,52 @@
+package ru.otus.main_patterns.hw10.command;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.IoC;
+import ru.otus.main_patterns.hw10.service.ScopeService;
+
+/**
+ * Инициализация IoC контейнера игрового сервера. Выполняется только один раз.
+ *
+ * <p>Обновляет базовую стратегию IoC ({@code "update.ioc.resolve.dependency.strategy"}) так, чтобы
+ * она искала зависимости в глобальном scope ({@link ScopeService#getGlobalScope()}). Повторные
+ * вызовы ничего не делают, поэтому цепочка стратегий не растёт с каждым входящим приказом, а
+ * разрешение зависимости — это один поиск в плоском реестре (O(1)).
+ */
+public class InitCommand implements Command {
+  private static final AtomicBoolean isAlreadyExecutesSuccessfully = new AtomicBoolean(false);
+
+  private static final Logger logger = LoggerFactory.getLogger(InitCommand.class);
+
+  @Override
+  public void execute() {
+    if (isAlreadyExecutesSuccessfully.get()) {
+      return;
+    }
+    synchronized (isAlreadyExecutesSuccessfully) {
+      if (isAlreadyExecutesSuccessfully.get()) {
+        return;
+      }
+      Map<String, Function<Object[], Object>> globalScope = ScopeService.getGlobalScope();
+      UpdateIocResolveDependencyStrategyCommand updateCmd =
+          IoC.resolve(
+              "update.ioc.resolve.dependency.strategy",
+              (Function<BiFunction<String, Object[], Object>, BiFunction<String, Object[], Object>>)
+                  oldStrategy ->
+                      (dependency, args) -> {
+                        Function<Object[], Object> strategy = globalScope.get(dependency);
+                        if (strategy != null) {
+                          return strategy.apply(args);
+                        }
+                        return oldStrategy.apply(dependency, args);
+                      });
+      updateCmd.execute();
+      isAlreadyExecutesSuccessfully.set(true);
+      logger.info("execute, IoC strategy is initialized");
+    }
+  }
+}
@@ -1,70 +1,81 @@
 package ru.otus.main_patterns.hw10.command;
 
-import java.util.List;
-import java.util.Map;
-import java.util.function.BiFunction;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.otus.main_patterns.hw10.IoC;
-import ru.otus.main_patterns.hw10.config.GameConfig;
 import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.journal.OrderJournal;
 import ru.otus.main_patterns.hw10.service.GameConfigService;
-import ru.otus.main_patterns.hw10.service.ScopeService;
+import ru.otus.main_patterns.hw10.service.GameStateService;
+import ru.otus.main_patterns.hw10.service.JournalService;
+import ru.otus.main_patterns.hw10.service.OrderDedupService;
+import ru.otus.main_patterns.hw10.util.OrderDedupWindow;
 
 public class InterpretCommand implements Command {
   private final Order order;
-  private final GameConfig gameConfig;
+  private final CompletableFuture<Void> executed;
+  private final CompletableFuture<Void> durable;
+  private final OrderJournal journal;
+  private final OrderDedupWindow dedupWindow;
 
   private static final Logger logger = LoggerFactory.getLogger(InterpretCommand.class);
 
   public InterpretCommand(Order order) {
+    this(order, null, null);
+  }
+
+  // executed (может быть null) завершится, когда поток игры выполнит команду приказа
+  public InterpretCommand(Order order, CompletableFuture<Void> executed) {
+    this(order, executed, null);
+  }
+
+  // durable (может быть null) завершится, когда приказ будет сохранён в журнале на диске
+  public InterpretCommand(
+      Order order, CompletableFuture<Void> executed, CompletableFuture<Void> durable) {
+    this(order, executed, durable, JournalService.get(), OrderDedupService.get());
+  }
+
+  public InterpretCommand(
+      Order order,
+      CompletableFuture<Void> executed,
+      CompletableFuture<Void> durable,
+      OrderJournal journal,
+      OrderDedupWindow dedupWindow) {
     this.order = order;
-    gameConfig = GameConfigService.get();
+    this.executed = executed;
+    this.durable = durable;
+    this.journal = journal;
+    this.dedupWindow = dedupWindow;
 
     // Обновляем базовую стратегию("update.ioc.resolve.dependency.strategy") IoC, чтобы она умела
-    // искать в нашем scopesMap.
-    UpdateIocResolveDependencyStrategyCommand updateCmd =
-        IoC.resolve(
-            "update.ioc.resolve.dependency.strategy",
-            (Function<BiFunction<String, Object[], Object>, BiFunction<String, Object[], Object>>)
-                oldStrategy ->
-                    (dependency, args) -> {
-                      if (ScopeService.getGlobalScope().containsKey(dependency)) {
-                        Function<Object[], Object> strategy =
-                            ScopeService.getGlobalScope().get(dependency);
-                        return strategy.apply(args);
-                      }
-                      return oldStrategy.apply(dependency, args);
-                    });
-    updateCmd.execute();
+    // искать в нашем scopesMap. Выполняется один раз, повторные вызовы ничего не делают.
+    new InitCommand().execute();
   }
 
   @Override
   public void execute() {
-    validate(order);
-
-    Command command = IoC.<Command>resolve("create.command", order);
+    Command command = interpret();
 
     // Выполняем команду queueCommand, которая поместит команду command в очередь команд игры.
-    Command queueCommand = IoC.<QueueCommand>resolve("queue.command", command);
+    Command queueCommand = IoC.<QueueCommand>resolve("queue.command", order.getGameId(), command);
     queueCommand.execute();
   }
 
-  // Проверяем, что player может запускать операцию из сообщения
-  private void validate(Order order) {
-    Map<String, GameConfig.Game> games = gameConfig.getGames();
-    GameConfig.Game game = games.get(order.getGameId());
-    Map<String, GameConfig.Player> players = game.getPlayers();
-    GameConfig.Player player = players.get(order.getPlayerId());
-    List<String> operations = player.getOperations();
-    boolean allowed = operations.contains(order.getOperationId().toString());
-    if (!allowed) {
-      throw new SecurityException(
-          "Player '"
-              + order.getPlayerId()
-              + "' is not allowed to execute operation "
-              + order.getOperationId());
+  // Проверяет приказ и создаёт его команду, не ставя её в очередь
+  public Command interpret() {
+    validate(order);
+
+    Command command = IoC.<Command>resolve("create.command", order);
+    if (executed != null) {
+      command = new AckCommand(command, executed);
     }
+    return new JournaledCommand(
+        order, command, GameStateService.get(order.getGameId()), journal, durable, dedupWindow);
+  }
+
+  // Проверяем, что player может запускать операцию из сообщения (по текущей версии конфигурации)
+  private void validate(Order order) {
+    GameConfigService.getPermissionIndex().check(order);
   }
 }
@@ -0,0 +1,102 @@
+package ru.otus.main_patterns.hw10.command;
+
+import java.util.concurrent.CompletableFuture;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.game.GameState;
+import ru.otus.main_patterns.hw10.journal.OrderJournal;
+import ru.otus.main_patterns.hw10.util.OrderDedupWindow;
+
+/**
+ * Декоратор команды приказа, который выполняет поток игры: под монитором состояния игры приказ
+ * дописывается в журнал, выполняется его команда и запоминается seq приказа. Поэтому порядок
+ * записей игры в журнале совпадает с порядком выполнения, а снимок состояния, скопированный под тем
+ * же монитором, точно знает, какие приказы в нём уже учтены.
+ *
+ * <p>{@code durable} (может быть null) завершится, когда запись приказа будет на диске.
+ *
+ * <p>Если команду сняли с выполнения (cancel), ожидающие её получают ошибку, а резерв id приказа в
+ * окне дедупликации снимает тот, кто ждёт (OrderServlet, InterpretCommandService.processBatch).
+ * Если не ждёт никто - клиент уже получил ответ, - резерв снимает сама команда, чтобы повтор
+ * приказа выполнился.
+ */
+public class JournaledCommand implements CancellableCommand {
+  private final Order order;
+  private final Command command;
+  private final GameState state;
+  private final OrderJournal journal;
+  private final CompletableFuture<Void> durable;
+  private final OrderDedupWindow dedupWindow;
+
+  public JournaledCommand(
+      Order order,
+      Command command,
+      GameState state,
+      OrderJournal journal,
+      CompletableFuture<Void> durable,
+      OrderDedupWindow dedupWindow) {
+    this.order = order;
+    this.command = command;
+    this.state = state;
+    this.journal = journal;
+    this.durable = durable;
+    this.dedupWindow = dedupWindow;
+  }
+
+  @Override
+  public void execute() {
+    long seq;
+    synchronized (state) {
+      try {
+        seq = journal.append(order);
+      } catch (RuntimeException e) {
+        // Приказ не попал в журнал - не выполняем его, иначе после рестарта он потеряется
+        if (durable != null) {
+          durable.completeExceptionally(e);
+        }
+        throw e;
+      }
+      try {
+        command.execute();
+      } finally {
+        if (journal.isEnabled()) {
+          state.setLastSeq(seq);
+        }
+      }
+    }
+    if (durable != null) {
+      journal
+          .whenDurable(seq)
+          .whenComplete(
+              (ignored, ex) -> {
+                if (ex == null) {
+                  durable.complete(null);
+                } else {
+                  durable.completeExceptionally(ex);
+                }
+              });
+    }
+  }
+
+  @Override
+  public void cancel(RuntimeException cause) {
+    boolean awaited = durable != null || command instanceof AckCommand;
+    if (command instanceof CancellableCommand) {
+      ((CancellableCommand) command).cancel(cause);
+    }
+    if (durable != null) {
+      durable.completeExceptionally(cause);
+    }
+    if (!awaited) {
+      dedupWindow.release(order.getGameId(), order.getId(), cause);
+    }
+  }
+
+  public Command getCommand() {
+    return command;
+  }
+
+  @Override
+  public String toString() {
+    return "JournaledCommand{" + "command=" + command + '}';
+  }
+}
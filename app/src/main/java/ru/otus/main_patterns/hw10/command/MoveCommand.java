@@ -1,19 +1,31 @@
 package ru.otus.main_patterns.hw10.command;
 
-import java.util.Map;
+import static ru.otus.main_patterns.hw10.game.GameState.*;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.dto.args.MoveArgs;
+import ru.otus.main_patterns.hw10.game.UObject;
 
+// Движение по прямой: корабль получает скорость и смещается на неё в направлении angle
 public class MoveCommand implements Command {
+  private final UObject ship;
   private final int initialVelocity;
   private static final Logger logger = LoggerFactory.getLogger(MoveCommand.class);
 
-  public MoveCommand(Map<String, Object> args) {
-    this.initialVelocity = (int) args.get("initialVelocity");
+  public MoveCommand(UObject ship, MoveArgs args) {
+    this.ship = ship;
+    this.initialVelocity = args.getInitialVelocity();
   }
 
   @Override
   public void execute() {
+    double angle = Math.toRadians((Integer) ship.getProperty(ANGLE));
+    ship.setProperty(VELOCITY, initialVelocity);
+    ship.setProperty(
+        X, (Integer) ship.getProperty(X) + (int) Math.round(initialVelocity * Math.cos(angle)));
+    ship.setProperty(
+        Y, (Integer) ship.getProperty(Y) + (int) Math.round(initialVelocity * Math.sin(angle)));
     logger.debug("execute, initialVelocity = {}", initialVelocity);
   }
 }
@@ -1,23 +1,37 @@
 package ru.otus.main_patterns.hw10.command;
 
-import java.util.Map;
-import java.util.function.Function;
+import java.util.function.BiFunction;
+import ru.otus.main_patterns.hw10.dto.args.BurnFuelArgs;
+import ru.otus.main_patterns.hw10.dto.args.MoveArgs;
+import ru.otus.main_patterns.hw10.dto.args.OperationArgs;
+import ru.otus.main_patterns.hw10.dto.args.RotateArgs;
+import ru.otus.main_patterns.hw10.dto.args.ShootArgs;
+import ru.otus.main_patterns.hw10.dto.args.TeleportArgs;
+import ru.otus.main_patterns.hw10.game.UObject;
 
 public enum Operation {
-  MOVE_STRAIGHT(MoveCommand::new),
-  ROTATE(RotateCommand::new),
-  BURN_FUEL(BurnFuelCommand::new),
-  SHOOT(ShootCommand::new),
-  TELEPORT(TeleportCommand::new);
+  MOVE_STRAIGHT(MoveArgs.class, MoveCommand::new),
+  ROTATE(RotateArgs.class, RotateCommand::new),
+  BURN_FUEL(BurnFuelArgs.class, BurnFuelCommand::new),
+  SHOOT(ShootArgs.class, ShootCommand::new),
+  TELEPORT(TeleportArgs.class, TeleportCommand::new);
 
-  private final Function<Map<String, Object>, Command> factory;
+  // Тип, в который разбирается operationArgs приказа с этой операцией
+  private final Class<? extends OperationArgs> argsType;
+  private final BiFunction<UObject, OperationArgs, Command> factory;
 
-  Operation(Function<Map<String, Object>, Command> factory) {
-    this.factory = factory;
+  <A extends OperationArgs> Operation(Class<A> argsType, BiFunction<UObject, A, Command> factory) {
+    this.argsType = argsType;
+    this.factory = (ship, args) -> factory.apply(ship, argsType.cast(args));
   }
 
-  public Command createCommand(Map<String, Object> operationArgs) {
-    return factory.apply(operationArgs);
+  public Class<? extends OperationArgs> getArgsType() {
+    return argsType;
+  }
+
+  // Команда операции над кораблём игрока
+  public Command createCommand(UObject ship, OperationArgs operationArgs) {
+    return factory.apply(ship, operationArgs);
   }
 
   public static Operation getOperationByName(String operationId) {
@@ -5,20 +5,22 @@ import org.slf4j.LoggerFactory;
 import ru.otus.main_patterns.hw10.service.QueueService;
 
 public class QueueCommand implements Command {
+  private final String gameId;
   private final Command command;
   private final QueueService queueService;
 
   private static final Logger logger = LoggerFactory.getLogger(QueueCommand.class.getName());
 
-  public QueueCommand(Command command) {
+  public QueueCommand(String gameId, Command command) {
+    this.gameId = gameId;
     this.command = command;
     this.queueService = QueueService.getInstance();
-    queueService.initAndStartServerQueue();
     logger.debug("Constructor QueueCommand, queueService: {}", queueService);
   }
 
   @Override
   public void execute() {
-    queueService.addCommand(command);
+    // Команда попадает в очередь потока, к которому привязана игра
+    queueService.addCommand(gameId, command);
   }
 }
@@ -1,22 +1,31 @@
 package ru.otus.main_patterns.hw10.command;
 
-import java.util.Map;
+import static ru.otus.main_patterns.hw10.game.GameState.*;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.dto.args.RotateArgs;
+import ru.otus.main_patterns.hw10.game.UObject;
 
+// Поворот: направление корабля меняется на angularVelocity градусов
 public class RotateCommand implements Command {
+  private final UObject ship;
   private final int radius;
   private final int angularVelocity;
 
   private static final Logger logger = LoggerFactory.getLogger(RotateCommand.class);
 
-  public RotateCommand(Map<String, Object> args) {
-    this.radius = (int) args.get("radius");
-    this.angularVelocity = (int) args.get("angularVelocity");
+  public RotateCommand(UObject ship, RotateArgs args) {
+    this.ship = ship;
+    this.radius = args.getRadius();
+    this.angularVelocity = args.getAngularVelocity();
   }
 
   @Override
   public void execute() {
+    int angle = (Integer) ship.getProperty(ANGLE) + angularVelocity;
+    ship.setProperty(ANGLE, ((angle % 360) + 360) % 360);
+    ship.setProperty(RADIUS, radius);
     logger.debug("execute, radius = {}, angularVelocity = {}", radius, angularVelocity);
   }
 }
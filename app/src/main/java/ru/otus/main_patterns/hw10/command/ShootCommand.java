@@ -1,22 +1,28 @@
 package ru.otus.main_patterns.hw10.command;
 
-import java.util.Map;
+import static ru.otus.main_patterns.hw10.game.GameState.SHOTS;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.dto.args.ShootArgs;
+import ru.otus.main_patterns.hw10.game.UObject;
 
 public class ShootCommand implements Command {
+  private final UObject ship;
   private final Weapon weaponId;
   private final Direction direction;
 
   private static final Logger logger = LoggerFactory.getLogger(ShootCommand.class);
 
-  public ShootCommand(Map<String, Object> args) {
-    this.weaponId = Weapon.valueOf(((String) args.get("weaponId")).toUpperCase());
-    this.direction = Direction.valueOf(((String) args.get("direction")).toUpperCase());
+  public ShootCommand(UObject ship, ShootArgs args) {
+    this.ship = ship;
+    this.weaponId = args.getWeaponId();
+    this.direction = args.getDirection();
   }
 
   @Override
   public void execute() {
+    ship.setProperty(SHOTS, (Integer) ship.getProperty(SHOTS) + 1);
     logger.debug("execute, weaponId = {}, direction = {}", weaponId, direction);
   }
 }
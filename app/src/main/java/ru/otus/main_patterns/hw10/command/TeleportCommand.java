@@ -1,22 +1,30 @@
 package ru.otus.main_patterns.hw10.command;
 
-import java.util.Map;
+import static ru.otus.main_patterns.hw10.game.GameState.X;
+import static ru.otus.main_patterns.hw10.game.GameState.Y;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.dto.args.TeleportArgs;
+import ru.otus.main_patterns.hw10.game.UObject;
 
 public class TeleportCommand implements Command {
+  private final UObject ship;
   private final int x;
   private final int y;
 
   private static final Logger logger = LoggerFactory.getLogger(TeleportCommand.class);
 
-  public TeleportCommand(Map<String, Object> args) {
-    this.x = (int) args.get("x");
-    this.y = (int) args.get("y");
+  public TeleportCommand(UObject ship, TeleportArgs args) {
+    this.ship = ship;
+    this.x = args.getX();
+    this.y = args.getY();
   }
 
   @Override
   public void execute() {
+    ship.setProperty(X, x);
+    ship.setProperty(Y, y);
     logger.debug("\nTeleportCommand, execute, x: {}, y: {}", x, y);
   }
 }
@@ -0,0 +1,23 @@
+package ru.otus.main_patterns.hw10.config;
+
+/**
+ * Версия конфигурации игр вместе с построенным по ней {@link PermissionIndex}. После публикации не
+ * меняется: при перезагрузке создаётся и публикуется новый снимок.
+ */
+public class GameConfigSnapshot {
+  private final GameConfig gameConfig;
+  private final PermissionIndex permissionIndex;
+
+  public GameConfigSnapshot(GameConfig gameConfig) {
+    this.gameConfig = gameConfig;
+    this.permissionIndex = PermissionIndex.from(gameConfig);
+  }
+
+  public GameConfig getGameConfig() {
+    return gameConfig;
+  }
+
+  public PermissionIndex getPermissionIndex() {
+    return permissionIndex;
+  }
+}
@@ -0,0 +1,97 @@
+package ru.otus.main_patterns.hw10.config;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.dto.Order;
+
+/*
+   Права игроков из game-config.yml, подготовленные для быстрой проверки приказа:
+   gameId -> playerId -> EnumSet<Operation>. Проверка - два поиска в HashMap и проверка бита в EnumSet,
+   без обхода списков строк и Enum.toString на каждый приказ.
+   Строится один раз при загрузке конфигурации; неизвестная операция в конфигурации - ошибка загрузки.
+*/
+public class PermissionIndex {
+  private final Map<String, Map<String, EnumSet<Operation>>> operationsByPlayerByGame;
+
+  private PermissionIndex(Map<String, Map<String, EnumSet<Operation>>> operationsByPlayerByGame) {
+    this.operationsByPlayerByGame = operationsByPlayerByGame;
+  }
+
+  public static PermissionIndex from(GameConfig gameConfig) {
+    Map<String, Map<String, EnumSet<Operation>>> index = new HashMap<>();
+    Map<String, GameConfig.Game> games =
+        gameConfig.getGames() == null
+            ? Collections.<String, GameConfig.Game>emptyMap()
+            : gameConfig.getGames();
+    for (Map.Entry<String, GameConfig.Game> game : games.entrySet()) {
+      Map<String, EnumSet<Operation>> operationsByPlayer = new HashMap<>();
+      Map<String, GameConfig.Player> players =
+          game.getValue() == null || game.getValue().getPlayers() == null
+              ? Collections.<String, GameConfig.Player>emptyMap()
+              : game.getValue().getPlayers();
+      for (Map.Entry<String, GameConfig.Player> player : players.entrySet()) {
+        EnumSet<Operation> operations = EnumSet.noneOf(Operation.class);
+        List<String> names = player.getValue() == null ? null : player.getValue().getOperations();
+        if (names != null) {
+          for (String name : names) {
+            try {
+              operations.add(Operation.valueOf(name));
+            } catch (IllegalArgumentException e) {
+              throw new IllegalArgumentException(
+                  "Unknown operation '"
+                      + name
+                      + "' of player '"
+                      + player.getKey()
+                      + "' in game '"
+                      + game.getKey()
+                      + "'",
+                  e);
+            }
+          }
+        }
+        operationsByPlayer.put(player.getKey(), operations);
+      }
+      index.put(game.getKey(), operationsByPlayer);
+    }
+    return new PermissionIndex(index);
+  }
+
+  public boolean isAllowed(String gameId, String playerId, Operation operation) {
+    Map<String, EnumSet<Operation>> operationsByPlayer = operationsByPlayerByGame.get(gameId);
+    if (operationsByPlayer == null) {
+      return false;
+    }
+    EnumSet<Operation> operations = operationsByPlayer.get(playerId);
+    return operations != null && operation != null && operations.contains(operation);
+  }
+
+  // Проверяем, что player может запускать операцию из приказа, иначе SecurityException (403)
+  public void check(Order order) {
+    Map<String, EnumSet<Operation>> operationsByPlayer =
+        order.getGameId() == null ? null : operationsByPlayerByGame.get(order.getGameId());
+    if (operationsByPlayer == null) {
+      throw new SecurityException("Unknown game '" + order.getGameId() + "'");
+    }
+    EnumSet<Operation> operations =
+        order.getPlayerId() == null ? null : operationsByPlayer.get(order.getPlayerId());
+    if (operations == null) {
+      throw new SecurityException(
+          "Player '"
+              + order.getPlayerId()
+              + "' is not a member of game '"
+              + order.getGameId()
+              + "'");
+    }
+    if (order.getOperationId() == null || !operations.contains(order.getOperationId())) {
+      throw new SecurityException(
+          "Player '"
+              + order.getPlayerId()
+              + "' is not allowed to execute operation "
+              + order.getOperationId());
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package ru.otus.main_patterns.hw10.config;
+
+import java.util.Properties;
+import ru.otus.main_patterns.concurrent.QueueType;
+import ru.otus.main_patterns.concurrent.WaitStrategyType;
+import ru.otus.main_patterns.hw10.queue.AdmissionPolicy;
+import ru.otus.main_patterns.hw10.servlet.OrderAck;
+
+/**
+ * Настройки игрового сервера из {@code server.properties}. Значение из файла можно переопределить
+ * одноимённым системным свойством ({@code -Dqueue.workers=4}).
+ */
+public class ServerConfig {
+  private final Properties properties;
+
+  public ServerConfig(Properties properties) {
+    this.properties = properties;
+  }
+
+  /** Количество потоков (и очередей), между которыми распределяются игры. */
+  public int getQueueWorkers() {
+    return getInt("queue.workers", 2);
+  }
+
+  /** Ёмкость очереди одного потока. */
+  public int getQueueCapacity() {
+    return getInt("queue.capacity", 100);
+  }
+
+  /** Как поток очереди ждёт команду, когда очередь пуста. */
+  public WaitStrategyType getQueueWaitStrategy() {
+    String value = getString("queue.waitStrategy");
+    if (value == null || value.trim().isEmpty()) {
+      return WaitStrategyType.BLOCKING;
+    }
+    return WaitStrategyType.valueOf(value.trim().toUpperCase());
+  }
+
+  /** Реализация очереди потока. */
+  public QueueType getQueueType() {
+    String value = getString("queue.type");
+    if (value == null || value.trim().isEmpty()) {
+      return QueueType.ARRAY_BLOCKING;
+    }
+    return QueueType.valueOf(value.trim().toUpperCase());
+  }
+
+  /** Сколько команд поток очереди забирает и выполняет за раз (1 - по одной). */
+  public int getQueueBatchSize() {
+    return getInt("queue.batchSize", 1);
+  }
+
+  /** Поведение при заполненной очереди. */
+  public AdmissionPolicy getAdmissionPolicy() {
+    String value = getString("queue.admission.policy");
+    if (value == null || value.trim().isEmpty()) {
+      return AdmissionPolicy.REJECT;
+    }
+    return AdmissionPolicy.valueOf(value.trim().toUpperCase());
+  }
+
+  /** Максимальное время ожидания места в очереди для {@link AdmissionPolicy#WAIT}. */
+  public long getAdmissionTimeoutMs() {
+    return getInt("queue.admission.timeoutMs", 100);
+  }
+
+  /** Значение заголовка Retry-After (секунды) для ответа 429. */
+  public int getRetryAfterSeconds() {
+    return getInt("queue.admission.retryAfterSec", 1);
+  }
+
+  /** Момент, когда клиент получает ответ на приказ. */
+  public OrderAck getOrderAck() {
+    String value = getString("order.ack");
+    if (value == null || value.trim().isEmpty()) {
+      return OrderAck.ENQUEUED;
+    }
+    return OrderAck.valueOf(value.trim().toUpperCase());
+  }
+
+  /** Максимальное время обработки приказа, после которого клиент получает 503. */
+  public long getOrderTimeoutMs() {
+    return getInt("order.timeoutMs", 5000);
+  }
+
+  /** Максимальное число приказов в одном пакете (/game/orders). */
+  public int getOrderBatchMaxSize() {
+    return getInt("order.batch.maxSize", 1000);
+  }
+
+  /** Сколько последних id приказов одной игры помнит окно дедупликации (0 - выключено). */
+  public int getOrderDedupMaxSize() {
+    return getInt("order.dedup.maxSize", 10000);
+  }
+
+  /** Сколько помнится id приказа: повтор в пределах этого времени не выполняется снова. */
+  public long getOrderDedupTtlMs() {
+    return getInt("order.dedup.ttlMs", 60000);
+  }
+
+  /** Вести ли журнал принятых приказов (восстанавливаются при старте сервера). */
+  public boolean isJournalEnabled() {
+    return Boolean.parseBoolean(getString("journal.enabled"));
+  }
+
+  /** Каталог сегментов журнала приказов. */
+  public String getJournalDir() {
+    String value = getString("journal.dir");
+    return value == null || value.trim().isEmpty() ? "journal" : value.trim();
+  }
+
+  /** Размер одного сегмента журнала (байты). */
+  public int getJournalSegmentSize() {
+    return getInt("journal.segmentSizeMb", 64) * 1024 * 1024;
+  }
+
+  /** Сколько ждать накопления записей перед fsync журнала (0 - сбрасывать сразу). */
+  public long getJournalFlushIntervalMs() {
+    return getInt("journal.flushIntervalMs", 0);
+  }
+
+  /** Как часто писать снимок состояния игр рядом с журналом (0 - новые снимки не пишутся). */
+  public long getJournalSnapshotIntervalMs() {
+    return getInt("journal.snapshotIntervalMs", 60000);
+  }
+
+  /** Максимальное число проверенных JWT в кэше AuthFilter (0 - кэш выключен). */
+  public int getJwtCacheMaxSize() {
+    return getInt("jwt.cache.maxSize", 10000);
+  }
+
+  /**
+   * Файл конфигурации игр, который перечитывается при изменении; null - game-config.yml из
+   * ресурсов.
+   */
+  public String getGameConfigPath() {
+    String value = getString("game.config.path");
+    return value == null || value.trim().isEmpty() ? null : value.trim();
+  }
+
+  private int getInt(String key, int defaultValue) {
+    String value = getString(key);
+    if (value == null || value.trim().isEmpty()) {
+      return defaultValue;
+    }
+    return Integer.parseInt(value.trim());
+  }
+
+  private String getString(String key) {
+    return System.getProperty(key, properties.getProperty(key));
+  }
+
+  @Override
+  public String toString() {
+    return "ServerConfig{" + "properties=" + properties + '}';
+  }
+}
@@ -1,14 +1,19 @@
 package ru.otus.main_patterns.hw10.dto;
 
-import java.util.Map;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import java.util.Arrays;
+import java.util.List;
 import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.dto.args.OperationArgs;
+import ru.otus.main_patterns.hw10.util.OrderDeserializer;
 
+@JsonDeserialize(using = OrderDeserializer.class)
 public class Order {
   private String id;
   private String gameId;
   private String playerId;
   private Operation operationId;
-  private Map<String, Object> operationArgs;
+  private OperationArgs operationArgs;
 
   public Order() {}
 
@@ -44,14 +49,19 @@ public class Order {
     this.operationId = operationId;
   }
 
-  public Map<String, Object> getOperationArgs() {
+  public OperationArgs getOperationArgs() {
     return operationArgs;
   }
 
-  public void setOperationArgs(Map<String, Object> operationArgs) {
+  public void setOperationArgs(OperationArgs operationArgs) {
     this.operationArgs = operationArgs;
   }
 
+  // Содержимое приказа без id и игры: у повтора с тем же id оно совпадает с исходным
+  public List<Object> payload() {
+    return Arrays.asList(playerId, operationId, operationArgs);
+  }
+
   @Override
   public String toString() {
     return "\nOrder{"
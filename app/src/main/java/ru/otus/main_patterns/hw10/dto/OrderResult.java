@@ -0,0 +1,70 @@
+package ru.otus.main_patterns.hw10.dto;
+
+import ru.otus.main_patterns.hw10.command.Operation;
+
+/**
+ * Результат обработки одного приказа из пакета: HTTP-статус, который получил бы отдельный приказ.
+ */
+public class OrderResult {
+  // Текст ответа 500: подробности ошибки пишутся только в лог сервера
+  public static final String INTERNAL_ERROR = "Internal server error";
+  private String orderId;
+  private int status;
+  private String message;
+
+  public OrderResult() {}
+
+  // Приказ принят (201)
+  public static OrderResult created(String orderId, Operation operation) {
+    return new OrderResult(orderId, 201, "Operation '" + operation + "' successfully created");
+  }
+
+  // Приказ не обработан из-за ошибки сервера (500)
+  public static OrderResult internalError(String orderId) {
+    return new OrderResult(orderId, 500, INTERNAL_ERROR);
+  }
+
+  public OrderResult(String orderId, int status, String message) {
+    this.orderId = orderId;
+    this.status = status;
+    this.message = message;
+  }
+
+  public String getOrderId() {
+    return orderId;
+  }
+
+  public void setOrderId(String orderId) {
+    this.orderId = orderId;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public void setStatus(int status) {
+    this.status = status;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+
+  @Override
+  public String toString() {
+    return "OrderResult{"
+        + "orderId='"
+        + orderId
+        + '\''
+        + ", status="
+        + status
+        + ", message='"
+        + message
+        + '\''
+        + '}';
+  }
+}
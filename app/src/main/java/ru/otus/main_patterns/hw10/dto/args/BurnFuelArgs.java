@@ -0,0 +1,40 @@
+package ru.otus.main_patterns.hw10.dto.args;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** Аргументы BURN_FUEL: количество топлива (целое число, обязательно, диапазон не проверяется). */
+public final class BurnFuelArgs implements OperationArgs {
+  private final int fuelAmount;
+
+  @JsonCreator
+  public BurnFuelArgs(@JsonProperty(value = "fuelAmount", required = true) int fuelAmount) {
+    this.fuelAmount = fuelAmount;
+  }
+
+  public int getFuelAmount() {
+    return fuelAmount;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BurnFuelArgs)) {
+      return false;
+    }
+    BurnFuelArgs that = (BurnFuelArgs) o;
+    return fuelAmount == that.fuelAmount;
+  }
+
+  @Override
+  public int hashCode() {
+    return fuelAmount;
+  }
+
+  @Override
+  public String toString() {
+    return "BurnFuelArgs{" + "fuelAmount=" + fuelAmount + '}';
+  }
+}
@@ -0,0 +1,42 @@
+package ru.otus.main_patterns.hw10.dto.args;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Аргументы MOVE_STRAIGHT: начальная скорость (целое число, обязательна, диапазон не проверяется).
+ */
+public final class MoveArgs implements OperationArgs {
+  private final int initialVelocity;
+
+  @JsonCreator
+  public MoveArgs(@JsonProperty(value = "initialVelocity", required = true) int initialVelocity) {
+    this.initialVelocity = initialVelocity;
+  }
+
+  public int getInitialVelocity() {
+    return initialVelocity;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof MoveArgs)) {
+      return false;
+    }
+    MoveArgs that = (MoveArgs) o;
+    return initialVelocity == that.initialVelocity;
+  }
+
+  @Override
+  public int hashCode() {
+    return initialVelocity;
+  }
+
+  @Override
+  public String toString() {
+    return "MoveArgs{" + "initialVelocity=" + initialVelocity + '}';
+  }
+}
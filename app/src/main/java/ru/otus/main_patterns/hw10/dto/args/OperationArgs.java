@@ -0,0 +1,31 @@
+package ru.otus.main_patterns.hw10.dto.args;
+
+import java.util.Arrays;
+
+/**
+ * Аргументы операции приказа. У каждой {@link ru.otus.main_patterns.hw10.command.Operation} свой
+ * тип аргументов, в который {@code operationArgs} разбирается и проверяется сразу при чтении
+ * приказа. Проверяются только форма аргументов: все поля обязательны, числа - целые, значения
+ * перечислений - из списка. Диапазоны игровых величин здесь не ограничиваются: это правила игры, а
+ * не формата приказа.
+ */
+public interface OperationArgs {
+
+  // Значение перечисления без учёта регистра
+  static <E extends Enum<E>> E requireEnum(String name, String value, Class<E> type) {
+    if (value != null) {
+      for (E constant : type.getEnumConstants()) {
+        if (constant.name().equalsIgnoreCase(value)) {
+          return constant;
+        }
+      }
+    }
+    throw new IllegalArgumentException(
+        "'"
+            + name
+            + "' must be one of "
+            + Arrays.toString(type.getEnumConstants())
+            + ", but was "
+            + value);
+  }
+}
@@ -0,0 +1,50 @@
+package ru.otus.main_patterns.hw10.dto.args;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Аргументы ROTATE: радиус и угловая скорость (целые числа, обязательны, диапазон не проверяется).
+ */
+public final class RotateArgs implements OperationArgs {
+  private final int radius;
+  private final int angularVelocity;
+
+  @JsonCreator
+  public RotateArgs(
+      @JsonProperty(value = "radius", required = true) int radius,
+      @JsonProperty(value = "angularVelocity", required = true) int angularVelocity) {
+    this.radius = radius;
+    this.angularVelocity = angularVelocity;
+  }
+
+  public int getRadius() {
+    return radius;
+  }
+
+  public int getAngularVelocity() {
+    return angularVelocity;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RotateArgs)) {
+      return false;
+    }
+    RotateArgs that = (RotateArgs) o;
+    return radius == that.radius && angularVelocity == that.angularVelocity;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * radius + angularVelocity;
+  }
+
+  @Override
+  public String toString() {
+    return "RotateArgs{" + "radius=" + radius + ", angularVelocity=" + angularVelocity + '}';
+  }
+}
@@ -0,0 +1,59 @@
+package ru.otus.main_patterns.hw10.dto.args;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import ru.otus.main_patterns.hw10.command.Direction;
+import ru.otus.main_patterns.hw10.command.Weapon;
+
+/** Аргументы SHOOT. Значения оружия и направления принимаются без учёта регистра. */
+public final class ShootArgs implements OperationArgs {
+  private final Weapon weaponId;
+  private final Direction direction;
+
+  public ShootArgs(Weapon weaponId, Direction direction) {
+    if (weaponId == null || direction == null) {
+      throw new IllegalArgumentException("'weaponId' and 'direction' are required");
+    }
+    this.weaponId = weaponId;
+    this.direction = direction;
+  }
+
+  @JsonCreator
+  static ShootArgs of(
+      @JsonProperty(value = "weaponId", required = true) String weaponId,
+      @JsonProperty(value = "direction", required = true) String direction) {
+    return new ShootArgs(
+        OperationArgs.requireEnum("weaponId", weaponId, Weapon.class),
+        OperationArgs.requireEnum("direction", direction, Direction.class));
+  }
+
+  public Weapon getWeaponId() {
+    return weaponId;
+  }
+
+  public Direction getDirection() {
+    return direction;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ShootArgs)) {
+      return false;
+    }
+    ShootArgs that = (ShootArgs) o;
+    return weaponId == that.weaponId && direction == that.direction;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * weaponId.hashCode() + direction.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "ShootArgs{" + "weaponId=" + weaponId + ", direction=" + direction + '}';
+  }
+}
@@ -0,0 +1,48 @@
+package ru.otus.main_patterns.hw10.dto.args;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** Аргументы TELEPORT: координаты x и y (целые числа, обязательны, диапазон не проверяется). */
+public final class TeleportArgs implements OperationArgs {
+  private final int x;
+  private final int y;
+
+  @JsonCreator
+  public TeleportArgs(
+      @JsonProperty(value = "x", required = true) int x,
+      @JsonProperty(value = "y", required = true) int y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  public int getX() {
+    return x;
+  }
+
+  public int getY() {
+    return y;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof TeleportArgs)) {
+      return false;
+    }
+    TeleportArgs that = (TeleportArgs) o;
+    return x == that.x && y == that.y;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * x + y;
+  }
+
+  @Override
+  public String toString() {
+    return "TeleportArgs{" + "x=" + x + ", y=" + y + '}';
+  }
+}
@@ -0,0 +1,15 @@
+package ru.otus.main_patterns.hw10.exception;
+
+/**
+ * Приказ не соответствует схеме (поля, операция, аргументы) и отклоняется до постановки в очередь.
+ */
+public class InvalidOrderException extends RuntimeException {
+
+  public InvalidOrderException(String message) {
+    super(message);
+  }
+
+  public InvalidOrderException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
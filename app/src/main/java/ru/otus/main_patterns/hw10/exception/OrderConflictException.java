@@ -0,0 +1,9 @@
+package ru.otus.main_patterns.hw10.exception;
+
+/** Id клиента уже занят приказом с другим содержимым (см. {@code OrderDedupWindow}). */
+public class OrderConflictException extends RuntimeException {
+
+  public OrderConflictException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,9 @@
+package ru.otus.main_patterns.hw10.exception;
+
+/** Очередь игры переполнена и команда не принята (см. {@code queue.admission.policy}). */
+public class QueueOverflowException extends RuntimeException {
+
+  public QueueOverflowException(String message) {
+    super(message);
+  }
+}
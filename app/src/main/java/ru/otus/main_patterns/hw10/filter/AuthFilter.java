@@ -9,15 +9,23 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.service.ServerConfigService;
+import ru.otus.main_patterns.hw10.util.JwtCache;
 import ru.otus.main_patterns.hw10.util.JwtStatus;
 import ru.otus.main_patterns.hw10.util.JwtUtil;
 
 public class AuthFilter implements Filter {
   private final ObjectMapper mapper;
+  private final JwtCache jwtCache;
   private static final Logger logger = LoggerFactory.getLogger(AuthFilter.class);
 
   public AuthFilter(ObjectMapper mapper) {
+    this(mapper, new JwtCache(ServerConfigService.get().getJwtCacheMaxSize()));
+  }
+
+  public AuthFilter(ObjectMapper mapper, JwtCache jwtCache) {
     this.mapper = mapper;
+    this.jwtCache = jwtCache;
   }
 
   @Override
@@ -30,7 +38,12 @@ public class AuthFilter implements Filter {
     if (header != null && header.startsWith("Bearer ")) {
       token = header.substring("Bearer ".length()).trim();
     }
-    JwtStatus jwtStatus = JwtUtil.validate(token);
+    // Токен уже проверен ранее и ещё не истёк - подпись и payload повторно не проверяем
+    if (token != null && jwtCache.isValid(token)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    JwtStatus jwtStatus = JwtUtil.validate(token, jwtCache);
     if (token == null || !JwtStatus.VALID.equals(jwtStatus)) {
       resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
       resp.setContentType("application/json");
@@ -0,0 +1,47 @@
+package ru.otus.main_patterns.hw10.game;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+   Корабль игрока. Значения свойств - целые числа (Integer), поэтому объект сохраняется в снимок
+   игры компактно: имя свойства и int.
+*/
+public class GameObject implements UObject {
+  private final Map<String, Object> properties = new LinkedHashMap<>();
+
+  @Override
+  public Object getProperty(String key) {
+    return properties.get(key);
+  }
+
+  @Override
+  public void setProperty(String key, Object value) {
+    if (!(value instanceof Integer)) {
+      throw new IllegalArgumentException(
+          "Property '" + key + "' must be an Integer, but was " + value);
+    }
+    properties.put(key, value);
+  }
+
+  public int getInt(String key) {
+    Object value = properties.get(key);
+    return value == null ? 0 : (Integer) value;
+  }
+
+  public Map<String, Object> getProperties() {
+    return Collections.unmodifiableMap(properties);
+  }
+
+  public GameObject copy() {
+    GameObject copy = new GameObject();
+    copy.properties.putAll(properties);
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return "GameObject{" + "properties=" + properties + '}';
+  }
+}
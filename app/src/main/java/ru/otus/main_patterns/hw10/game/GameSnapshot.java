@@ -0,0 +1,118 @@
+package ru.otus.main_patterns.hw10.game;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/*
+   Снимок состояния игр в компактном двоичном виде:
+   [magic: int][версия: int][safeSeq: long][число игр: int]
+     игра: [gameId: UTF][lastSeq: long][число кораблей: int]
+       корабль: [playerId: UTF][число свойств: int] и по каждому свойству [имя: UTF][значение: int]
+   [CRC32 всего предыдущего: long]
+
+   safeSeq - последний seq журнала на момент начала снимка: все записи журнала до него
+   учтены в снимке, поэтому после записи следующего снимка сегменты до safeSeq можно удалить.
+*/
+public class GameSnapshot {
+  private static final int MAGIC = 0x47534E50; // "GSNP"
+  private static final int VERSION = 1;
+
+  private final long safeSeq;
+  private final List<GameState> games;
+
+  public GameSnapshot(long safeSeq, List<GameState> games) {
+    this.safeSeq = safeSeq;
+    this.games = games;
+  }
+
+  public long getSafeSeq() {
+    return safeSeq;
+  }
+
+  public List<GameState> getGames() {
+    return Collections.unmodifiableList(games);
+  }
+
+  public void write(Path file) throws IOException {
+    try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+      CheckedOutputStream checked = new CheckedOutputStream(out, new CRC32());
+      DataOutputStream data = new DataOutputStream(new BufferedOutputStream(checked));
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      data.writeLong(safeSeq);
+      data.writeInt(games.size());
+      for (GameState game : games) {
+        Map<String, GameObject> ships = game.getShips();
+        data.writeUTF(game.getGameId());
+        data.writeLong(game.getLastSeq());
+        data.writeInt(ships.size());
+        for (Map.Entry<String, GameObject> ship : ships.entrySet()) {
+          Map<String, Object> properties = ship.getValue().getProperties();
+          data.writeUTF(ship.getKey());
+          data.writeInt(properties.size());
+          for (Map.Entry<String, Object> property : properties.entrySet()) {
+            data.writeUTF(property.getKey());
+            data.writeInt((Integer) property.getValue());
+          }
+        }
+      }
+      data.flush();
+      data.writeLong(checked.getChecksum().getValue());
+      data.flush();
+      // Снимок должен быть на диске до того, как заменит предыдущий
+      out.getFD().sync();
+    }
+  }
+
+  // IOException, если файл не снимок, другой версии или повреждён
+  public static GameSnapshot read(Path file) throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(in), new CRC32());
+      DataInputStream data = new DataInputStream(checked);
+      if (data.readInt() != MAGIC) {
+        throw new IOException("Not a game snapshot: " + file);
+      }
+      int version = data.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported game snapshot version " + version + ": " + file);
+      }
+      long safeSeq = data.readLong();
+      int gameCount = data.readInt();
+      List<GameState> games = new ArrayList<>();
+      for (int i = 0; i < gameCount; i++) {
+        GameState game = new GameState(data.readUTF());
+        game.setLastSeq(data.readLong());
+        int shipCount = data.readInt();
+        for (int j = 0; j < shipCount; j++) {
+          String playerId = data.readUTF();
+          GameObject ship = new GameObject();
+          int propertyCount = data.readInt();
+          for (int k = 0; k < propertyCount; k++) {
+            ship.setProperty(data.readUTF(), data.readInt());
+          }
+          game.putShip(playerId, ship);
+        }
+        games.add(game);
+      }
+      long expected = checked.getChecksum().getValue();
+      if (data.readLong() != expected) {
+        throw new IOException("Game snapshot checksum mismatch: " + file);
+      }
+      return new GameSnapshot(safeSeq, games);
+    }
+  }
+}
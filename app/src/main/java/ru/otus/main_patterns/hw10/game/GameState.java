@@ -0,0 +1,80 @@
+package ru.otus.main_patterns.hw10.game;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+   Состояние одной игры: корабли игроков и seq последнего применённого приказа из журнала.
+   Команды игры выполняет её поток под монитором состояния (см. JournaledCommand),
+   а снимок копирует состояние под тем же монитором, не останавливая игру дольше копирования.
+*/
+public class GameState {
+  public static final String X = "x";
+  public static final String Y = "y";
+  public static final String ANGLE = "angle";
+  public static final String VELOCITY = "velocity";
+  public static final String RADIUS = "radius";
+  public static final String FUEL_BURNED = "fuelBurned";
+  public static final String SHOTS = "shots";
+
+  private final String gameId;
+  private final Map<String, GameObject> ships = new LinkedHashMap<>();
+  private long lastSeq;
+
+  public GameState(String gameId) {
+    this.gameId = gameId;
+  }
+
+  public String getGameId() {
+    return gameId;
+  }
+
+  // Корабль игрока; создаётся в начальной точке при первом приказе игрока
+  public synchronized GameObject ship(String playerId) {
+    GameObject ship = ships.get(playerId);
+    if (ship == null) {
+      ship = new GameObject();
+      ship.setProperty(X, 0);
+      ship.setProperty(Y, 0);
+      ship.setProperty(ANGLE, 0);
+      ship.setProperty(VELOCITY, 0);
+      ship.setProperty(RADIUS, 0);
+      ship.setProperty(FUEL_BURNED, 0);
+      ship.setProperty(SHOTS, 0);
+      ships.put(playerId, ship);
+    }
+    return ship;
+  }
+
+  // Восстановление корабля из снимка
+  public synchronized void putShip(String playerId, GameObject ship) {
+    ships.put(playerId, ship);
+  }
+
+  public synchronized Map<String, GameObject> getShips() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(ships));
+  }
+
+  public synchronized long getLastSeq() {
+    return lastSeq;
+  }
+
+  public synchronized void setLastSeq(long lastSeq) {
+    this.lastSeq = lastSeq;
+  }
+
+  public synchronized GameState copy() {
+    GameState copy = new GameState(gameId);
+    for (Map.Entry<String, GameObject> entry : ships.entrySet()) {
+      copy.ships.put(entry.getKey(), entry.getValue().copy());
+    }
+    copy.lastSeq = lastSeq;
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return "GameState{" + "gameId='" + gameId + '\'' + ", lastSeq=" + lastSeq + '}';
+  }
+}
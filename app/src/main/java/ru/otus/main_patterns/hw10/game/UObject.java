@@ -0,0 +1,8 @@
+package ru.otus.main_patterns.hw10.game;
+
+// Игровой объект как набор свойств: команды читают и меняют свойства по имени
+public interface UObject {
+  Object getProperty(String key);
+
+  void setProperty(String key, Object value);
+}
@@ -0,0 +1,403 @@
+package ru.otus.main_patterns.hw10.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.util.OrderDecoder;
+
+/*
+   Журнал приказов в отображённых в память файлах-сегментах фиксированного размера
+   (journal-<seq первой записи>.log).
+   Запись: [длина JSON: int][CRC32 от seq и JSON: int][seq: long][JSON приказа].
+   Нулевая длина - конец записей сегмента (файл создаётся заполненным нулями).
+
+   Group commit: append только копирует запись в отображённую память и возвращает её seq,
+   а fsync (MappedByteBuffer.force) делает отдельный поток и завершает whenDurable(seq). Пока он сбрасывает одну порцию,
+   успевают накопиться следующие записи, и один force подтверждает их все - поэтому
+   под нагрузкой один fsync приходится на много приказов, а не на каждый.
+
+   durableSeq растёт только после успешного force. Записи, чей force не удался, до следующего
+   успешного force получают ошибку и в whenDurable: их нельзя подтверждать клиенту.
+
+   При открытии сегменты читаются по порядку; чтение останавливается на первой повреждённой
+   (недописанной при сбое) записи, и новые записи пишутся с этого места.
+*/
+public class MappedOrderJournal implements OrderJournal {
+  private static final Logger logger = LoggerFactory.getLogger(MappedOrderJournal.class);
+  private static final int HEADER_SIZE = 16;
+  private static final CompletableFuture<Void> DURABLE = CompletableFuture.completedFuture(null);
+  private static final String PREFIX = "journal-";
+  private static final String SUFFIX = ".log";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final long flushIntervalMs;
+  private final ObjectWriter orderWriter;
+  private final OrderDecoder orderDecoder;
+
+  // Состояние записи, под монитором lock
+  private final Object lock = new Object();
+  private final List<Pending> pending = new ArrayList<>();
+  private final CRC32 crc = new CRC32();
+  private final byte[] seqBytes = new byte[8];
+  private Segment segment;
+  private long lastSeq;
+  private long durableSeq;
+  // seq последнего force (успешного или нет) и последняя ошибка force
+  private long flushedSeq;
+  private long failedSeq;
+  private RuntimeException flushFailure;
+  private boolean running;
+  private Thread flusher;
+
+  public MappedOrderJournal(Path directory, int segmentSize, long flushIntervalMs) {
+    this(directory, segmentSize, flushIntervalMs, new ObjectMapper());
+  }
+
+  public MappedOrderJournal(
+      Path directory, int segmentSize, long flushIntervalMs, ObjectMapper mapper) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.flushIntervalMs = flushIntervalMs;
+    this.orderWriter = mapper.writerFor(Order.class);
+    this.orderDecoder = new OrderDecoder(mapper);
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public void open(ObjLongConsumer<Order> replay) throws IOException {
+    Files.createDirectories(directory);
+    lastSeq = 0;
+    long replayed = 0;
+    Segment last = null;
+    boolean corrupted = false;
+    for (Path path : segmentFiles()) {
+      if (corrupted || (last != null && firstSeq(path) != lastSeq + 1)) {
+        // После повреждённой записи продолжать нельзя: последовательность seq нарушена
+        Path moved = path.resolveSibling(path.getFileName() + ".corrupt");
+        Files.move(path, moved);
+        logger.warn("open, journal segment {} is skipped and moved to {}", path, moved);
+        continue;
+      }
+      if (last != null) {
+        last.close();
+      } else {
+        lastSeq = firstSeq(path) - 1;
+      }
+      last = Segment.open(path);
+      corrupted = !readRecords(last, replay);
+      replayed += last.recordCount;
+    }
+    synchronized (lock) {
+      segment = last != null ? last : Segment.create(directory, lastSeq + 1, segmentSize);
+      durableSeq = lastSeq;
+      flushedSeq = lastSeq;
+      failedSeq = 0;
+      flushFailure = null;
+      running = true;
+    }
+    flusher = new Thread(this::flushLoop, "OrderJournalFlusher");
+    flusher.setDaemon(true);
+    flusher.start();
+    logger.info("open, replayed {} orders from journal {}", replayed, directory);
+  }
+
+  @Override
+  public long append(Order order) {
+    byte[] json;
+    try {
+      json = orderWriter.writeValueAsBytes(order);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Order can't be written to journal", e);
+    }
+    if (HEADER_SIZE + json.length > segmentSize) {
+      throw new IllegalArgumentException("Order is larger than journal segment: " + json.length);
+    }
+    synchronized (lock) {
+      if (!running) {
+        throw new IllegalStateException("Order journal is not open");
+      }
+      if (segment.buffer.remaining() < HEADER_SIZE + json.length) {
+        try {
+          rotate();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+      long seq = ++lastSeq;
+      crc.reset();
+      crc.update(seqBytes(seq));
+      crc.update(json);
+      MappedByteBuffer buffer = segment.buffer;
+      buffer.putInt(json.length);
+      buffer.putInt((int) crc.getValue());
+      buffer.putLong(seq);
+      buffer.put(json);
+      lock.notifyAll();
+      return seq;
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> whenDurable(long seq) {
+    synchronized (lock) {
+      if (seq <= durableSeq) {
+        return DURABLE;
+      }
+      CompletableFuture<Void> durable = new CompletableFuture<>();
+      if (seq <= failedSeq) {
+        durable.completeExceptionally(flushFailure);
+        return durable;
+      }
+      pending.add(new Pending(seq, durable));
+      return durable;
+    }
+  }
+
+  @Override
+  public long lastSeq() {
+    synchronized (lock) {
+      return lastSeq;
+    }
+  }
+
+  @Override
+  public void deleteSegmentsUpTo(long seq) throws IOException {
+    List<Path> files = segmentFiles();
+    // Текущий (последний) сегмент не удаляется никогда
+    for (int i = 0; i + 1 < files.size(); i++) {
+      if (firstSeq(files.get(i + 1)) - 1 > seq) {
+        break;
+      }
+      Files.delete(files.get(i));
+      logger.info("deleteSegmentsUpTo, journal segment {} is deleted", files.get(i));
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    Thread thread;
+    synchronized (lock) {
+      if (!running) {
+        return;
+      }
+      running = false;
+      lock.notifyAll();
+      thread = flusher;
+    }
+    try {
+      // Поток сбросит последние записи и подтвердит их перед выходом
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (lock) {
+      segment.close();
+    }
+  }
+
+  private void flushLoop() {
+    while (true) {
+      Segment target;
+      long seq;
+      try {
+        synchronized (lock) {
+          // После неудачного force повторяем его, только когда появятся новые записи
+          while (running && lastSeq == flushedSeq) {
+            lock.wait();
+          }
+          if (lastSeq == flushedSeq) {
+            return;
+          }
+        }
+        if (flushIntervalMs > 0) {
+          // Ждём, пока накопятся ещё записи, чтобы подтвердить их одним force
+          Thread.sleep(flushIntervalMs);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      synchronized (lock) {
+        target = segment;
+        seq = lastSeq;
+      }
+      RuntimeException failure = null;
+      try {
+        // Записи до seq в target или в предыдущих сегментах, а они сброшены при смене сегмента
+        target.buffer.force();
+      } catch (RuntimeException e) {
+        logger.error("flushLoop, failed to flush journal {}", target.path, e);
+        failure = e;
+      }
+      List<Pending> completed = new ArrayList<>();
+      synchronized (lock) {
+        flushedSeq = seq;
+        if (failure == null) {
+          durableSeq = seq;
+        } else {
+          failedSeq = seq;
+          flushFailure = failure;
+        }
+        for (Iterator<Pending> it = pending.iterator(); it.hasNext(); ) {
+          Pending p = it.next();
+          if (p.seq <= seq) {
+            completed.add(p);
+            it.remove();
+          }
+        }
+      }
+      for (Pending p : completed) {
+        if (failure == null) {
+          p.durable.complete(null);
+        } else {
+          p.durable.completeExceptionally(failure);
+        }
+      }
+    }
+  }
+
+  // Вызывается под lock, когда запись не помещается в текущий сегмент
+  private void rotate() throws IOException {
+    segment.buffer.force();
+    segment.close();
+    segment = Segment.create(directory, lastSeq + 1, segmentSize);
+  }
+
+  // false - чтение остановлено на повреждённой записи
+  private boolean readRecords(Segment s, ObjLongConsumer<Order> replay) throws IOException {
+    MappedByteBuffer buffer = s.buffer;
+    while (buffer.remaining() >= HEADER_SIZE) {
+      int start = buffer.position();
+      int length = buffer.getInt();
+      if (length == 0) {
+        buffer.position(start);
+        return true;
+      }
+      int checksum = buffer.getInt();
+      long seq = buffer.getLong();
+      if (length < 0 || length > buffer.remaining() || seq != lastSeq + 1) {
+        return truncate(s, start);
+      }
+      byte[] json = new byte[length];
+      buffer.get(json);
+      crc.reset();
+      crc.update(seqBytes(seq));
+      crc.update(json);
+      if ((int) crc.getValue() != checksum) {
+        return truncate(s, start);
+      }
+      lastSeq = seq;
+      s.recordCount++;
+      try {
+        replay.accept(orderDecoder.decode(json), seq);
+      } catch (RuntimeException e) {
+        logger.warn("open, failed to replay order #{}", seq, e);
+      }
+    }
+    return true;
+  }
+
+  // Недописанная запись затирается нулями, новые записи пойдут с её места
+  private static boolean truncate(Segment s, int position) {
+    logger.warn("open, journal {} is truncated at position {}", s.path, position);
+    MappedByteBuffer buffer = s.buffer;
+    buffer.position(position);
+    while (buffer.hasRemaining()) {
+      buffer.put((byte) 0);
+    }
+    buffer.force();
+    buffer.position(position);
+    return false;
+  }
+
+  private List<Path> segmentFiles() throws IOException {
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+      for (Path path : stream) {
+        files.add(path);
+      }
+    }
+    // Имена с seq фиксированной ширины сортируются так же, как seq
+    Collections.sort(files);
+    return files;
+  }
+
+  private static long firstSeq(Path path) {
+    String name = path.getFileName().toString();
+    return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+  }
+
+  private byte[] seqBytes(long value) {
+    for (int i = 7; i >= 0; i--) {
+      seqBytes[i] = (byte) value;
+      value >>>= 8;
+    }
+    return seqBytes;
+  }
+
+  private static final class Pending {
+    private final long seq;
+    private final CompletableFuture<Void> durable;
+
+    Pending(long seq, CompletableFuture<Void> durable) {
+      this.seq = seq;
+      this.durable = durable;
+    }
+  }
+
+  private static final class Segment {
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int recordCount;
+
+    private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    static Segment create(Path directory, long firstSeq, int size) throws IOException {
+      Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+      try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+        file.setLength(size);
+      }
+      return open(path);
+    }
+
+    static Segment open(Path path) throws IOException {
+      RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+      FileChannel channel = file.getChannel();
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+      return new Segment(path, channel, buffer);
+    }
+
+    void close() throws IOException {
+      channel.close();
+    }
+  }
+}
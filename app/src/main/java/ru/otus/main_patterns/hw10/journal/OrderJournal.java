@@ -0,0 +1,72 @@
+package ru.otus.main_patterns.hw10.journal;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjLongConsumer;
+import ru.otus.main_patterns.hw10.dto.Order;
+
+/**
+ * Журнал принятых приказов (write-ahead log). Поток игры дописывает приказ в журнал перед
+ * выполнением его команды, поэтому порядок записей игры в журнале совпадает с порядком выполнения.
+ * Клиент получает 201, когда запись надёжно сохранена на диск. При старте сервера приказы из
+ * журнала, которых нет в снимке состояния игр, выполняются заново.
+ */
+public interface OrderJournal {
+
+  /** Выключенный журнал: ничего не пишет и ничего не восстанавливает. */
+  OrderJournal DISABLED =
+      new OrderJournal() {
+        private final CompletableFuture<Void> durable = CompletableFuture.completedFuture(null);
+
+        @Override
+        public boolean isEnabled() {
+          return false;
+        }
+
+        @Override
+        public void open(ObjLongConsumer<Order> replay) {}
+
+        @Override
+        public long append(Order order) {
+          return 0;
+        }
+
+        @Override
+        public CompletableFuture<Void> whenDurable(long seq) {
+          return durable;
+        }
+
+        @Override
+        public long lastSeq() {
+          return 0;
+        }
+
+        @Override
+        public void deleteSegmentsUpTo(long seq) {}
+
+        @Override
+        public void close() {}
+      };
+
+  boolean isEnabled();
+
+  /**
+   * Восстанавливает приказы из журнала (приказ и его seq, по порядку) и готовит журнал к записи.
+   */
+  void open(ObjLongConsumer<Order> replay) throws IOException;
+
+  /** Дописывает приказ и возвращает его seq; запись ещё может быть не на диске. */
+  long append(Order order);
+
+  /** Завершится, когда на диске будут все записи до seq включительно. */
+  CompletableFuture<Void> whenDurable(long seq);
+
+  /** seq последней записи. */
+  long lastSeq();
+
+  /** Удаляет сегменты, все записи которых не больше seq (они уже есть в снимке). */
+  void deleteSegmentsUpTo(long seq) throws IOException;
+
+  /** Сохраняет на диск всё записанное и закрывает журнал. */
+  void close() throws IOException;
+}
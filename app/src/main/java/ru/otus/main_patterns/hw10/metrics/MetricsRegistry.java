@@ -0,0 +1,102 @@
+package ru.otus.main_patterns.hw10.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+   Метрики сервера в памяти процесса:
+   - счётчики (LongAdder) - потоки не конкурируют за одну ячейку;
+   - значения, которые снимаются при чтении метрик (глубина очередей и т.п.);
+   - время выполнения и число ошибок команд по классу команды.
+   Статистика команды находится через ClassValue - без поиска в Map на каждую команду,
+   поэтому цикл выполнения команд платит только за System.nanoTime и запись в гистограмму.
+   Снимок для /metrics собирается только при чтении.
+*/
+public class MetricsRegistry {
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+  private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+  private final Map<Class<?>, CommandStats> commands = new ConcurrentHashMap<>();
+  private final ClassValue<CommandStats> commandStats =
+      new ClassValue<CommandStats>() {
+        @Override
+        protected CommandStats computeValue(Class<?> type) {
+          return commands.computeIfAbsent(type, t -> new CommandStats());
+        }
+      };
+
+  // Счётчик стоит получить один раз и хранить в поле, а не искать по имени на каждое событие
+  public LongAdder counter(String name) {
+    return counters.computeIfAbsent(name, n -> new LongAdder());
+  }
+
+  // Значение снимается при каждом чтении метрик; повторная регистрация заменяет прежнее
+  public void gauge(String name, LongSupplier value) {
+    gauges.put(name, value);
+  }
+
+  public CommandStats commandStats(Class<?> type) {
+    return commandStats.get(type);
+  }
+
+  public void recordExecution(Class<?> type, long nanos, boolean failed) {
+    CommandStats stats = commandStats.get(type);
+    stats.latency.record(nanos);
+    if (failed) {
+      stats.failures.increment();
+    }
+  }
+
+  // Текущие значения всех метрик (имена отсортированы), время - в наносекундах
+  public Map<String, Object> snapshot() {
+    Map<String, Long> counterValues = new TreeMap<>();
+    for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+      counterValues.put(entry.getKey(), entry.getValue().sum());
+    }
+    Map<String, Long> gaugeValues = new TreeMap<>();
+    for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+      gaugeValues.put(entry.getKey(), entry.getValue().getAsLong());
+    }
+    Map<String, Object> commandValues = new TreeMap<>();
+    for (Map.Entry<Class<?>, CommandStats> entry : commands.entrySet()) {
+      commandValues.put(entry.getKey().getSimpleName(), entry.getValue().snapshot());
+    }
+
+    Map<String, Object> snapshot = new LinkedHashMap<>();
+    snapshot.put("counters", counterValues);
+    snapshot.put("gauges", gaugeValues);
+    snapshot.put("commands", commandValues);
+    return snapshot;
+  }
+
+  // Время выполнения и число ошибок команд одного класса
+  public static final class CommandStats {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    public LatencyHistogram getLatency() {
+      return latency;
+    }
+
+    public long getFailures() {
+      return failures.sum();
+    }
+
+    private Map<String, Object> snapshot() {
+      LatencyHistogram.Snapshot s = latency.snapshot();
+      Map<String, Object> values = new LinkedHashMap<>();
+      values.put("count", s.getCount());
+      values.put("failures", failures.sum());
+      values.put("meanNs", s.getMean());
+      values.put("p50Ns", s.percentile(0.5));
+      values.put("p90Ns", s.percentile(0.9));
+      values.put("p99Ns", s.percentile(0.99));
+      values.put("p999Ns", s.percentile(0.999));
+      values.put("maxNs", s.getMax());
+      return values;
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package ru.otus.main_patterns.hw10.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+   Счётчики по HTTP-статусу (prefix + status) без поиска по имени на каждый ответ: счётчик
+   статуса находится в реестре один раз и дальше берётся из массива по индексу статуса.
+   В реестре счётчик появляется при первом ответе с этим статусом - /metrics не показывает
+   статусы, которых не было. Два потока могут одновременно искать один и тот же счётчик -
+   реестр вернёт обоим один и тот же LongAdder.
+*/
+public final class StatusCounters {
+  private static final int MAX_STATUS = 599;
+
+  private final MetricsRegistry metrics;
+  private final String prefix;
+  private final AtomicReferenceArray<LongAdder> counters =
+      new AtomicReferenceArray<>(MAX_STATUS + 1);
+
+  public StatusCounters(MetricsRegistry metrics, String prefix) {
+    this.metrics = metrics;
+    this.prefix = prefix;
+  }
+
+  public LongAdder get(int status) {
+    if (status < 0 || status > MAX_STATUS) {
+      return metrics.counter(prefix + status);
+    }
+    LongAdder counter = counters.get(status);
+    if (counter == null) {
+      counter = metrics.counter(prefix + status);
+      counters.set(status, counter);
+    }
+    return counter;
+  }
+
+  public void increment(int status) {
+    get(status).increment();
+  }
+}
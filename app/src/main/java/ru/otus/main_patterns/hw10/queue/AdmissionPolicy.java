@@ -0,0 +1,11 @@
+package ru.otus.main_patterns.hw10.queue;
+
+/** Что делать с новой командой, если очередь игры заполнена. */
+public enum AdmissionPolicy {
+  /** Сразу отклонить команду (клиент получит 429 и Retry-After). */
+  REJECT,
+  /** Подождать освобождения места не дольше {@code queue.admission.timeoutMs}, затем отклонить. */
+  WAIT,
+  /** Удалить самую старую команду из очереди и поставить новую. */
+  DROP_OLDEST;
+}
@@ -1,37 +1,148 @@
 package ru.otus.main_patterns.hw10.queue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.concurrent.BlockingWaitStrategy;
+import ru.otus.main_patterns.concurrent.WaitStrategy;
+import ru.otus.main_patterns.hw10.command.AckCommand;
+import ru.otus.main_patterns.hw10.command.BatchCommand;
 import ru.otus.main_patterns.hw10.command.Command;
+import ru.otus.main_patterns.hw10.command.JournaledCommand;
+import ru.otus.main_patterns.hw10.metrics.MetricsRegistry;
 
 public class ServerQueueThread {
   private final BlockingQueue<Command> blockingQueue;
   private volatile Supplier<Boolean> stopStrategy = () -> false;
   private final Thread thread;
+  // null - время выполнения команд не измеряется
+  private final MetricsRegistry metrics;
   private static final Logger logger = LoggerFactory.getLogger(ServerQueueThread.class);
 
   public ServerQueueThread(BlockingQueue<Command> blockingQueue) {
+    this(blockingQueue, "ServerThread");
+  }
+
+  public ServerQueueThread(BlockingQueue<Command> blockingQueue, String name) {
+    this(blockingQueue, name, null);
+  }
+
+  public ServerQueueThread(
+      BlockingQueue<Command> blockingQueue, String name, MetricsRegistry metrics) {
+    this(blockingQueue, name, metrics, new BlockingWaitStrategy());
+  }
+
+  // waitStrategy - как поток ждёт команду из пустой очереди (queue.waitStrategy)
+  public ServerQueueThread(
+      BlockingQueue<Command> blockingQueue,
+      String name,
+      MetricsRegistry metrics,
+      WaitStrategy waitStrategy) {
+    this(blockingQueue, name, metrics, waitStrategy, 1, null);
+  }
+
+  /*
+     batchSize (queue.batchSize) - сколько команд поток забирает из очереди за раз.
+     Первая команда пачки ждётся стратегией ожидания, остальные (до batchSize - 1) забираются
+     drainTo без ожидания и выполняются подряд: блокировка очереди и её кэш-линии оплачиваются
+     один раз на пачку. stopStrategy проверяется между пачками, поэтому после stop() поток
+     ещё выполнит оставшиеся команды текущей пачки.
+     onExecuted (может быть null) вызывается для каждой взятой из очереди команды после её
+     выполнения - так QueueService освобождает занятые командой места очереди.
+  */
+  public ServerQueueThread(
+      BlockingQueue<Command> blockingQueue,
+      String name,
+      MetricsRegistry metrics,
+      WaitStrategy waitStrategy,
+      int batchSize,
+      Consumer<Command> onExecuted) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+    }
     this.blockingQueue = blockingQueue;
+    this.metrics = metrics;
 
     thread =
         new Thread(
             () -> {
+              List<Command> batch = new ArrayList<>(batchSize);
               // EventLoop -  выполняет команды из очереди.
               // Теперь цикл зависит от результата выполнения метода get()
               while (!stopStrategy.get()) {
-                Command command = null;
                 try {
-                  command = blockingQueue.take(); // блокирует, если очередь пуста
-                  logger.debug("Executing {}", command.getClass().getSimpleName());
-                  command.execute();
-                } catch (Exception e) {
-                  logger.error("ServerThread, fail execution command: " + command, e);
+                  batch.add(waitStrategy.take(blockingQueue)); // ждёт, если очередь пуста
+                  if (batchSize > 1) {
+                    blockingQueue.drainTo(batch, batchSize - 1);
+                  }
+                } catch (InterruptedException e) {
+                  // Поток прервали в ожидании команды (например, при остановке) - проверяем
+                  // stopStrategy
+                  logger.debug("ServerThread interrupted");
+                  continue;
+                }
+                for (Command command : batch) {
+                  if (command instanceof BatchCommand) {
+                    // Команды пакета приказов выполняются (и измеряются) по одной
+                    for (Command batched : ((BatchCommand) command).getCommands()) {
+                      executeSafely(batched);
+                    }
+                  } else {
+                    executeSafely(command);
+                  }
+                  if (onExecuted != null) {
+                    onExecuted.accept(command);
+                  }
                 }
+                batch.clear();
               }
             });
-    thread.setName("ServerThread");
+    thread.setName(name);
+  }
+
+  // Ошибка команды не останавливает поток
+  private void executeSafely(Command command) {
+    try {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Executing {}", typeOf(command).getSimpleName());
+      }
+      execute(command);
+    } catch (Exception e) {
+      logger.error("ServerThread, fail execution command: " + command, e);
+    }
+  }
+
+  // Время выполнения и ошибки записываются по классу команды приказа (см. MetricsRegistry)
+  private void execute(Command command) {
+    if (metrics == null) {
+      command.execute();
+      return;
+    }
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      command.execute();
+      failed = false;
+    } finally {
+      metrics.recordExecution(typeOf(command), System.nanoTime() - start, failed);
+    }
+  }
+
+  // Класс команды приказа под обёртками журнала и подтверждения: время обёрток входит в её время
+  private static Class<?> typeOf(Command command) {
+    while (true) {
+      if (command instanceof JournaledCommand) {
+        command = ((JournaledCommand) command).getCommand();
+      } else if (command instanceof AckCommand) {
+        command = ((AckCommand) command).getCommand();
+      } else {
+        return command.getClass();
+      }
+    }
   }
 
   public void start() {
@@ -39,10 +150,11 @@ public class ServerQueueThread {
     thread.start();
   }
 
-  // Обычная остановка (Hard Stop)
+  // Обычная остановка (Hard Stop). Прерываем поток, чтобы он не остался ждать команду.
   public void stop() {
     logger.debug("stop");
     this.stopStrategy = () -> true;
+    thread.interrupt();
   }
 
   /*
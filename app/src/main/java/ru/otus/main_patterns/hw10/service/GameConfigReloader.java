@@ -0,0 +1,120 @@
+package ru.otus.main_patterns.hw10.service;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.config.GameConfig;
+import ru.otus.main_patterns.hw10.config.GameConfigSnapshot;
+
+/*
+   Конфигурация игр с перезагрузкой без рестарта сервера.
+   Текущая версия - неизменяемый GameConfigSnapshot в AtomicReference: проверка приказа просто читает
+   ссылку, не блокируется и всегда видит целиком построенный снимок.
+   Поток GameConfigWatcher следит за файлом (WatchService) и при его изменении разбирает YAML
+   и строит новый снимок в стороне, после чего одной записью в AtomicReference публикует его.
+   Если новый файл не удалось разобрать, остаётся прежний снимок.
+*/
+public class GameConfigReloader {
+  private final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+  private final AtomicReference<GameConfigSnapshot> snapshot = new AtomicReference<>();
+  private final Path path;
+  private volatile WatchService watchService;
+  private Thread watcher;
+  private static final Logger logger = LoggerFactory.getLogger(GameConfigReloader.class);
+
+  // Конфигурация из файла path, который можно менять во время работы
+  public GameConfigReloader(Path path) throws IOException {
+    this.path = path.toAbsolutePath();
+    try (InputStream is = Files.newInputStream(this.path)) {
+      snapshot.set(parse(is));
+    }
+  }
+
+  // Конфигурация без файла (например, из ресурсов) - только для чтения
+  public GameConfigReloader(InputStream is) throws IOException {
+    this.path = null;
+    snapshot.set(parse(is));
+  }
+
+  public GameConfigSnapshot get() {
+    return snapshot.get();
+  }
+
+  // Перечитывает файл; при ошибке оставляет прежний снимок и возвращает false
+  public boolean reload() {
+    if (path == null) {
+      return false;
+    }
+    try (InputStream is = Files.newInputStream(path)) {
+      snapshot.set(parse(is));
+      logger.info("reload, game config reloaded from {}", path);
+      return true;
+    } catch (Exception e) {
+      logger.error("reload, keep previous game config, fail loading " + path, e);
+      return false;
+    }
+  }
+
+  public synchronized void start() throws IOException {
+    if (path == null || watcher != null) {
+      return;
+    }
+    watchService = FileSystems.getDefault().newWatchService();
+    path.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    watcher = new Thread(this::watch, "GameConfigWatcher");
+    watcher.setDaemon(true);
+    watcher.start();
+    logger.info("start, watching {}", path);
+  }
+
+  public synchronized void stop() throws IOException, InterruptedException {
+    if (watcher == null) {
+      return;
+    }
+    watchService.close();
+    watcher.join();
+    watcher = null;
+  }
+
+  private void watch() {
+    Path fileName = path.getFileName();
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (fileName.equals(event.context())) {
+            changed = true;
+          }
+        }
+        if (changed) {
+          reload();
+        }
+        if (!key.reset()) {
+          logger.warn("watch, directory of {} is no longer accessible", path);
+          return;
+        }
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      logger.debug("watch, stopped");
+    }
+  }
+
+  private GameConfigSnapshot parse(InputStream is) throws IOException {
+    return new GameConfigSnapshot(mapper.readValue(is, GameConfig.class));
+  }
+}
@@ -1,29 +1,47 @@
 package ru.otus.main_patterns.hw10.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import java.io.InputStream;
+import java.nio.file.Paths;
 import ru.otus.main_patterns.hw10.command.InterpretCommand;
 import ru.otus.main_patterns.hw10.config.GameConfig;
+import ru.otus.main_patterns.hw10.config.PermissionIndex;
 
+/*
+   Конфигурация игр. По умолчанию - game-config.yml из ресурсов.
+   Если задан game.config.path, конфигурация читается из этого файла и перечитывается при его
+   изменении (см. GameConfigReloader, жизненным циклом слежения управляет GameServer).
+*/
 public class GameConfigService {
-  private static final GameConfig GAME_CONFIG;
+  private static final GameConfigReloader RELOADER;
 
   static {
     try {
-      ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-      InputStream is =
-          InterpretCommand.class.getClassLoader().getResourceAsStream("game-config.yml");
-      if (is == null) {
-        throw new RuntimeException("game-config.yml not found in resources");
+      String path = ServerConfigService.get().getGameConfigPath();
+      if (path != null) {
+        RELOADER = new GameConfigReloader(Paths.get(path));
+      } else {
+        try (InputStream is =
+            InterpretCommand.class.getClassLoader().getResourceAsStream("game-config.yml")) {
+          if (is == null) {
+            throw new RuntimeException("game-config.yml not found in resources");
+          }
+          RELOADER = new GameConfigReloader(is);
+        }
       }
-      GAME_CONFIG = mapper.readValue(is, GameConfig.class);
     } catch (Exception e) {
       throw new RuntimeException("Failed to load game-config.yml", e);
     }
   }
 
   public static GameConfig get() {
-    return GAME_CONFIG;
+    return RELOADER.get().getGameConfig();
+  }
+
+  public static PermissionIndex getPermissionIndex() {
+    return RELOADER.get().getPermissionIndex();
+  }
+
+  public static GameConfigReloader getReloader() {
+    return RELOADER;
   }
 }
@@ -0,0 +1,33 @@
+package ru.otus.main_patterns.hw10.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import ru.otus.main_patterns.hw10.game.GameState;
+
+// Состояния игр сервера; игра появляется при первом приказе или восстанавливается из снимка
+public class GameStateService {
+  private static final Map<String, GameState> STATES = new ConcurrentHashMap<>();
+
+  private GameStateService() {}
+
+  public static GameState get(String gameId) {
+    return STATES.computeIfAbsent(gameId, GameState::new);
+  }
+
+  public static List<GameState> getAll() {
+    return new ArrayList<>(STATES.values());
+  }
+
+  public static void restore(Collection<GameState> states) {
+    for (GameState state : states) {
+      STATES.put(state.getGameId(), state);
+    }
+  }
+
+  public static void clear() {
+    STATES.clear();
+  }
+}
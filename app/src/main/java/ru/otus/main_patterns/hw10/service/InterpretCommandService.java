@@ -1,12 +1,229 @@
 package ru.otus.main_patterns.hw10.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.IoC;
+import ru.otus.main_patterns.hw10.command.BatchCommand;
+import ru.otus.main_patterns.hw10.command.Command;
 import ru.otus.main_patterns.hw10.command.InterpretCommand;
+import ru.otus.main_patterns.hw10.command.QueueCommand;
 import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.OrderResult;
+import ru.otus.main_patterns.hw10.exception.InvalidOrderException;
+import ru.otus.main_patterns.hw10.exception.OrderConflictException;
+import ru.otus.main_patterns.hw10.exception.QueueOverflowException;
+import ru.otus.main_patterns.hw10.journal.OrderJournal;
+import ru.otus.main_patterns.hw10.util.OrderDedupWindow;
 
 public class InterpretCommandService {
+  private static final int SC_TOO_MANY_REQUESTS = 429;
+  private static final int SC_UNPROCESSABLE_ENTITY = 422;
+  private static final Logger logger = LoggerFactory.getLogger(InterpretCommandService.class);
+  private final OrderDedupWindow dedupWindow;
+  private final OrderJournal journal;
+  private final long journalTimeoutMs;
+
+  public InterpretCommandService() {
+    this(
+        OrderDedupService.get(),
+        JournalService.get(),
+        ServerConfigService.get().getOrderTimeoutMs());
+  }
+
+  public InterpretCommandService(
+      OrderDedupWindow dedupWindow, OrderJournal journal, long journalTimeoutMs) {
+    this.dedupWindow = dedupWindow;
+    this.journal = journal;
+    this.journalTimeoutMs = journalTimeoutMs;
+  }
 
   public void processMessage(Order order) {
     InterpretCommand interpretCommand = new InterpretCommand(order);
     interpretCommand.execute();
   }
+
+  // executed завершится после выполнения команды потоком игры
+  public void processMessage(Order order, CompletableFuture<Void> executed) {
+    InterpretCommand interpretCommand = new InterpretCommand(order, executed);
+    interpretCommand.execute();
+  }
+
+  // durable завершится, когда поток игры сохранит приказ в журнале на диске
+  public void processMessage(
+      Order order, CompletableFuture<Void> executed, CompletableFuture<Void> durable) {
+    enqueue(order, interpret(order, executed, durable));
+  }
+
+  // Проверяет приказ и создаёт его команду, не ставя её в очередь (см. enqueue)
+  public Command interpret(
+      Order order, CompletableFuture<Void> executed, CompletableFuture<Void> durable) {
+    return new InterpretCommand(order, executed, durable, journal, dedupWindow).interpret();
+  }
+
+  // Ставит команду приказа в очередь его игры
+  public void enqueue(Order order, Command command) {
+    Command queueCommand = IoC.<QueueCommand>resolve("queue.command", order.getGameId(), command);
+    queueCommand.execute();
+  }
+
+  /*
+     Пакет приказов: каждый приказ проверяется отдельно, а команды прошедших проверку приказов
+     одной игры ставятся в очередь игры одной командой BatchCommand - все вместе и подряд.
+     Результаты возвращаются в порядке приказов в пакете.
+     Как и у отдельного приказа, id клиента резервируется после проверки приказа. Приказ с id,
+     который уже был принят, повторно в очередь не ставится и получает результат исходного
+     приказа; если исходный ещё обрабатывается - 409, если id занят другим приказом - 422.
+     Если журнал включён, ответ ждёт, пока все принятые приказы пакета будут сохранены на диске,
+     но не дольше journalTimeoutMs. Приказ, не сохранённый за это время, уже в очереди и может
+     выполниться, поэтому, как и отдельный приказ с 503 по таймауту, получает 503, а его id остаётся
+     зарезервированным: повтор получит 409, а потом - итог исходного приказа, и не выполнится дважды.
+  */
+  public List<OrderResult> processBatch(List<Order> orders) {
+    OrderResult[] results = new OrderResult[orders.size()];
+    boolean[] reserved = new boolean[orders.size()];
+    Map<String, List<Integer>> indexesByGame = new LinkedHashMap<>();
+    Map<String, List<Command>> commandsByGame = new LinkedHashMap<>();
+    List<Integer> accepted = new ArrayList<>();
+    List<CompletableFuture<Void>> durables =
+        new ArrayList<>(Collections.nCopies(orders.size(), null));
+
+    for (int i = 0; i < orders.size(); i++) {
+      Order order = orders.get(i);
+      boolean clientId = order.getId() != null && !order.getId().isEmpty();
+      if (!clientId) {
+        order.setId(UUID.randomUUID().toString());
+      }
+      try {
+        CompletableFuture<Void> durable = journal.isEnabled() ? new CompletableFuture<>() : null;
+        Command command = interpret(order, null, durable);
+        durables.set(i, durable);
+        if (clientId) {
+          CompletableFuture<OrderResult> original =
+              dedupWindow.reserve(order.getGameId(), order.getId(), order.payload());
+          if (original != null) {
+            results[i] = OrderDedupWindow.duplicateResult(order.getId(), original);
+            continue;
+          }
+          reserved[i] = true;
+        }
+        indexesByGame.computeIfAbsent(order.getGameId(), k -> new ArrayList<>()).add(i);
+        commandsByGame.computeIfAbsent(order.getGameId(), k -> new ArrayList<>()).add(command);
+      } catch (OrderConflictException ex) {
+        results[i] = new OrderResult(order.getId(), SC_UNPROCESSABLE_ENTITY, ex.getMessage());
+      } catch (SecurityException ex) {
+        results[i] =
+            new OrderResult(order.getId(), HttpServletResponse.SC_FORBIDDEN, ex.getMessage());
+      } catch (InvalidOrderException ex) {
+        results[i] =
+            new OrderResult(order.getId(), HttpServletResponse.SC_BAD_REQUEST, ex.getMessage());
+      } catch (RuntimeException ex) {
+        // Как и для отдельного приказа: подробности ошибки - только в лог
+        logger.error("processBatch, fail processing order: {}", order, ex);
+        results[i] = OrderResult.internalError(order.getId());
+      }
+    }
+
+    for (Map.Entry<String, List<Command>> entry : commandsByGame.entrySet()) {
+      String gameId = entry.getKey();
+      List<Integer> indexes = indexesByGame.get(gameId);
+      try {
+        Command queueCommand =
+            IoC.<QueueCommand>resolve("queue.command", gameId, new BatchCommand(entry.getValue()));
+        queueCommand.execute();
+        for (int i : indexes) {
+          Order order = orders.get(i);
+          results[i] = OrderResult.created(order.getId(), order.getOperationId());
+          accepted.add(i);
+        }
+      } catch (QueueOverflowException ex) {
+        for (int i : indexes) {
+          Order order = orders.get(i);
+          results[i] = new OrderResult(order.getId(), SC_TOO_MANY_REQUESTS, ex.getMessage());
+          if (reserved[i]) {
+            dedupWindow.release(gameId, order.getId(), ex);
+          }
+        }
+      }
+    }
+
+    List<CompletableFuture<Void>> acceptedDurables = new ArrayList<>();
+    for (int i : accepted) {
+      if (durables.get(i) != null) {
+        acceptedDurables.add(durables.get(i));
+      }
+    }
+    awaitDurable(acceptedDurables);
+    for (int i : accepted) {
+      Order order = orders.get(i);
+      CompletableFuture<Void> durable = durables.get(i);
+      if (durable != null && !durable.isDone()) {
+        results[i] =
+            new OrderResult(
+                order.getId(),
+                HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "Order was not saved to journal in "
+                    + journalTimeoutMs
+                    + " ms, its outcome is unknown");
+      } else if (durable != null && durable.isCompletedExceptionally()) {
+        results[i] = OrderResult.internalError(order.getId());
+      }
+      if (reserved[i]) {
+        resolveReservation(order, durable);
+      }
+    }
+
+    List<OrderResult> resultList = new ArrayList<>(results.length);
+    for (OrderResult result : results) {
+      resultList.add(result);
+    }
+    return resultList;
+  }
+
+  // Как у отдельного приказа: резерв id снимается, только если приказ не сохранён в журнале
+  private void resolveReservation(Order order, CompletableFuture<Void> durable) {
+    if (durable == null) {
+      dedupWindow.complete(
+          order.getGameId(),
+          order.getId(),
+          OrderResult.created(order.getId(), order.getOperationId()));
+      return;
+    }
+    durable.whenComplete(
+        (ignored, ex) -> {
+          if (ex == null) {
+            dedupWindow.complete(
+                order.getGameId(),
+                order.getId(),
+                OrderResult.created(order.getId(), order.getOperationId()));
+          } else {
+            dedupWindow.release(order.getGameId(), order.getId(), ex);
+          }
+        });
+  }
+
+  // Ждёт сохранения приказов не дольше journalTimeoutMs; итог каждого приказа - в его durable
+  private void awaitDurable(List<CompletableFuture<Void>> durables) {
+    if (durables.isEmpty()) {
+      return;
+    }
+    try {
+      CompletableFuture.allOf(durables.toArray(new CompletableFuture<?>[0]))
+          .get(journalTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException e) {
+      logger.error("processBatch, orders are not saved to journal", e);
+    }
+  }
 }
@@ -0,0 +1,84 @@
+package ru.otus.main_patterns.hw10.service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.IoC;
+import ru.otus.main_patterns.hw10.command.Command;
+import ru.otus.main_patterns.hw10.command.InitCommand;
+import ru.otus.main_patterns.hw10.config.ServerConfig;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.OrderResult;
+import ru.otus.main_patterns.hw10.game.GameState;
+import ru.otus.main_patterns.hw10.journal.MappedOrderJournal;
+import ru.otus.main_patterns.hw10.journal.OrderJournal;
+import ru.otus.main_patterns.hw10.util.OrderDedupWindow;
+
+/*
+   Журнал принятых приказов (journal.enabled). Жизненным циклом управляет GameServer:
+   open восстанавливает приказы до запуска потоков игр и приёма запросов, поэтому команды
+   восстановленных приказов выполняются прямо в вызывающем потоке, по порядку журнала.
+   Приказы, уже учтённые в восстановленном снимке игры (seq не больше lastSeq игры),
+   не выполняются, но, как и остальные, попадают в окно дедупликации.
+*/
+public class JournalService {
+  private static final Logger logger = LoggerFactory.getLogger(JournalService.class);
+  private static final OrderJournal JOURNAL;
+
+  static {
+    ServerConfig config = ServerConfigService.get();
+    JOURNAL =
+        config.isJournalEnabled()
+            ? new MappedOrderJournal(
+                Paths.get(config.getJournalDir()),
+                config.getJournalSegmentSize(),
+                config.getJournalFlushIntervalMs())
+            : OrderJournal.DISABLED;
+  }
+
+  private JournalService() {}
+
+  public static OrderJournal get() {
+    return JOURNAL;
+  }
+
+  public static void open() throws IOException {
+    new InitCommand().execute();
+    OrderDedupWindow dedupWindow = OrderDedupService.get();
+    JOURNAL.open(
+        (order, seq) -> {
+          try {
+            replay(order, seq);
+            // Повтор уже принятого приказа после рестарта тоже не должен выполниться снова
+            if (dedupWindow.reserve(order.getGameId(), order.getId(), order.payload()) == null) {
+              dedupWindow.complete(
+                  order.getGameId(),
+                  order.getId(),
+                  OrderResult.created(order.getId(), order.getOperationId()));
+            }
+          } catch (RuntimeException e) {
+            logger.warn("open, order '{}' is not replayed", order.getId(), e);
+          }
+        });
+  }
+
+  // Приказ уже был проверен при приёме и записан в журнал, поэтому только выполняется
+  private static void replay(Order order, long seq) {
+    GameState state = GameStateService.get(order.getGameId());
+    synchronized (state) {
+      if (seq <= state.getLastSeq()) {
+        return;
+      }
+      try {
+        IoC.<Command>resolve("create.command", order).execute();
+      } finally {
+        state.setLastSeq(seq);
+      }
+    }
+  }
+
+  public static void close() throws IOException {
+    JOURNAL.close();
+  }
+}
@@ -0,0 +1,14 @@
+package ru.otus.main_patterns.hw10.service;
+
+import ru.otus.main_patterns.hw10.metrics.MetricsRegistry;
+
+// Общий реестр метрик сервера, их отдаёт /metrics
+public class MetricsService {
+  private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+  private MetricsService() {}
+
+  public static MetricsRegistry get() {
+    return REGISTRY;
+  }
+}
@@ -0,0 +1,18 @@
+package ru.otus.main_patterns.hw10.service;
+
+import ru.otus.main_patterns.hw10.config.ServerConfig;
+import ru.otus.main_patterns.hw10.util.OrderDedupWindow;
+
+// Общее окно дедупликации приказов: и для /game/order, и для пакетов /game/orders
+public class OrderDedupService {
+  private static final OrderDedupWindow WINDOW;
+
+  static {
+    ServerConfig config = ServerConfigService.get();
+    WINDOW = new OrderDedupWindow(config.getOrderDedupMaxSize(), config.getOrderDedupTtlMs());
+  }
+
+  public static OrderDedupWindow get() {
+    return WINDOW;
+  }
+}
@@ -1,35 +1,298 @@
 package ru.otus.main_patterns.hw10.service;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.concurrent.QueueType;
+import ru.otus.main_patterns.concurrent.WaitStrategyType;
+import ru.otus.main_patterns.hw10.command.BatchCommand;
+import ru.otus.main_patterns.hw10.command.CancellableCommand;
 import ru.otus.main_patterns.hw10.command.Command;
 import ru.otus.main_patterns.hw10.command.StartCommand;
+import ru.otus.main_patterns.hw10.config.ServerConfig;
+import ru.otus.main_patterns.hw10.exception.QueueOverflowException;
+import ru.otus.main_patterns.hw10.metrics.MetricsRegistry;
+import ru.otus.main_patterns.hw10.queue.AdmissionPolicy;
 import ru.otus.main_patterns.hw10.queue.ServerQueueThread;
 
+/*
+   Очереди команд игрового сервера, разбитые по играм (шардирование по gameId).
+   У каждого потока (ServerQueueThread) своя очередь. Игра всегда попадает в одну и ту же очередь
+   (по hash(gameId)), поэтому команды одной игры выполняются одним потоком строго в порядке
+   поступления, а разные игры выполняются параллельно на разных потоках.
+   Потоки создаются один раз в start() и останавливаются в stop(). Жизненным циклом управляет GameServer.
+   Очереди ограничены (queue.capacity) и реализованы ArrayBlockingQueue или кольцевым буфером
+   без блокировок (queue.type=MPSC_RING). Что делать при заполненной очереди, определяет AdmissionPolicy:
+   если команда не принята, addCommand бросает QueueOverflowException.
+   Ёмкость считается по приказам, а не по элементам очереди: пакет приказов (BatchCommand) - один
+   элемент, но занимает столько мест, сколько в нём команд. Свободные места очереди - семафор:
+   места занимаются при приёме команды и освобождаются потоком очереди после её выполнения.
+   С реестром метрик потоки измеряют время выполнения команд, а глубина очередей
+   и число отклонённых (queue.rejected) и вытесненных (queue.dropped) команд видны в /metrics.
+*/
 public class QueueService {
-  private static final QueueService INSTANCE = new QueueService();
-  private final BlockingQueue<Command> blockingQueue = new ArrayBlockingQueue<>(100);
+  private static final QueueService INSTANCE = new QueueService(ServerConfigService.get());
+  private final List<BlockingQueue<Command>> queues = new ArrayList<>();
+  private final List<Semaphore> freeSlots = new ArrayList<>();
+  private final AdmissionPolicy admissionPolicy;
+  private final long admissionTimeoutMs;
+  private final int capacity;
+  private final MetricsRegistry metrics;
+  private final WaitStrategyType waitStrategy;
+  private final int batchSize;
+  private final LongAdder rejectedCommands;
+  private final LongAdder droppedCommands;
+  private final List<ServerQueueThread> serverThreads = new ArrayList<>();
   private static final Logger logger = LoggerFactory.getLogger(QueueService.class);
 
+  public QueueService(int workers) {
+    this(workers, 100, AdmissionPolicy.REJECT, 0);
+  }
+
+  public QueueService(
+      int workers, int capacity, AdmissionPolicy admissionPolicy, long admissionTimeoutMs) {
+    this(config(workers, capacity, admissionPolicy, admissionTimeoutMs), null);
+  }
+
+  public QueueService(ServerConfig config) {
+    this(config, MetricsService.get());
+  }
+
+  // Настройки очередей берутся из config (queue.*), metrics может быть null - тогда метрики не
+  // собираются
+  public QueueService(ServerConfig config, MetricsRegistry metrics) {
+    int workers = config.getQueueWorkers();
+    int capacity = config.getQueueCapacity();
+    int batchSize = config.getQueueBatchSize();
+    AdmissionPolicy admissionPolicy = config.getAdmissionPolicy();
+    QueueType queueType = config.getQueueType();
+    if (workers < 1) {
+      throw new IllegalArgumentException("Workers count must be positive: " + workers);
+    }
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be positive: " + capacity);
+    }
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+    }
+    // DROP_OLDEST извлекает команду в потоке производителя, а MPSC-очередь - только поток очереди
+    if (queueType == QueueType.MPSC_RING && admissionPolicy == AdmissionPolicy.DROP_OLDEST) {
+      throw new IllegalArgumentException(
+          "Queue type " + queueType + " does not support admission policy " + admissionPolicy);
+    }
+    this.admissionPolicy = admissionPolicy;
+    this.admissionTimeoutMs = config.getAdmissionTimeoutMs();
+    this.capacity = capacity;
+    for (int i = 0; i < workers; i++) {
+      queues.add(queueType.create(capacity));
+      freeSlots.add(new Semaphore(capacity));
+    }
+    this.metrics = metrics;
+    this.waitStrategy = config.getQueueWaitStrategy();
+    this.batchSize = batchSize;
+    if (metrics != null) {
+      rejectedCommands = metrics.counter("queue.rejected");
+      droppedCommands = metrics.counter("queue.dropped");
+      metrics.gauge("queue.depth", this::getQueueDepth);
+      metrics.gauge("queue.threads", this::getThreadCount);
+      for (int i = 0; i < workers; i++) {
+        BlockingQueue<Command> queue = queues.get(i);
+        metrics.gauge("queue.depth." + i, queue::size);
+      }
+    } else {
+      rejectedCommands = new LongAdder();
+      droppedCommands = new LongAdder();
+    }
+  }
+
+  private static ServerConfig config(
+      int workers, int capacity, AdmissionPolicy admissionPolicy, long admissionTimeoutMs) {
+    Properties properties = new Properties();
+    properties.setProperty("queue.workers", String.valueOf(workers));
+    properties.setProperty("queue.capacity", String.valueOf(capacity));
+    properties.setProperty("queue.admission.policy", admissionPolicy.name());
+    properties.setProperty("queue.admission.timeoutMs", String.valueOf(admissionTimeoutMs));
+    return new ServerConfig(properties);
+  }
+
   public static QueueService getInstance() {
     return INSTANCE;
   }
 
-  public void initAndStartServerQueue() {
-    ServerQueueThread serverThread = new ServerQueueThread(blockingQueue);
-    StartCommand startCommand = new StartCommand(serverThread);
-    startCommand.execute();
+  // Повторный вызов ничего не делает, пока потоки запущены
+  public synchronized void start() {
+    if (!serverThreads.isEmpty()) {
+      return;
+    }
+    for (int i = 0; i < queues.size(); i++) {
+      Semaphore free = freeSlots.get(i);
+      ServerQueueThread serverThread =
+          new ServerQueueThread(
+              queues.get(i),
+              "ServerThread-" + i,
+              metrics,
+              waitStrategy.create(),
+              batchSize,
+              command -> free.release(slots(command)));
+      StartCommand startCommand = new StartCommand(serverThread);
+      startCommand.execute();
+      serverThreads.add(serverThread);
+    }
+    logger.info(
+        "start, workers: {}, wait strategy: {}, batch size: {}",
+        queues.size(),
+        waitStrategy,
+        batchSize);
+  }
+
+  // Hard stop: команды, оставшиеся в очередях, не выполняются
+  // (кроме уже забранных потоком в текущую пачку при queue.batchSize > 1)
+  public synchronized void stop() throws InterruptedException {
+    for (ServerQueueThread serverThread : serverThreads) {
+      serverThread.stop();
+    }
+    for (ServerQueueThread serverThread : serverThreads) {
+      serverThread.join();
+    }
+    serverThreads.clear();
+    logger.info("stop, commands left in queues: {}", getQueueDepth());
+  }
+
+  public void addCommand(String gameId, Command command) {
+    int index = getWorkerIndex(gameId);
+    BlockingQueue<Command> blockingQueue = queues.get(index);
+    // Путь каждого приказа: имя класса и дамп очереди считаются, только если debug включён
+    boolean debug = logger.isDebugEnabled();
+    if (debug) {
+      logger.debug(
+          "addCommand, add command {} of game {} to queue",
+          command.getClass().getSimpleName(),
+          gameId);
+    }
+    int slots = slots(command);
+    if (slots > capacity) {
+      rejectedCommands.increment();
+      throw new QueueOverflowException(
+          "Batch of "
+              + slots
+              + " orders of game '"
+              + gameId
+              + "' exceeds queue capacity "
+              + capacity);
+    }
+    if (!admit(blockingQueue, freeSlots.get(index), command, slots)) {
+      rejectedCommands.increment();
+      throw new QueueOverflowException(
+          "Command queue of game '" + gameId + "' is full, try again later");
+    }
+    if (debug) {
+      printQueue(blockingQueue);
+    }
+  }
+
+  // Количество работающих потоков, выполняющих команды
+  public synchronized int getThreadCount() {
+    int count = 0;
+    for (ServerQueueThread serverThread : serverThreads) {
+      if (serverThread.isAlive()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  // Количество команд, ожидающих выполнения во всех очередях
+  public int getQueueDepth() {
+    int depth = 0;
+    for (BlockingQueue<Command> blockingQueue : queues) {
+      depth += blockingQueue.size();
+    }
+    return depth;
+  }
+
+  // Количество команд, ожидающих выполнения в очереди, к которой привязана игра
+  public int getQueueDepth(String gameId) {
+    return getQueue(gameId).size();
+  }
+
+  // Номер потока (очереди), к которому привязана игра
+  public int getWorkerIndex(String gameId) {
+    return Math.floorMod(gameId.hashCode(), queues.size());
+  }
+
+  // Сколько мест в очереди занимает команда: пакет - по числу команд в нём
+  private static int slots(Command command) {
+    return command instanceof BatchCommand ? Math.max(1, ((BatchCommand) command).size()) : 1;
+  }
+
+  // Места занимаются до offer, поэтому в очереди не больше элементов, чем занятых мест
+  private boolean admit(
+      BlockingQueue<Command> blockingQueue, Semaphore free, Command command, int slots) {
+    switch (admissionPolicy) {
+      case WAIT:
+        try {
+          if (!free.tryAcquire(slots, admissionTimeoutMs, TimeUnit.MILLISECONDS)) {
+            return false;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+        break;
+      case DROP_OLDEST:
+        // Очередь общая для нескольких игр потока, поэтому вытесняется самая старая команда потока
+        while (!free.tryAcquire(slots)) {
+          Command dropped = blockingQueue.poll();
+          if (dropped != null) {
+            free.release(slots(dropped));
+            drop(dropped);
+          } else {
+            // Места заняты командами, которые поток очереди уже выполняет
+            Thread.yield();
+          }
+        }
+        break;
+      case REJECT:
+      default:
+        if (!free.tryAcquire(slots)) {
+          return false;
+        }
+    }
+    if (!blockingQueue.offer(command)) {
+      free.release(slots);
+      return false;
+    }
+    return true;
+  }
+
+  // Вытесненная команда не выполнится: её клиент (возможно, другой игры) получает 429,
+  // а id приказа освобождается для повтора
+  private void drop(Command dropped) {
+    droppedCommands.increment();
+    logger.warn(
+        "addCommand, queue is full, dropped command {}", dropped.getClass().getSimpleName());
+    if (dropped instanceof CancellableCommand) {
+      try {
+        ((CancellableCommand) dropped)
+            .cancel(new QueueOverflowException("Command was dropped from a full queue"));
+      } catch (RuntimeException e) {
+        logger.error("addCommand, fail to cancel dropped command: " + dropped, e);
+      }
+    }
   }
 
-  public void addCommand(Command command) {
-    logger.debug("addCommand, add command {} to queue", command.getClass().getSimpleName());
-    blockingQueue.add(command);
-    printQueue();
+  private BlockingQueue<Command> getQueue(String gameId) {
+    return queues.get(getWorkerIndex(gameId));
   }
 
-  private void printQueue() {
+  // Обходит всю очередь - вызывать только при включённом debug
+  private void printQueue(BlockingQueue<Command> blockingQueue) {
     StringBuilder sb = new StringBuilder();
     int i = 0;
     for (Command cmd : blockingQueue) {
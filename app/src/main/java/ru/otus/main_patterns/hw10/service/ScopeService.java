@@ -4,6 +4,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import ru.otus.main_patterns.hw10.command.*;
 import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.game.UObject;
 
 public class ScopeService {
   private static final ConcurrentHashMap<String, Function<Object[], Object>> scopesMap =
@@ -18,15 +19,17 @@ public class ScopeService {
         (Object[] args) -> {
           Order order = (Order) args[0];
           Operation operation = order.getOperationId();
-          return operation.createCommand(order.getOperationArgs());
+          UObject ship = GameStateService.get(order.getGameId()).ship(order.getPlayerId());
+          return operation.createCommand(ship, order.getOperationArgs());
         });
 
     // Регистрируем стратегию создания команды QueueCommand
     scopesMap.putIfAbsent(
         "queue.command",
         (Object[] args) -> {
-          Command command = (Command) args[0];
-          return new QueueCommand(command);
+          String gameId = (String) args[0];
+          Command command = (Command) args[1];
+          return new QueueCommand(gameId, command);
         });
   }
 
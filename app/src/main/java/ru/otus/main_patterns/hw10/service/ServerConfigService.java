@@ -0,0 +1,28 @@
+package ru.otus.main_patterns.hw10.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import ru.otus.main_patterns.hw10.config.ServerConfig;
+
+public class ServerConfigService {
+  private static final ServerConfig SERVER_CONFIG;
+
+  static {
+    Properties props = new Properties();
+    try (InputStream is =
+        ServerConfigService.class.getClassLoader().getResourceAsStream("server.properties")) {
+      if (is == null) {
+        throw new RuntimeException("server.properties not found in resources");
+      }
+      props.load(is);
+      SERVER_CONFIG = new ServerConfig(props);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to load server.properties", e);
+    }
+  }
+
+  public static ServerConfig get() {
+    return SERVER_CONFIG;
+  }
+}
@@ -0,0 +1,190 @@
+package ru.otus.main_patterns.hw10.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.config.ServerConfig;
+import ru.otus.main_patterns.hw10.game.GameSnapshot;
+import ru.otus.main_patterns.hw10.game.GameState;
+import ru.otus.main_patterns.hw10.journal.OrderJournal;
+
+/*
+   Периодические снимки состояния игр рядом с журналом (journal.dir/snapshot.bin).
+   Снимок пишет отдельный поток: игры он не останавливает, каждая игра блокируется только
+   на время копирования своего состояния. Перед записью снимок ждёт, пока учтённые в нём приказы
+   будут сохранены в журнале на диске, а файл заменяется атомарно (через snapshot.bin.tmp),
+   предыдущий снимок остаётся в snapshot.bin.prev на случай повреждения последнего.
+   Сегменты журнала удаляются только до safeSeq предыдущего снимка, поэтому восстановиться
+   можно из любого из двух.
+   При старте (restore) загружается последний целый снимок, а JournalService.open выполняет
+   только приказы журнала после него. Снимок восстанавливается всегда, когда включён журнал:
+   journal.snapshotIntervalMs=0 выключает только запись новых снимков, а не уже записанный снимок,
+   сегменты журнала до которого, возможно, удалены. Жизненным циклом управляет GameServer.
+   Запись снимка ждёт сохранения приказов в журнале не дольше durableTimeoutMs, чтобы остановка
+   сервера не зависла на неисправном журнале.
+*/
+public class SnapshotService {
+  private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+  private static final String SNAPSHOT = "snapshot.bin";
+  private static final long DURABLE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+  private static final SnapshotService INSTANCE = createInstance(ServerConfigService.get());
+
+  private final Path directory;
+  private final OrderJournal journal;
+  private final long intervalMs;
+  private final long durableTimeoutMs;
+  private ScheduledExecutorService executor;
+  // safeSeq последнего записанного (или восстановленного) снимка
+  private long lastSafeSeq;
+
+  public SnapshotService(Path directory, OrderJournal journal, long intervalMs) {
+    this(directory, journal, intervalMs, DURABLE_TIMEOUT_MS);
+  }
+
+  public SnapshotService(
+      Path directory, OrderJournal journal, long intervalMs, long durableTimeoutMs) {
+    this.directory = directory;
+    this.journal = journal;
+    this.intervalMs = intervalMs;
+    this.durableTimeoutMs = durableTimeoutMs;
+  }
+
+  private static SnapshotService createInstance(ServerConfig config) {
+    return new SnapshotService(
+        Paths.get(config.getJournalDir()),
+        JournalService.get(),
+        config.getJournalSnapshotIntervalMs());
+  }
+
+  public static SnapshotService getInstance() {
+    return INSTANCE;
+  }
+
+  // Периодические снимки; без журнала снимок бесполезен: приказы после него не восстановить
+  public boolean isEnabled() {
+    return journal.isEnabled() && intervalMs > 0;
+  }
+
+  // Восстанавливает состояние игр из последнего целого снимка; null - снимка нет
+  public synchronized GameSnapshot restore() {
+    if (!journal.isEnabled()) {
+      return null;
+    }
+    for (Path file : new Path[] {snapshotFile(), previousFile()}) {
+      if (!Files.exists(file)) {
+        continue;
+      }
+      try {
+        GameSnapshot snapshot = GameSnapshot.read(file);
+        GameStateService.restore(snapshot.getGames());
+        lastSafeSeq = snapshot.getSafeSeq();
+        logger.info(
+            "restore, {} games restored from {}, safeSeq: {}",
+            snapshot.getGames().size(),
+            file,
+            snapshot.getSafeSeq());
+        return snapshot;
+      } catch (IOException | RuntimeException e) {
+        logger.warn("restore, snapshot {} is skipped", file, e);
+      }
+    }
+    return null;
+  }
+
+  public synchronized void start() {
+    if (!isEnabled() || executor != null) {
+      return;
+    }
+    executor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "GameSnapshotWriter");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.scheduleWithFixedDelay(
+        this::snapshotQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    logger.info("start, snapshot interval: {} ms", intervalMs);
+  }
+
+  // Вызывается после остановки потоков игр: последний снимок ускорит следующий старт
+  public void stop() throws InterruptedException {
+    ScheduledExecutorService stopped;
+    synchronized (this) {
+      stopped = executor;
+      executor = null;
+    }
+    if (stopped == null) {
+      return;
+    }
+    // Не под монитором: текущий снимок в потоке executor должен успеть завершиться
+    stopped.shutdown();
+    stopped.awaitTermination(1, TimeUnit.MINUTES);
+    snapshotQuietly();
+  }
+
+  // Пишет снимок текущего состояния игр и удаляет ненужные больше сегменты журнала
+  public synchronized GameSnapshot snapshot() throws IOException, InterruptedException {
+    // safeSeq читается до копирования: каждый приказ до него выполнен под монитором своей игры
+    // раньше, чем копия этой игры будет снята под тем же монитором
+    long safeSeq = journal.lastSeq();
+    List<GameState> games = new ArrayList<>();
+    long maxSeq = 0;
+    for (GameState state : GameStateService.getAll()) {
+      GameState copy = state.copy();
+      games.add(copy);
+      maxSeq = Math.max(maxSeq, copy.getLastSeq());
+    }
+    try {
+      journal.whenDurable(maxSeq).get(durableTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw new IOException("Orders of the snapshot are not saved to journal", e.getCause());
+    } catch (TimeoutException e) {
+      throw new IOException(
+          "Orders of the snapshot are not saved to journal in " + durableTimeoutMs + " ms", e);
+    }
+
+    GameSnapshot snapshot = new GameSnapshot(safeSeq, games);
+    Files.createDirectories(directory);
+    Path tmp = directory.resolve(SNAPSHOT + ".tmp");
+    snapshot.write(tmp);
+    if (Files.exists(snapshotFile())) {
+      Files.move(snapshotFile(), previousFile(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    Files.move(tmp, snapshotFile(), StandardCopyOption.ATOMIC_MOVE);
+
+    journal.deleteSegmentsUpTo(lastSafeSeq);
+    lastSafeSeq = safeSeq;
+    logger.debug("snapshot, {} games, safeSeq: {}", games.size(), safeSeq);
+    return snapshot;
+  }
+
+  private void snapshotQuietly() {
+    try {
+      snapshot();
+    } catch (IOException | RuntimeException e) {
+      logger.error("snapshotQuietly, failed to write game snapshot", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Path snapshotFile() {
+    return directory.resolve(SNAPSHOT);
+  }
+
+  private Path previousFile() {
+    return directory.resolve(SNAPSHOT + ".prev");
+  }
+}
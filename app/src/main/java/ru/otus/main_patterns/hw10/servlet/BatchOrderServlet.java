@@ -0,0 +1,106 @@
+package ru.otus.main_patterns.hw10.servlet;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.config.ServerConfig;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.OrderResult;
+import ru.otus.main_patterns.hw10.metrics.StatusCounters;
+import ru.otus.main_patterns.hw10.service.InterpretCommandService;
+import ru.otus.main_patterns.hw10.service.MetricsService;
+import ru.otus.main_patterns.hw10.service.ServerConfigService;
+import ru.otus.main_patterns.hw10.util.OrderDecoder;
+
+/*
+   Пакет приказов одним запросом: JSON-массив приказов или NDJSON (по приказу в строке).
+   JWT проверяется один раз на весь запрос (AuthFilter), каждый приказ проверяется отдельно,
+   а в ответе - результат по каждому приказу в порядке их следования в запросе.
+*/
+public class BatchOrderServlet extends HttpServlet {
+  private static final int SC_PAYLOAD_TOO_LARGE = 413;
+  private final ObjectMapper mapper;
+  private final OrderDecoder orderDecoder;
+  private final InterpretCommandService interpretCommandService;
+  private final ServerConfig serverConfig;
+  private final StatusCounters statusCounters;
+  private static final Logger logger = LoggerFactory.getLogger(BatchOrderServlet.class);
+
+  public BatchOrderServlet() {
+    this.mapper = new ObjectMapper();
+    this.orderDecoder = new OrderDecoder(mapper);
+    this.interpretCommandService = new InterpretCommandService();
+    this.serverConfig = ServerConfigService.get();
+    this.statusCounters = new StatusCounters(MetricsService.get(), "orders.status.");
+  }
+
+  @Override
+  protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    int maxSize = serverConfig.getOrderBatchMaxSize();
+    // Позиции в пакете: разобранный приказ (orders) или ошибка его разбора (results)
+    List<OrderResult> results = new ArrayList<>();
+    List<Order> orders = new ArrayList<>();
+    List<Integer> orderPositions = new ArrayList<>();
+    // Читаются и элементы JSON-массива, и последовательность объектов (NDJSON)
+    try (MappingIterator<Order> iterator = orderDecoder.decodeAll(req.getInputStream())) {
+      while (iterator.hasNextValue()) {
+        if (results.size() == maxSize) {
+          writeError(resp, SC_PAYLOAD_TOO_LARGE, "Batch is limited to " + maxSize + " orders");
+          return;
+        }
+        try {
+          orders.add(iterator.nextValue());
+          orderPositions.add(results.size());
+          results.add(null);
+        } catch (JsonMappingException ex) {
+          // Приказ не соответствует схеме: отклоняем только его, итератор продолжит со следующего
+          results.add(
+              new OrderResult(null, HttpServletResponse.SC_BAD_REQUEST, OrderDecoder.describe(ex)));
+        }
+      }
+    } catch (JsonProcessingException ex) {
+      // Синтаксическая ошибка JSON: границы следующих приказов неизвестны, отклоняем весь пакет
+      writeError(resp, HttpServletResponse.SC_BAD_REQUEST, OrderDecoder.describe(ex));
+      return;
+    }
+
+    List<OrderResult> orderResults = interpretCommandService.processBatch(orders);
+    for (int i = 0; i < orderResults.size(); i++) {
+      results.set(orderPositions.get(i), orderResults.get(i));
+    }
+    for (OrderResult result : results) {
+      statusCounters.increment(result.getStatus());
+    }
+
+    // Prepare response
+    resp.setStatus(HttpServletResponse.SC_OK);
+    resp.setContentType("application/json");
+    resp.setCharacterEncoding("UTF-8");
+    Map<String, Object> responseMap = new LinkedHashMap<>();
+    responseMap.put("results", results);
+    mapper.writeValue(resp.getOutputStream(), responseMap);
+    logger.debug("doPost, processed batch of {} orders", results.size());
+  }
+
+  private void writeError(HttpServletResponse resp, int status, String message) throws IOException {
+    resp.setStatus(status);
+    resp.setContentType("application/json");
+    resp.setCharacterEncoding("UTF-8");
+    Map<String, Object> errorResponse = new LinkedHashMap<>();
+    errorResponse.put("message", message);
+    String jsonError = mapper.writeValueAsString(errorResponse);
+    resp.getWriter().write(jsonError);
+    logger.warn("doPost, Error: {}", jsonError);
+  }
+}
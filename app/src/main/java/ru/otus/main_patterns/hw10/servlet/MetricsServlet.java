@@ -0,0 +1,26 @@
+package ru.otus.main_patterns.hw10.servlet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import ru.otus.main_patterns.hw10.metrics.MetricsRegistry;
+import ru.otus.main_patterns.hw10.service.MetricsService;
+
+/*
+   Текущие метрики сервера в JSON: счётчики (приказы по статусу ответа, отклонённые очередью
+   команды), глубина очередей и время выполнения команд потоками игр по классу команды (нс).
+*/
+public class MetricsServlet extends HttpServlet {
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final MetricsRegistry metrics = MetricsService.get();
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    resp.setStatus(HttpServletResponse.SC_OK);
+    resp.setContentType("application/json");
+    resp.setCharacterEncoding("UTF-8");
+    mapper.writeValue(resp.getOutputStream(), metrics.snapshot());
+  }
+}
@@ -0,0 +1,9 @@
+package ru.otus.main_patterns.hw10.servlet;
+
+/** Когда OrderServlet отвечает клиенту на приказ. */
+public enum OrderAck {
+  /** Как только команда поставлена в очередь игры. */
+  ENQUEUED,
+  /** Только после того, как команда выполнена потоком игры. */
+  EXECUTED;
+}
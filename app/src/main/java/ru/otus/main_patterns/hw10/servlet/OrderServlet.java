@@ -1,56 +1,359 @@
 package ru.otus.main_patterns.hw10.servlet;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.command.Command;
+import ru.otus.main_patterns.hw10.config.ServerConfig;
 import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.OrderResult;
+import ru.otus.main_patterns.hw10.exception.InvalidOrderException;
+import ru.otus.main_patterns.hw10.exception.OrderConflictException;
+import ru.otus.main_patterns.hw10.exception.QueueOverflowException;
+import ru.otus.main_patterns.hw10.journal.OrderJournal;
+import ru.otus.main_patterns.hw10.metrics.StatusCounters;
 import ru.otus.main_patterns.hw10.service.InterpretCommandService;
+import ru.otus.main_patterns.hw10.service.JournalService;
+import ru.otus.main_patterns.hw10.service.MetricsService;
+import ru.otus.main_patterns.hw10.service.OrderDedupService;
+import ru.otus.main_patterns.hw10.service.ServerConfigService;
+import ru.otus.main_patterns.hw10.util.OrderDecoder;
+import ru.otus.main_patterns.hw10.util.OrderDedupWindow;
+import ru.otus.main_patterns.hw10.util.OrderResponseWriter;
 
+/*
+   Приказ обрабатывается асинхронно (Servlet 3.1): поток Jetty не ждёт ни медленного клиента, ни очереди.
+   Тело запроса читается неблокирующим ReadListener, после чего приказ проверяется и ставится в очередь игры.
+   Ответ отправляется, когда команда поставлена в очередь (order.ack=ENQUEUED)
+   или когда поток игры её выполнил (order.ack=EXECUTED). Такой ответ пишет поток контейнера
+   (AsyncContext.start): медленный клиент не должен задерживать поток игры или fsync журнала.
+   Если ответ не готов за order.timeoutMs, клиент получает 503.
+   Повтор приказа с тем же id не ставится в очередь снова и получает результат исходного приказа
+   (OrderDedupWindow), поэтому клиент может смело повторять приказ после таймаута; пока исходный
+   приказ обрабатывается, повтор получает 409, а другой приказ с занятым id - 422.
+   Если включён журнал (journal.enabled), 201 отправляется только после того, как поток игры
+   сохранит приказ на диск.
+*/
 public class OrderServlet extends HttpServlet {
+  private static final int SC_TOO_MANY_REQUESTS = 429;
+  private static final int SC_UNPROCESSABLE_ENTITY = 422;
   private final ObjectMapper mapper;
+  private final OrderDecoder orderDecoder;
+  private final OrderResponseWriter responseWriter;
   private final InterpretCommandService interpretCommandService;
+  private final OrderDedupWindow dedupWindow;
+  private final OrderJournal journal;
+  private final ServerConfig serverConfig;
+  private final StatusCounters statusCounters;
+  private final LongAdder createdOrders;
   private static final Logger logger = LoggerFactory.getLogger(OrderServlet.class);
 
   public OrderServlet() {
     this.mapper = new ObjectMapper();
+    this.orderDecoder = new OrderDecoder(mapper);
+    this.responseWriter = new OrderResponseWriter();
     this.interpretCommandService = new InterpretCommandService();
+    this.dedupWindow = OrderDedupService.get();
+    this.journal = JournalService.get();
+    this.serverConfig = ServerConfigService.get();
+    this.statusCounters = new StatusCounters(MetricsService.get(), "orders.status.");
+    this.createdOrders = statusCounters.get(HttpServletResponse.SC_CREATED);
   }
 
   @Override
   protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-    // Execute command
-    Order order = mapper.readValue(req.getReader(), Order.class);
-    if (order.getId() == null || order.getId().isEmpty()) {
+    AsyncContext asyncContext = req.startAsync();
+    asyncContext.setTimeout(serverConfig.getOrderTimeoutMs());
+    OrderExchange exchange = new OrderExchange(asyncContext, resp);
+    asyncContext.addListener(exchange);
+
+    ServletInputStream input = req.getInputStream();
+    input.setReadListener(new OrderReadListener(input, exchange));
+  }
+
+  // Вызывается, когда тело запроса прочитано полностью
+  private void processOrder(byte[] body, OrderExchange exchange) {
+    Order order;
+    try {
+      order = orderDecoder.decode(body);
+    } catch (Exception ex) {
+      writeFailure(exchange, ex);
+      return;
+    }
+    // Повтор возможен только для приказа с id клиента: сгенерированный id уникален
+    boolean deduplicated = order.getId() != null && !order.getId().isEmpty();
+    if (!deduplicated) {
       order.setId(UUID.randomUUID().toString());
     }
+
+    // Как и в пакете приказов, id резервируется только после проверки приказа
+    CompletableFuture<Void> executed =
+        serverConfig.getOrderAck() == OrderAck.EXECUTED ? new CompletableFuture<>() : null;
+    CompletableFuture<Void> durable = journal.isEnabled() ? new CompletableFuture<>() : null;
+    Command command;
     try {
-      interpretCommandService.processMessage(order);
-      // Prepare response
-      resp.setStatus(HttpServletResponse.SC_CREATED);
-      resp.setContentType("application/json");
-      resp.setCharacterEncoding("UTF-8");
-      Map<String, Object> responseMap = new LinkedHashMap<>();
-      responseMap.put("orderId", order.getId());
-      responseMap.put("message", "Operation '" + order.getOperationId() + "' successfully created");
-      String jsonResponse = mapper.writeValueAsString(responseMap);
-      resp.getWriter().write(jsonResponse);
-      logger.debug("doPost, successfully created message: {}", jsonResponse);
-    } catch (SecurityException ex) {
-      resp.setStatus(HttpServletResponse.SC_FORBIDDEN);
-      resp.setContentType("application/json");
-      resp.setCharacterEncoding("UTF-8");
-      Map<String, Object> errorResponse = new LinkedHashMap<>();
-      errorResponse.put("message", ex.getMessage());
-      String jsonError = mapper.writeValueAsString(errorResponse);
-      resp.getWriter().write(jsonError);
-      logger.warn("doPost, Error: {}", jsonError);
+      command = interpretCommandService.interpret(order, executed, durable);
+      if (deduplicated) {
+        CompletableFuture<OrderResult> original =
+            dedupWindow.reserve(order.getGameId(), order.getId(), order.payload());
+        if (original != null) {
+          // Приказ с этим id уже принят: отвечаем его результатом (409, если ещё обрабатывается)
+          writeResult(exchange, order, OrderDedupWindow.duplicateResult(order.getId(), original));
+          return;
+        }
+      }
+    } catch (Exception ex) {
+      writeFailure(exchange, ex);
+      return;
+    }
+
+    try {
+      // Execute command: отвечаем после постановки в очередь, а если нужно - ещё и после
+      // выполнения (order.ack=EXECUTED) и сохранения приказа в журнале (journal.enabled)
+      interpretCommandService.enqueue(order, command);
+      CompletableFuture<Void> completion = allOrFirstFailure(executed, durable);
+      if (completion == null) {
+        accepted(exchange, order, deduplicated, Runnable::run);
+        return;
+      }
+      // Future завершает поток игры или журнала: ответ пишет поток контейнера, а не они
+      completion.whenComplete(
+          (ignored, ex) -> {
+            if (ex == null) {
+              accepted(exchange, order, deduplicated, exchange::dispatch);
+            } else {
+              rejected(exchange, order, deduplicated, unwrap(ex), exchange::dispatch);
+            }
+          });
+    } catch (Exception ex) {
+      rejected(exchange, order, deduplicated, ex, Runnable::run);
+    }
+  }
+
+  // Резерв id обновляется сразу, а ответ пишется через writer
+  private void accepted(
+      OrderExchange exchange, Order order, boolean deduplicated, Executor writer) {
+    if (deduplicated) {
+      dedupWindow.complete(
+          order.getGameId(),
+          order.getId(),
+          OrderResult.created(order.getId(), order.getOperationId()));
+    }
+    writer.execute(() -> writeCreated(exchange, order));
+  }
+
+  private void rejected(
+      OrderExchange exchange, Order order, boolean deduplicated, Throwable ex, Executor writer) {
+    if (deduplicated) {
+      dedupWindow.release(order.getGameId(), order.getId(), ex);
+    }
+    writer.execute(() -> writeFailure(exchange, ex));
+  }
+
+  private void writeCreated(OrderExchange exchange, Order order) {
+    // Prepare response: заранее закодированный шаблон ответа операции, без Map и ObjectMapper
+    boolean written =
+        exchange.respond(
+            HttpServletResponse.SC_CREATED,
+            response -> {
+              OrderResponseWriter.Body body =
+                  responseWriter.encodeCreated(order.getId(), order.getOperationId());
+              response.setContentLength(body.length());
+              body.writeTo(response.getOutputStream());
+            });
+    if (written) {
+      createdOrders.increment();
+      logger.debug(
+          "doPost, successfully created order '{}' ({})", order.getId(), order.getOperationId());
+    }
+  }
+
+  // Результат исходного приказа для его повтора. У повтора тот же id и та же операция
+  // (иначе reserve отклонил бы его), поэтому ответ 201 совпадает с ответом исходному приказу
+  private void writeResult(OrderExchange exchange, Order order, OrderResult result) {
+    if (result.getStatus() != HttpServletResponse.SC_CREATED) {
+      writeError(exchange, result.getStatus(), result.getMessage());
+      return;
+    }
+    logger.debug("doPost, duplicate of order '{}'", order.getId());
+    writeCreated(exchange, order);
+  }
+
+  private void writeFailure(OrderExchange exchange, Throwable ex) {
+    if (ex instanceof InvalidOrderException) {
+      // Приказ не прошёл проверку схемы и в очередь не попал
+      writeError(exchange, HttpServletResponse.SC_BAD_REQUEST, ex.getMessage());
+    } else if (ex instanceof OrderConflictException) {
+      // id клиента уже занят другим приказом
+      writeError(exchange, SC_UNPROCESSABLE_ENTITY, ex.getMessage());
+    } else if (ex instanceof SecurityException) {
+      writeError(exchange, HttpServletResponse.SC_FORBIDDEN, ex.getMessage());
+    } else if (ex instanceof QueueOverflowException) {
+      // Очередь игры заполнена: приказ не принят, клиенту стоит повторить его позже
+      exchange.response.setHeader(
+          "Retry-After", String.valueOf(serverConfig.getRetryAfterSeconds()));
+      writeError(exchange, SC_TOO_MANY_REQUESTS, ex.getMessage());
+    } else {
+      logger.error("doPost, fail processing order", ex);
+      writeError(
+          exchange, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, OrderResult.INTERNAL_ERROR);
+    }
+  }
+
+  private void writeError(OrderExchange exchange, int status, String message) {
+    Map<String, Object> errorResponse = new LinkedHashMap<>();
+    errorResponse.put("message", message);
+    if (exchange.respond(
+        status, response -> response.getWriter().write(mapper.writeValueAsString(errorResponse)))) {
+      statusCounters.increment(status);
+      logger.warn("doPost, Error: {}", errorResponse);
+    }
+  }
+
+  // Завершится, когда завершатся оба (null не ждём), или сразу при первой ошибке
+  private static CompletableFuture<Void> allOrFirstFailure(
+      CompletableFuture<Void> first, CompletableFuture<Void> second) {
+    if (first == null || second == null) {
+      return first == null ? second : first;
     }
+    CompletableFuture<Void> completion = new CompletableFuture<>();
+    CompletableFuture.allOf(first, second).thenRun(() -> completion.complete(null));
+    first.exceptionally(ex -> failWith(completion, ex));
+    second.exceptionally(ex -> failWith(completion, ex));
+    return completion;
+  }
+
+  private static Void failWith(CompletableFuture<Void> completion, Throwable ex) {
+    completion.completeExceptionally(ex);
+    return null;
+  }
+
+  private static Throwable unwrap(Throwable ex) {
+    return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+  }
+
+  // Накапливает тело запроса по мере поступления данных, не блокируя поток Jetty
+  private class OrderReadListener implements ReadListener {
+    private final ServletInputStream input;
+    private final OrderExchange exchange;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+    private final byte[] buffer = new byte[1024];
+
+    OrderReadListener(ServletInputStream input, OrderExchange exchange) {
+      this.input = input;
+      this.exchange = exchange;
+    }
+
+    @Override
+    public void onDataAvailable() throws IOException {
+      int length;
+      while (input.isReady() && (length = input.read(buffer)) != -1) {
+        body.write(buffer, 0, length);
+      }
+    }
+
+    @Override
+    public void onAllDataRead() {
+      processOrder(body.toByteArray(), exchange);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      writeFailure(exchange, t);
+    }
+  }
+
+  // Запись тела ответа; вызывается только тем, кто отвечает на приказ
+  private interface ResponseBody {
+    void writeTo(HttpServletResponse response) throws IOException;
+  }
+
+  /*
+     Ответ на один приказ. Ответить может поток Jetty, поток игры (order.ack=EXECUTED) или таймаут,
+     поэтому отвечает только тот, кто первым успел выставить responded.
+  */
+  private class OrderExchange implements AsyncListener {
+    private final AsyncContext asyncContext;
+    private final HttpServletResponse response;
+    private final AtomicBoolean responded = new AtomicBoolean();
+
+    OrderExchange(AsyncContext asyncContext, HttpServletResponse response) {
+      this.asyncContext = asyncContext;
+      this.response = response;
+    }
+
+    boolean respond(int status, ResponseBody body) {
+      if (!responded.compareAndSet(false, true)) {
+        return false;
+      }
+      try {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        body.writeTo(response);
+      } catch (IOException | IllegalStateException e) {
+        logger.warn("doPost, fail writing response", e);
+      } finally {
+        asyncContext.complete();
+      }
+      return true;
+    }
+
+    // Запись ответа в потоке контейнера; если ответ уже отправлен (таймаут), писать нечего
+    void dispatch(Runnable write) {
+      if (responded.get()) {
+        return;
+      }
+      try {
+        asyncContext.start(write);
+      } catch (IllegalStateException e) {
+        logger.debug("doPost, request is already completed", e);
+      }
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      writeError(
+          this,
+          HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+          "Order was not processed in " + serverConfig.getOrderTimeoutMs() + " ms");
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      logger.warn("doPost, async error", event.getThrowable());
+      // Ответить уже нельзя, но запрос нужно завершить, иначе он останется в контейнере
+      if (responded.compareAndSet(false, true)) {
+        try {
+          asyncContext.complete();
+        } catch (IllegalStateException e) {
+          logger.debug("doPost, request is already completed", e);
+        }
+      }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {}
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {}
   }
 }
@@ -0,0 +1,58 @@
+package ru.otus.main_patterns.hw10.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.function.LongSupplier;
+
+/*
+   Кэш уже проверенных JWT: токен -> exp (секунды). Повторный запрос с тем же токеном не пересчитывает
+   HMAC и не разбирает payload. Запись живёт до exp токена: срок проверяется при чтении, истекший
+   токен удаляется и снова проверяется полностью (и получает EXPIRED).
+   Ключ - сам токен, а не его хэш: совпадение хэшей не должно пропускать чужой токен.
+   Размер ограничен maxSize (Guava Cache): кэш разбит на сегменты, чтение не берёт блокировку,
+   при заполнении сегмента вытесняется токен, к которому в нём дольше всех не обращались.
+   Вытеснение приближённое (LRU внутри сегмента), зато запросы разных потоков не ждут друг друга.
+*/
+public class JwtCache {
+  private final Cache<String, Long> expirations;
+  private final int maxSize;
+  private final LongSupplier clockSeconds;
+
+  public JwtCache(int maxSize) {
+    this(maxSize, () -> System.currentTimeMillis() / 1000);
+  }
+
+  JwtCache(int maxSize, LongSupplier clockSeconds) {
+    this.maxSize = maxSize;
+    this.clockSeconds = clockSeconds;
+    this.expirations = CacheBuilder.newBuilder().maximumSize(Math.max(maxSize, 0)).build();
+  }
+
+  // true, если токен уже был проверен и ещё не истёк
+  public boolean isValid(String token) {
+    if (maxSize <= 0) {
+      return false;
+    }
+    Long expSec = expirations.getIfPresent(token);
+    if (expSec == null) {
+      return false;
+    }
+    if (expSec < clockSeconds.getAsLong()) {
+      expirations.invalidate(token);
+      return false;
+    }
+    return true;
+  }
+
+  // Запоминаем проверенный токен до его exp
+  public void put(String token, long expSec) {
+    if (maxSize <= 0 || expSec < clockSeconds.getAsLong()) {
+      return;
+    }
+    expirations.put(token, expSec);
+  }
+
+  public int size() {
+    return (int) expirations.size();
+  }
+}
@@ -0,0 +1,219 @@
+package ru.otus.main_patterns.hw10.util;
+
+import static ru.otus.main_patterns.hw10.util.JwtStatus.*;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.function.ObjLongConsumer;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/*
+   Проверка JWT (HS256) без лишних аллокаций:
+   - Mac создаётся и инициализируется ключом один раз на поток (ThreadLocal), а не на каждый токен;
+   - токен делится по '.' через indexOf, без regex и String.split;
+   - подпись декодируется из Base64Url в байты декодером JDK и сравнивается с вычисленной за
+     постоянное время; неканоничная запись подписи (ненулевые лишние биты последнего символа,
+     которые декодер JDK отбрасывает) отклоняется - у токена ровно одна верная подпись;
+   - exp/sub читаются потоковым парсером Jackson прямо из Base64Url-декодера (Decoder.wrap),
+     без промежуточного массива и построения дерева JSON.
+   Буферы тоже свои у каждого потока, поэтому один экземпляр можно использовать из разных потоков.
+*/
+public class JwtCodec {
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int SIGNATURE_LENGTH = 32;
+  // 32 байта в Base64Url без padding - 43 символа, из 258 бит последние 2 должны быть нулями
+  private static final int ENCODED_SIGNATURE_LENGTH = 43;
+  private static final String CANONICAL_LAST_CHARS = "AEIMQUYcgkosw048";
+  private static final Base64.Decoder BASE64_URL = Base64.getUrlDecoder();
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+  private final ThreadLocal<Scratch> scratch;
+
+  public JwtCodec(byte[] secret) {
+    SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+    this.scratch = ThreadLocal.withInitial(() -> new Scratch(key));
+  }
+
+  public JwtStatus verify(String token, long nowSec) {
+    return verify(token, nowSec, null);
+  }
+
+  // То же, но для валидного токена ещё отдаёт его exp в onValid - payload второй раз не разбирается
+  public JwtStatus verify(String token, long nowSec, ObjLongConsumer<String> onValid) {
+    if (token == null) {
+      return INVALID_FORMAT;
+    }
+    int firstDot = token.indexOf('.');
+    int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+    if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+      return INVALID_FORMAT;
+    }
+    Scratch s = scratch.get();
+
+    // Вычисляем подпись заново: HMAC(header.payload)
+    byte[] signingInput = s.buffer(secondDot);
+    if (!toAscii(token, 0, secondDot, signingInput)) {
+      return INVALID_FORMAT;
+    }
+    try {
+      s.mac.update(signingInput, 0, secondDot);
+      s.mac.doFinal(s.expectedSignature, 0);
+    } catch (GeneralSecurityException e) {
+      return INVALID_FORMAT;
+    }
+    if (!decodeSignature(token, secondDot + 1, s)
+        || !constantTimeEquals(s.expectedSignature, s.actualSignature)) {
+      return INVALID_SIGNATURE;
+    }
+
+    // Проверяем срок действия
+    long expSec = readLongClaim(token, firstDot, secondDot, "exp", s);
+    if (expSec == Long.MIN_VALUE) {
+      return INVALID_FORMAT;
+    }
+    if (expSec < nowSec) {
+      return EXPIRED;
+    }
+    if (onValid != null) {
+      onValid.accept(token, expSec);
+    }
+    return VALID;
+  }
+
+  // exp из payload без проверки подписи; Long.MIN_VALUE, если прочитать не удалось
+  public long readExpiration(String token) {
+    int firstDot = token == null ? -1 : token.indexOf('.');
+    int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+    if (secondDot < 0) {
+      return Long.MIN_VALUE;
+    }
+    return readLongClaim(token, firstDot, secondDot, "exp", scratch.get());
+  }
+
+  // sub из payload без проверки подписи; null, если прочитать не удалось
+  public String readSubject(String token) {
+    int firstDot = token == null ? -1 : token.indexOf('.');
+    int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+    if (secondDot < 0) {
+      return null;
+    }
+    try (JsonParser parser = payloadParser(token, firstDot, secondDot, scratch.get())) {
+      if (parser != null
+          && moveToClaim(parser, "sub")
+          && parser.currentToken() == JsonToken.VALUE_STRING) {
+        return parser.getText();
+      }
+      return null;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  private long readLongClaim(String token, int firstDot, int secondDot, String name, Scratch s) {
+    try (JsonParser parser = payloadParser(token, firstDot, secondDot, s)) {
+      if (parser != null
+          && moveToClaim(parser, name)
+          && parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+        return parser.getLongValue();
+      }
+      return Long.MIN_VALUE;
+    } catch (Exception e) {
+      return Long.MIN_VALUE;
+    }
+  }
+
+  // Ставит парсер на значение поля верхнего уровня name
+  private static boolean moveToClaim(JsonParser parser, String name) throws Exception {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return false;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      if (name.equals(field)) {
+        return true;
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  // Парсер payload, читающий его через Base64Url-декодер; null, если в payload не ASCII
+  private JsonParser payloadParser(String token, int firstDot, int secondDot, Scratch s)
+      throws IOException {
+    int length = secondDot - firstDot - 1;
+    byte[] payload = s.buffer(length);
+    if (!toAscii(token, firstDot + 1, secondDot, payload)) {
+      return null;
+    }
+    return jsonFactory.createParser(BASE64_URL.wrap(new ByteArrayInputStream(payload, 0, length)));
+  }
+
+  // Подпись в s.actualSignature; false, если она не 32 байта или записана неканонично
+  private static boolean decodeSignature(String token, int from, Scratch s) {
+    if (token.length() - from != ENCODED_SIGNATURE_LENGTH
+        || CANONICAL_LAST_CHARS.indexOf(token.charAt(token.length() - 1)) < 0
+        || !toAscii(token, from, token.length(), s.encodedSignature)) {
+      return false;
+    }
+    try {
+      return BASE64_URL.decode(s.encodedSignature, s.actualSignature) == SIGNATURE_LENGTH;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static boolean toAscii(String s, int from, int to, byte[] out) {
+    for (int i = from; i < to; i++) {
+      char c = s.charAt(i);
+      if (c > 0x7F) {
+        return false;
+      }
+      out[i - from] = (byte) c;
+    }
+    return true;
+  }
+
+  // Время сравнения не зависит от того, в каком байте подписи расхождение
+  static boolean constantTimeEquals(byte[] expected, byte[] actual) {
+    if (expected.length != actual.length) {
+      return false;
+    }
+    int diff = 0;
+    for (int i = 0; i < expected.length; i++) {
+      diff |= expected[i] ^ actual[i];
+    }
+    return diff == 0;
+  }
+
+  // Mac и буферы одного потока
+  private static final class Scratch {
+    private final Mac mac;
+    private final byte[] expectedSignature = new byte[SIGNATURE_LENGTH];
+    private final byte[] actualSignature = new byte[SIGNATURE_LENGTH];
+    private final byte[] encodedSignature = new byte[ENCODED_SIGNATURE_LENGTH];
+    private byte[] signingInput = new byte[512];
+
+    Scratch(SecretKeySpec key) {
+      try {
+        mac = Mac.getInstance(ALGORITHM);
+        mac.init(key);
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("HmacSHA256 is not available", e);
+      }
+    }
+
+    byte[] buffer(int length) {
+      if (signingInput.length < length) {
+        signingInput = new byte[Math.max(length, signingInput.length * 2)];
+      }
+      return signingInput;
+    }
+  }
+}
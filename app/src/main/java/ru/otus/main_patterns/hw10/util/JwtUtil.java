@@ -1,23 +1,17 @@
 package ru.otus.main_patterns.hw10.util;
 
-import static ru.otus.main_patterns.hw10.util.JwtStatus.*;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.Properties;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 
 public class JwtUtil {
-  private static final ObjectMapper mapper = new ObjectMapper();
   private static final String SECRET;
+  private static final JwtCodec CODEC;
 
   static {
     SECRET = loadSecret();
+    CODEC = new JwtCodec(SECRET.getBytes(StandardCharsets.UTF_8));
   }
 
   private static String loadSecret() {
@@ -38,37 +32,11 @@ public class JwtUtil {
   }
 
   public static JwtStatus validate(String token) {
-    try {
-      String[] parts = token.split("\\.");
-      if (parts.length != 3) {
-        return INVALID_FORMAT;
-      }
-      String base64Header = parts[0];
-      String base64Payload = parts[1];
-      String actualSignature = parts[2];
-      // Вычисляем подпись заново
-      String expectedSignature = hmacSha256(base64Header + "." + base64Payload);
-      if (!expectedSignature.equals(actualSignature)) {
-        return INVALID_SIGNATURE;
-      }
-      // Проверяем срок действия
-      byte[] payloadBytes = Base64.getUrlDecoder().decode(base64Payload);
-      ObjectNode payloadNode = (ObjectNode) mapper.readTree(payloadBytes);
-      long expSec = payloadNode.get("exp").asLong();
-      if (expSec < System.currentTimeMillis() / 1000) {
-        return EXPIRED;
-      }
-      return VALID;
-    } catch (Exception e) {
-      return INVALID_FORMAT;
-    }
+    return CODEC.verify(token, System.currentTimeMillis() / 1000);
   }
 
-  // HMAC-SHA256 + Base64Url
-  private static String hmacSha256(String data) throws Exception {
-    Mac mac = Mac.getInstance("HmacSHA256");
-    mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
-    byte[] hmac = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-    return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac);
+  // Проверяет токен и, если он валиден, кладёт его в кэш до exp (exp читается при той же проверке)
+  public static JwtStatus validate(String token, JwtCache cache) {
+    return CODEC.verify(token, System.currentTimeMillis() / 1000, cache::put);
   }
 }
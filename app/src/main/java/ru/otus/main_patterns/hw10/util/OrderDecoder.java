@@ -0,0 +1,66 @@
+package ru.otus.main_patterns.hw10.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.exception.InvalidOrderException;
+
+/*
+   Чтение приказов из байтов запроса. ObjectReader для Order создаётся один раз (десериализаторы
+   уже найдены и закэшированы) и потокобезопасен, поэтому один экземпляр используется всеми запросами.
+   Читаем байты (UTF-8) напрямую, без Reader и декодирования в символы.
+   Аргументы разбираются строго: null вместо числа и дробное число вместо целого - ошибка.
+*/
+public class OrderDecoder {
+  private final ObjectReader orderReader;
+
+  public OrderDecoder() {
+    this(new ObjectMapper());
+  }
+
+  public OrderDecoder(ObjectMapper mapper) {
+    this.orderReader =
+        mapper
+            .readerFor(Order.class)
+            .with(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES)
+            .without(DeserializationFeature.ACCEPT_FLOAT_AS_INT);
+  }
+
+  public Order decode(byte[] body) throws IOException {
+    try {
+      return orderReader.readValue(body);
+    } catch (JsonProcessingException e) {
+      throw new InvalidOrderException(describe(e), e);
+    }
+  }
+
+  public Order decode(InputStream body) throws IOException {
+    try {
+      return orderReader.readValue(body);
+    } catch (JsonProcessingException e) {
+      throw new InvalidOrderException(describe(e), e);
+    }
+  }
+
+  // Приказы из JSON-массива или из последовательности объектов (NDJSON)
+  public MappingIterator<Order> decodeAll(InputStream body) throws IOException {
+    return orderReader.readValues(body);
+  }
+
+  // Сообщение об ошибке разбора для клиента: причина из конструктора аргументов или ошибка Jackson
+  public static String describe(JsonProcessingException e) {
+    Throwable cause = e.getCause();
+    String message =
+        cause instanceof IllegalArgumentException ? cause.getMessage() : e.getOriginalMessage();
+    if (e instanceof JsonMappingException && !((JsonMappingException) e).getPath().isEmpty()) {
+      return "Invalid order at " + ((JsonMappingException) e).getPathReference() + ": " + message;
+    }
+    return "Invalid order: " + message;
+  }
+}
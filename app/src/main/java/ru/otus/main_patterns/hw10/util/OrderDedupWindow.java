@@ -0,0 +1,162 @@
+package ru.otus.main_patterns.hw10.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import javax.servlet.http.HttpServletResponse;
+import ru.otus.main_patterns.hw10.dto.OrderResult;
+import ru.otus.main_patterns.hw10.exception.OrderConflictException;
+
+/*
+   Окно дедупликации приказов по id, своё у каждой игры. Клиент, не дождавшийся ответа, повторяет
+   приказ с тем же id - повтор не ставит команду в очередь ещё раз, а получает результат исходного
+   приказа (409, если исходный ещё обрабатывается).
+   - reserve резервирует id до постановки в очередь; null - id новый, приказ обрабатывает вызывающий.
+     Вместе с id запоминается содержимое приказа (payload): id, повторно использованный для другого
+     приказа, - ошибка клиента (OrderConflictException), а не повтор;
+   - complete запоминает результат принятого приказа;
+   - release снимает резерв, если приказ не принят (403, 429, ...) - повтор обработается заново.
+   Окно игры - LinkedHashMap в порядке добавления: записи старше ttlMs удаляются с головы,
+   а при переполнении maxSize вытесняется самая старая запись.
+   Окно игры создаётся и удаляется внутри ConcurrentHashMap.compute, поэтому пустое окно можно
+   удалить без гонки с параллельным reserve; содержимое окна меняется под его монитором.
+*/
+public class OrderDedupWindow {
+  private final Map<String, GameWindow> windows = new ConcurrentHashMap<>();
+  private final int maxSize;
+  private final long ttlMs;
+  private final LongSupplier clockMs;
+
+  public OrderDedupWindow(int maxSize, long ttlMs) {
+    this(maxSize, ttlMs, System::currentTimeMillis);
+  }
+
+  OrderDedupWindow(int maxSize, long ttlMs, LongSupplier clockMs) {
+    this.maxSize = maxSize;
+    this.ttlMs = ttlMs;
+    this.clockMs = clockMs;
+  }
+
+  public boolean isEnabled() {
+    return maxSize > 0 && ttlMs > 0;
+  }
+
+  // null - id зарезервирован вызывающим; иначе - результат исходного приказа с этим id
+  public CompletableFuture<OrderResult> reserve(String gameId, String orderId, Object payload) {
+    if (!isEnabled()) {
+      return null;
+    }
+    long now = clockMs.getAsLong();
+    Entry reservation = new Entry(now, payload);
+    Entry[] existing = new Entry[1];
+    windows.compute(
+        gameId,
+        (id, window) -> {
+          if (window == null) {
+            window = new GameWindow(maxSize);
+          }
+          synchronized (window) {
+            window.evictExpired(now - ttlMs);
+            existing[0] = window.putIfAbsent(orderId, reservation);
+          }
+          return window;
+        });
+    if (existing[0] == null) {
+      return null;
+    }
+    if (!Objects.equals(existing[0].payload, payload)) {
+      throw new OrderConflictException(
+          "Order id '" + orderId + "' is already used by another order");
+    }
+    return existing[0].result;
+  }
+
+  // Ответ на повтор: результат исходного приказа или 409, пока исходный обрабатывается
+  public static OrderResult duplicateResult(
+      String orderId, CompletableFuture<OrderResult> original) {
+    if (original.isDone() && !original.isCompletedExceptionally()) {
+      return original.join();
+    }
+    return new OrderResult(
+        orderId,
+        HttpServletResponse.SC_CONFLICT,
+        "Order '" + orderId + "' is already being processed");
+  }
+
+  // Приказ принят: повторы получат этот результат
+  public void complete(String gameId, String orderId, OrderResult result) {
+    GameWindow window = windows.get(gameId);
+    if (window == null) {
+      return;
+    }
+    Entry entry;
+    synchronized (window) {
+      entry = window.get(orderId);
+    }
+    if (entry != null) {
+      entry.result.complete(result);
+    }
+  }
+
+  // Приказ не принят: резерв снимается, ожидающие повторы получат ту же ошибку
+  public void release(String gameId, String orderId, Throwable failure) {
+    Entry[] removed = new Entry[1];
+    windows.computeIfPresent(
+        gameId,
+        (id, window) -> {
+          synchronized (window) {
+            removed[0] = window.remove(orderId);
+            return window.isEmpty() ? null : window;
+          }
+        });
+    if (removed[0] != null) {
+      removed[0].result.completeExceptionally(failure);
+    }
+  }
+
+  public int size(String gameId) {
+    GameWindow window = windows.get(gameId);
+    if (window == null) {
+      return 0;
+    }
+    synchronized (window) {
+      return window.size();
+    }
+  }
+
+  private static final class Entry {
+    private final long createdAtMs;
+    private final Object payload;
+    private final CompletableFuture<OrderResult> result = new CompletableFuture<>();
+
+    Entry(long createdAtMs, Object payload) {
+      this.createdAtMs = createdAtMs;
+      this.payload = payload;
+    }
+  }
+
+  // Окно одной игры; доступ только под его монитором
+  private static final class GameWindow extends LinkedHashMap<String, Entry> {
+    private final int maxSize;
+
+    GameWindow(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    void evictExpired(long createdBeforeMs) {
+      Iterator<Entry> iterator = values().iterator();
+      while (iterator.hasNext() && iterator.next().createdAtMs <= createdBeforeMs) {
+        iterator.remove();
+      }
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      return size() > maxSize;
+    }
+  }
+}
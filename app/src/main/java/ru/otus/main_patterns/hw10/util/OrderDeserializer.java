@@ -0,0 +1,118 @@
+package ru.otus.main_patterns.hw10.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.args.OperationArgs;
+
+/*
+   Потоковый разбор приказа: поля читаются прямо из JsonParser, а operationArgs сразу разбирается
+   в тип аргументов операции (Operation.getArgsType), без промежуточной Map<String, Object>.
+   Если operationArgs в JSON стоит раньше operationId, его токены буферизуются (TokenBuffer)
+   и разбираются, когда операция станет известна.
+   Схема проверяется здесь же: gameId, playerId, operationId и operationArgs обязательны,
+   строковые поля не могут быть объектом или массивом, а аргументы проверяет конструктор своего
+   типа - невалидный приказ не доходит до очереди.
+*/
+public class OrderDeserializer extends StdDeserializer<Order> {
+
+  public OrderDeserializer() {
+    super(Order.class);
+  }
+
+  @Override
+  public Order deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    }
+    Order order = new Order();
+    TokenBuffer bufferedArgs = null;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String field = p.currentName();
+      p.nextToken();
+      switch (field) {
+        case "id":
+          order.setId(readString(p, ctxt, field));
+          break;
+        case "gameId":
+          order.setGameId(readString(p, ctxt, field));
+          break;
+        case "playerId":
+          order.setPlayerId(readString(p, ctxt, field));
+          break;
+        case "operationId":
+          order.setOperationId(readOperation(p, ctxt));
+          break;
+        case "operationArgs":
+          if (p.currentToken() == JsonToken.VALUE_NULL) {
+            order.setOperationArgs(null);
+          } else if (order.getOperationId() != null) {
+            order.setOperationArgs(readArgs(p, ctxt, order.getOperationId()));
+          } else {
+            bufferedArgs = ctxt.bufferAsCopyOfValue(p);
+          }
+          break;
+        default:
+          ctxt.handleUnknownProperty(p, this, Order.class, field);
+      }
+    }
+    if (token != JsonToken.END_OBJECT) {
+      return (Order) ctxt.handleUnexpectedToken(Order.class, p);
+    }
+    requireField(ctxt, order.getGameId(), "gameId");
+    requireField(ctxt, order.getPlayerId(), "playerId");
+    requireField(ctxt, order.getOperationId(), "operationId");
+    if (bufferedArgs != null) {
+      try (JsonParser argsParser = bufferedArgs.asParser(p.getCodec())) {
+        argsParser.nextToken();
+        order.setOperationArgs(readArgs(argsParser, ctxt, order.getOperationId()));
+      }
+    }
+    requireField(ctxt, order.getOperationArgs(), "operationArgs");
+    return order;
+  }
+
+  private Operation readOperation(JsonParser p, DeserializationContext ctxt) throws IOException {
+    String name = readString(p, ctxt, "operationId");
+    if (name == null) {
+      return null;
+    }
+    try {
+      return Operation.valueOf(name);
+    } catch (IllegalArgumentException | NullPointerException e) {
+      return (Operation)
+          ctxt.handleWeirdStringValue(Operation.class, name, "not one of the Operation values");
+    }
+  }
+
+  // Объект или массив вместо строки - ошибка разбора, иначе парсер остался бы внутри значения
+  private String readString(JsonParser p, DeserializationContext ctxt, String field)
+      throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (!token.isScalarValue()) {
+      ctxt.reportInputMismatch(this, "Field '%s' must be a string, but was %s", field, token);
+    }
+    return p.getValueAsString();
+  }
+
+  private void requireField(DeserializationContext ctxt, Object value, String field)
+      throws IOException {
+    if (value == null) {
+      ctxt.reportInputMismatch(this, "Missing required field '%s'", field);
+    }
+  }
+
+  private static OperationArgs readArgs(
+      JsonParser p, DeserializationContext ctxt, Operation operation) throws IOException {
+    return ctxt.readValue(p, operation.getArgsType());
+  }
+}
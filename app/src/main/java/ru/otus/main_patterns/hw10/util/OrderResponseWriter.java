@@ -0,0 +1,97 @@
+package ru.otus.main_patterns.hw10.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import ru.otus.main_patterns.hw10.command.Operation;
+
+/*
+   Ответ на принятый приказ без Map, конкатенации строк и ObjectMapper:
+   {"orderId":"<id>","message":"Operation '<operationId>' successfully created"}
+   Всё, кроме id приказа, заранее закодировано в байты - начало ответа общее,
+   а окончание со своим сообщением у каждой Operation. Id экранируется по правилам JSON
+   (не-ASCII и управляющие символы - шестнадцатеричной escape-последовательностью)
+   прямо в буфер потока, поэтому тело ответа пишется в OutputStream одним вызовом
+   и длина известна заранее.
+*/
+public class OrderResponseWriter {
+  private static final byte[] CREATED_PREFIX = ascii("{\"orderId\":\"");
+  private static final byte[][] CREATED_SUFFIX = createdSuffixes();
+  private static final byte[] HEX = ascii("0123456789abcdef");
+
+  private final ThreadLocal<Body> body = ThreadLocal.withInitial(Body::new);
+
+  // Тело ответа 201 в буфере текущего потока; действительно до следующего вызова в этом потоке
+  public Body encodeCreated(String orderId, Operation operation) {
+    byte[] suffix = CREATED_SUFFIX[operation.ordinal()];
+    Body b = body.get();
+    // Худший случай: каждый символ id экранирован шестью байтами
+    byte[] buf = b.ensureCapacity(CREATED_PREFIX.length + orderId.length() * 6 + suffix.length);
+    System.arraycopy(CREATED_PREFIX, 0, buf, 0, CREATED_PREFIX.length);
+    int position = escape(orderId, buf, CREATED_PREFIX.length);
+    System.arraycopy(suffix, 0, buf, position, suffix.length);
+    b.length = position + suffix.length;
+    return b;
+  }
+
+  private static int escape(String value, byte[] out, int offset) {
+    int position = offset;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        out[position++] = '\\';
+        out[position++] = (byte) c;
+      } else if (c >= 0x20 && c < 0x7F) {
+        out[position++] = (byte) c;
+      } else {
+        out[position++] = '\\';
+        out[position++] = 'u';
+        out[position++] = HEX[(c >> 12) & 0xF];
+        out[position++] = HEX[(c >> 8) & 0xF];
+        out[position++] = HEX[(c >> 4) & 0xF];
+        out[position++] = HEX[c & 0xF];
+      }
+    }
+    return position;
+  }
+
+  private static byte[][] createdSuffixes() {
+    Operation[] operations = Operation.values();
+    byte[][] suffixes = new byte[operations.length][];
+    for (Operation operation : operations) {
+      suffixes[operation.ordinal()] =
+          ascii("\",\"message\":\"Operation '" + operation.name() + "' successfully created\"}");
+    }
+    return suffixes;
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  // Закодированное тело ответа (JSON в UTF-8)
+  public static final class Body {
+    private byte[] buf = new byte[128];
+    private int length;
+
+    private byte[] ensureCapacity(int capacity) {
+      if (buf.length < capacity) {
+        buf = new byte[Math.max(capacity, buf.length * 2)];
+      }
+      return buf;
+    }
+
+    public int length() {
+      return length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+      out.write(buf, 0, length);
+    }
+
+    @Override
+    public String toString() {
+      return new String(buf, 0, length, StandardCharsets.UTF_8);
+    }
+  }
+}
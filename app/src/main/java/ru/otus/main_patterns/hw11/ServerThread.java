@@ -4,6 +4,8 @@ import java.util.concurrent.BlockingQueue;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.concurrent.BlockingWaitStrategy;
+import ru.otus.main_patterns.concurrent.WaitStrategy;
 import ru.otus.main_patterns.hw11.interfaces.Command;
 import ru.otus.main_patterns.hw11.interfaces.CommandState;
 
@@ -20,6 +22,12 @@ public class ServerThread {
   */
 
   public ServerThread(BlockingQueue<Command> sourceQueue, CommandState commandState) {
+    this(sourceQueue, commandState, new BlockingWaitStrategy());
+  }
+
+  // waitStrategy - как поток ждёт команду из пустой очереди
+  public ServerThread(
+      BlockingQueue<Command> sourceQueue, CommandState commandState, WaitStrategy waitStrategy) {
     this.sourceQueue = sourceQueue;
 
     thread =
@@ -33,7 +41,7 @@ public class ServerThread {
                 while (!stopStrategy.get() && state != null) {
                   Command command = null;
                   try {
-                    command = sourceQueue.take();
+                    command = waitStrategy.take(sourceQueue);
                     state = state.handle(command); // код не меняется
                   } catch (Exception e) {
                     logger.error("ServerThread, fail execution command: " + command, e);
@@ -0,0 +1,136 @@
+package ru.otus.main_patterns.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MpscArrayBlockingQueueTest {
+
+  @Test
+  @DisplayName("Очередь должна отдавать элементы по порядку и не принимать больше capacity")
+  void shouldKeepFifoOrderAndCapacity() {
+    // Arrange
+    BlockingQueue<Integer> queue = new MpscArrayBlockingQueue<>(3);
+
+    // Act
+    boolean[] offered = {queue.offer(1), queue.offer(2), queue.offer(3), queue.offer(4)};
+
+    // Assert
+    assertThat(offered).containsExactly(true, true, true, false);
+    assertThat(queue).hasSize(3);
+    assertThat(queue.remainingCapacity()).isZero();
+    assertThat(queue).containsExactly(1, 2, 3);
+    assertThat(queue.poll()).isEqualTo(1);
+    assertThat(queue.offer(4)).isTrue();
+    assertThat(queue.peek()).isEqualTo(2);
+    List<Integer> drained = new ArrayList<>();
+    assertThat(queue.drainTo(drained)).isEqualTo(3);
+    assertThat(drained).containsExactly(2, 3, 4);
+    assertThat(queue.poll()).isNull();
+    assertThat(queue).isEmpty();
+    assertThatThrownBy(() -> queue.add(null)).isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  @DisplayName("Элементы всех производителей должны дойти до потребителя в порядке каждого из них")
+  void shouldDeliverAllElementsOfManyProducersInOrder() throws Exception {
+    // Arrange
+    int producers = 4;
+    int perProducer = 20_000;
+    BlockingQueue<long[]> queue = new MpscArrayBlockingQueue<>(64);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int producer = p;
+      threads.add(
+          new Thread(
+              () -> {
+                try {
+                  for (int i = 0; i < perProducer; i++) {
+                    queue.put(new long[] {producer, i});
+                  }
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }));
+    }
+
+    // Act
+    threads.forEach(Thread::start);
+    long[] next = new long[producers];
+    for (int i = 0; i < producers * perProducer; i++) {
+      long[] element = queue.poll(5, TimeUnit.SECONDS);
+
+      // Assert
+      assertThat(element).isNotNull();
+      assertThat(element[1]).isEqualTo(next[(int) element[0]]++);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(next).containsOnly(perProducer);
+    assertThat(queue).isEmpty();
+  }
+
+  @Test
+  @DisplayName("take должен ждать элемент, а poll с timeout - вернуть null по истечении времени")
+  void shouldWaitForElement() throws Exception {
+    // Arrange
+    BlockingQueue<String> queue = new MpscArrayBlockingQueue<>(2);
+    CompletableFuture<String> taken = new CompletableFuture<>();
+    Thread consumer =
+        new Thread(
+            () -> {
+              try {
+                taken.complete(queue.take());
+              } catch (InterruptedException e) {
+                taken.completeExceptionally(e);
+              }
+            });
+
+    // Act
+    assertThat(queue.poll(20, TimeUnit.MILLISECONDS)).isNull();
+    consumer.start();
+    Thread.sleep(50);
+    queue.add("command");
+
+    // Assert
+    assertThat(taken.get(5, TimeUnit.SECONDS)).isEqualTo("command");
+  }
+
+  @Test
+  @DisplayName("offer с timeout должен ждать, пока потребитель освободит место")
+  void shouldWaitForFreeSlot() throws Exception {
+    // Arrange
+    BlockingQueue<String> queue = new MpscArrayBlockingQueue<>(1);
+    queue.add("first");
+
+    // Act
+    boolean rejected = queue.offer("second", 20, TimeUnit.MILLISECONDS);
+    CompletableFuture.runAsync(
+        () -> {
+          sleepQuietly(50);
+          queue.poll();
+        });
+    boolean accepted = queue.offer("second", 5, TimeUnit.SECONDS);
+
+    // Assert
+    assertThat(rejected).isFalse();
+    assertThat(accepted).isTrue();
+    assertThat(queue).containsExactly("second");
+  }
+
+  private static void sleepQuietly(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
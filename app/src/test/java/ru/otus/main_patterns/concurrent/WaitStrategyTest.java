@@ -0,0 +1,74 @@
+package ru.otus.main_patterns.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class WaitStrategyTest {
+
+  @ParameterizedTest
+  @EnumSource(WaitStrategyType.class)
+  @DisplayName("Стратегия должна вернуть элемент, добавленный в очередь во время ожидания")
+  void shouldTakeItemOfferedWhileWaiting(WaitStrategyType type) throws Exception {
+    // Arrange
+    WaitStrategy waitStrategy = type.create();
+    BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+    CompletableFuture<String> taken = new CompletableFuture<>();
+    Thread consumer =
+        new Thread(
+            () -> {
+              try {
+                taken.complete(waitStrategy.take(queue));
+              } catch (InterruptedException e) {
+                taken.completeExceptionally(e);
+              }
+            });
+    consumer.start();
+
+    // Act
+    Thread.sleep(50);
+    queue.add("command");
+
+    // Assert
+    assertThat(taken.get(5, TimeUnit.SECONDS)).isEqualTo("command");
+    assertThat(queue).isEmpty();
+  }
+
+  @ParameterizedTest
+  @EnumSource(WaitStrategyType.class)
+  @DisplayName("Ожидание пустой очереди должно прерываться InterruptedException")
+  void shouldStopWaitingOnInterrupt(WaitStrategyType type) throws Exception {
+    // Arrange
+    WaitStrategy waitStrategy = type.create();
+    BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread consumer =
+        new Thread(
+            () -> {
+              try {
+                waitStrategy.take(queue);
+              } catch (InterruptedException e) {
+                failure.set(e);
+              }
+            });
+    consumer.start();
+
+    // Act
+    Thread.sleep(50);
+    consumer.interrupt();
+
+    // Assert
+    await()
+        .atMost(5, TimeUnit.SECONDS)
+        .untilAsserted(() -> assertThat(consumer.isAlive()).isFalse());
+    assertThat(failure.get()).isInstanceOf(InterruptedException.class);
+  }
+}
@@ -0,0 +1,221 @@
+package ru.otus.main_patterns.hw07;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.hw07.command.HardStopCommand;
+import ru.otus.main_patterns.hw07.command.SoftStopCommand;
+import ru.otus.main_patterns.hw07.command.StartCommand;
+
+class ServerThreadPoolTest {
+  private final ServerThreadPool pool = new ServerThreadPool(2, 100);
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    pool.stop();
+    pool.join();
+  }
+
+  @Test
+  @DisplayName(
+      "После StartCommand должны работать все потоки, исключение команды их не останавливает")
+  void shouldStartAllWorkersAndSurviveFailingCommand() {
+    // Arrange
+    AtomicInteger executedCount = new AtomicInteger();
+
+    // Act
+    new StartCommand(pool).execute();
+    pool.add(
+        () -> {
+          throw new IllegalStateException("fail");
+        });
+    for (int i = 0; i < 10; i++) {
+      pool.add(executedCount::incrementAndGet);
+    }
+
+    // Assert
+    await()
+        .atMost(2, TimeUnit.SECONDS)
+        .untilAsserted(() -> assertThat(executedCount.get()).isEqualTo(10));
+    assertThat(pool.getAliveCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Команды из очереди занятого потока должен выполнить свободный поток")
+  void shouldStealCommandsFromBusyWorker() {
+    // Arrange
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executedCount = new AtomicInteger();
+    new StartCommand(pool).execute();
+
+    // Act
+    // Долгая команда занимает один поток, а половина следующих команд попадает в его очередь
+    pool.add(
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    for (int i = 0; i < 10; i++) {
+      pool.add(executedCount::incrementAndGet);
+    }
+
+    // Assert
+    try {
+      await()
+          .atMost(2, TimeUnit.SECONDS)
+          .untilAsserted(() -> assertThat(executedCount.get()).isEqualTo(10));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  @DisplayName(
+      "Все команды нескольких производителей должны быть выполнены, даже если их больше потоков")
+  void shouldExecuteEveryCommandFromConcurrentProducers() throws InterruptedException {
+    // Arrange
+    int producersCount = 4;
+    int commandsPerProducer = 5_000;
+    ServerThreadPool fourWorkers = new ServerThreadPool(4, producersCount * commandsPerProducer);
+    AtomicInteger executedCount = new AtomicInteger();
+    CountDownLatch go = new CountDownLatch(1);
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < producersCount; p++) {
+      producers.add(
+          new Thread(
+              () -> {
+                try {
+                  go.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int i = 0; i < commandsPerProducer; i++) {
+                  fourWorkers.add(executedCount::incrementAndGet);
+                }
+              }));
+    }
+    new StartCommand(fourWorkers).execute();
+
+    // Act
+    try {
+      for (Thread producer : producers) {
+        producer.start();
+      }
+      go.countDown();
+      for (Thread producer : producers) {
+        producer.join();
+      }
+
+      // Assert
+      await()
+          .atMost(10, TimeUnit.SECONDS)
+          .untilAsserted(
+              () ->
+                  assertThat(executedCount.get()).isEqualTo(producersCount * commandsPerProducer));
+      assertThat(fourWorkers.isQueueEmpty()).isTrue();
+    } finally {
+      fourWorkers.stop();
+      fourWorkers.join();
+    }
+  }
+
+  @Test
+  @DisplayName("После HardStopCommand ждущие потоки не должны выполнять команды из очередей")
+  void shouldNotRunQueuedCommandsAfterHardStop() throws InterruptedException {
+    // Arrange
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executedCount = new AtomicInteger();
+    new StartCommand(pool).execute();
+    pool.add(
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    await()
+        .atMost(2, TimeUnit.SECONDS)
+        .untilAsserted(() -> assertThat(pool.isQueueEmpty()).isTrue());
+
+    // Act
+    pool.stop();
+    for (int i = 0; i < 10; i++) {
+      pool.add(executedCount::incrementAndGet);
+    }
+    release.countDown();
+    pool.join();
+
+    // Assert
+    assertThat(pool.isAlive()).isFalse();
+    assertThat(executedCount.get()).isZero();
+  }
+
+  @Test
+  @DisplayName("После SoftStopCommand потоки завершаются только когда опустеют все очереди")
+  void shouldDrainAllQueuesBeforeSoftStop() {
+    // Arrange
+    AtomicInteger executedCount = new AtomicInteger();
+    pool.add(new SoftStopCommand(pool));
+    for (int i = 0; i < 20; i++) {
+      pool.add(executedCount::incrementAndGet);
+    }
+
+    // Act
+    new StartCommand(pool).execute();
+
+    // Assert
+    await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertThat(pool.isAlive()).isFalse());
+    assertThat(executedCount.get()).isEqualTo(20);
+    assertThat(pool.isQueueEmpty()).isTrue();
+  }
+
+  @Test
+  @DisplayName("После HardStopCommand должны завершиться все потоки, в том числе ждущие команд")
+  void shouldStopAllWorkersOnHardStop() {
+    // Arrange
+    ServerThreadPool fourWorkers = new ServerThreadPool(4, 10);
+    new StartCommand(fourWorkers).execute();
+    await()
+        .atMost(2, TimeUnit.SECONDS)
+        .untilAsserted(() -> assertThat(fourWorkers.getAliveCount()).isEqualTo(4));
+
+    // Act
+    fourWorkers.add(new HardStopCommand(fourWorkers));
+
+    // Assert
+    await()
+        .atMost(2, TimeUnit.SECONDS)
+        .untilAsserted(() -> assertThat(fourWorkers.isAlive()).isFalse());
+  }
+
+  @Test
+  @DisplayName("softStop простаивающего пула должен завершить все потоки и закрыть пул")
+  void shouldTerminateIdlePoolOnSoftStop() throws Exception {
+    // Arrange
+    new StartCommand(pool).execute();
+    await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertThat(pool.isAlive()).isTrue());
+
+    // Act
+    pool.softStop().get(2, TimeUnit.SECONDS);
+
+    // Assert
+    assertThat(pool.getTermination()).isCompleted();
+    pool.join();
+    assertThat(pool.isAlive()).isFalse();
+    assertThatThrownBy(() -> pool.add(() -> {})).isInstanceOf(IllegalStateException.class);
+  }
+}
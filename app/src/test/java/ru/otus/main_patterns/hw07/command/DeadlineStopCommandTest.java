@@ -0,0 +1,201 @@
+package ru.otus.main_patterns.hw07.command;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.concurrent.BlockingWaitStrategy;
+import ru.otus.main_patterns.hw07.ServerThread;
+import ru.otus.main_patterns.hw07.ServerThreadPool;
+import ru.otus.main_patterns.hw07.ShutdownReport;
+import ru.otus.main_patterns.hw07.interfaces.Command;
+
+class DeadlineStopCommandTest {
+
+  @Test
+  @DisplayName("Если команды успели выполниться за бюджет, ничего не должно передаваться handoff")
+  void shouldDrainAllCommandsWithinBudget() throws Exception {
+    // Arrange
+    ServerThread serverThread = new ServerThread(new ArrayBlockingQueue<>(100));
+    AtomicInteger executedCount = new AtomicInteger();
+    List<Command> handedOff = Collections.synchronizedList(new ArrayList<>());
+    DeadlineStopCommand deadlineStop = new DeadlineStopCommand(serverThread, 5_000, handedOff::add);
+    serverThread.add(deadlineStop);
+    for (int i = 0; i < 10; i++) {
+      serverThread.add(executedCount::incrementAndGet);
+    }
+
+    // Act
+    new StartCommand(serverThread).execute();
+    ShutdownReport report = deadlineStop.getShutdownReport().get(5, SECONDS);
+
+    // Assert
+    assertThat(executedCount.get()).isEqualTo(10);
+    // Выполненные после начала остановки: 10 команд и сама DeadlineStopCommand
+    assertThat(report.getExecuted()).isEqualTo(11);
+    assertThat(report.getHandedOff()).isZero();
+    assertThat(report.isDrained()).isTrue();
+    assertThat(handedOff).isEmpty();
+  }
+
+  @Test
+  @DisplayName("По истечении бюджета поток должен остановиться, а остаток - уйти в handoff")
+  void shouldHandOffRemainingCommandsAfterDeadline() throws Exception {
+    // Arrange
+    ServerThread serverThread = new ServerThread(new ArrayBlockingQueue<>(100));
+    CountDownLatch slowCommandStarted = new CountDownLatch(1);
+    AtomicInteger executedCount = new AtomicInteger();
+    List<Command> handedOff = Collections.synchronizedList(new ArrayList<>());
+    serverThread.add(
+        () -> {
+          slowCommandStarted.countDown();
+          sleepQuietly(300);
+        });
+    for (int i = 0; i < 5; i++) {
+      serverThread.add(executedCount::incrementAndGet);
+    }
+    new StartCommand(serverThread).execute();
+    slowCommandStarted.await(2, SECONDS);
+
+    // Act
+    ShutdownReport report =
+        serverThread.shutdown(50, TimeUnit.MILLISECONDS, handedOff::add).get(5, SECONDS);
+
+    // Assert
+    assertThat(executedCount.get()).isZero();
+    assertThat(report.getHandedOff()).isEqualTo(5);
+    assertThat(report.isDrained()).isFalse();
+    assertThat(report.getElapsedMillis()).isGreaterThanOrEqualTo(50);
+    assertThat(handedOff).hasSize(5);
+    serverThread.join();
+    assertThat(serverThread.isAlive()).isFalse();
+  }
+
+  @Test
+  @DisplayName("По истечении бюджета поток не должен выполнять остаток пачки, он уходит в handoff")
+  void shouldHandOffRestOfBatchAfterDeadline() throws Exception {
+    // Arrange
+    ServerThread serverThread =
+        new ServerThread(new ArrayBlockingQueue<>(100), new BlockingWaitStrategy(), 8);
+    CountDownLatch slowCommandStarted = new CountDownLatch(1);
+    AtomicInteger executedCount = new AtomicInteger();
+    List<Command> handedOff = Collections.synchronizedList(new ArrayList<>());
+    serverThread.add(
+        () -> {
+          slowCommandStarted.countDown();
+          sleepQuietly(300);
+        });
+    for (int i = 0; i < 5; i++) {
+      serverThread.add(executedCount::incrementAndGet);
+    }
+    // Все 6 команд уже в очереди - поток заберёт их одной пачкой
+    new StartCommand(serverThread).execute();
+    slowCommandStarted.await(2, SECONDS);
+
+    // Act
+    ShutdownReport report =
+        serverThread.shutdown(50, TimeUnit.MILLISECONDS, handedOff::add).get(5, SECONDS);
+
+    // Assert
+    assertThat(executedCount.get()).isZero();
+    assertThat(report.getHandedOff()).isEqualTo(5);
+    assertThat(report.isDrained()).isFalse();
+    assertThat(handedOff).hasSize(5);
+    serverThread.join();
+    assertThat(serverThread.isAlive()).isFalse();
+  }
+
+  @Test
+  @DisplayName("В срок остановка должна прервать долгую команду и не ждать её завершения")
+  void shouldInterruptLongCommandAtDeadline() throws Exception {
+    // Arrange
+    ServerThread serverThread = new ServerThread(new ArrayBlockingQueue<>(100));
+    CountDownLatch never = new CountDownLatch(1);
+    CountDownLatch longCommandStarted = new CountDownLatch(1);
+    AtomicInteger executedCount = new AtomicInteger();
+    List<Command> handedOff = Collections.synchronizedList(new ArrayList<>());
+    serverThread.add(
+        () -> {
+          longCommandStarted.countDown();
+          awaitQuietly(never);
+        });
+    serverThread.add(executedCount::incrementAndGet);
+    new StartCommand(serverThread).execute();
+    longCommandStarted.await(2, SECONDS);
+
+    // Act
+    long started = System.nanoTime();
+    ShutdownReport report =
+        serverThread.shutdown(50, TimeUnit.MILLISECONDS, handedOff::add).get(2, SECONDS);
+
+    // Assert
+    // Без прерывания команда ждала бы 5 секунд
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(2_000);
+    assertThat(report.getHandedOff()).isEqualTo(1);
+    assertThat(handedOff).hasSize(1);
+    assertThat(executedCount.get()).isZero();
+    serverThread.join();
+    assertThat(serverThread.isAlive()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Пул должен передать handoff остаток очередей всех потоков после истечения бюджета")
+  void shouldHandOffRemainingCommandsOfAllPoolQueues() throws Exception {
+    // Arrange
+    ServerThreadPool pool = new ServerThreadPool(2, 100);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch busy = new CountDownLatch(2);
+    AtomicInteger executedCount = new AtomicInteger();
+    List<Command> handedOff = Collections.synchronizedList(new ArrayList<>());
+    for (int i = 0; i < 2; i++) {
+      pool.add(
+          () -> {
+            busy.countDown();
+            awaitQuietly(release);
+          });
+    }
+    new StartCommand(pool).execute();
+    busy.await(2, SECONDS);
+    for (int i = 0; i < 6; i++) {
+      pool.add(executedCount::incrementAndGet);
+    }
+
+    // Act
+    CompletableFuture<ShutdownReport> report =
+        pool.shutdown(20, TimeUnit.MILLISECONDS, handedOff::add);
+    Thread.sleep(50);
+    release.countDown();
+
+    // Assert
+    ShutdownReport result = report.get(5, SECONDS);
+    assertThat(result.getExecuted()).isEqualTo(2);
+    assertThat(result.getHandedOff()).isEqualTo(6);
+    assertThat(executedCount.get()).isZero();
+    assertThat(handedOff).hasSize(6);
+  }
+
+  private static void sleepQuietly(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
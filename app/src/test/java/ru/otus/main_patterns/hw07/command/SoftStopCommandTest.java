@@ -2,13 +2,17 @@ package ru.otus.main_patterns.hw07.command;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.concurrent.BlockingWaitStrategy;
 import ru.otus.main_patterns.hw07.ServerThread;
 import ru.otus.main_patterns.hw07.interfaces.Command;
 
@@ -22,21 +26,21 @@ class SoftStopCommandTest {
       "SoftStopCommand должен завершить поток только после обработки всех оставшихся задач")
   void shouldProcessAllCommandsBeforeStopServerThread() {
     // Arrange
-    BlockingQueue<Command> queue = new ArrayBlockingQueue<>(100);
-    ServerThread serverThread = new ServerThread(queue);
+    ServerThread serverThread = new ServerThread(new ArrayBlockingQueue<>(100));
     AtomicInteger executedCount = new AtomicInteger(0);
     // Задачи, которые должны успеть выполниться ПОСЛЕ вызова SoftStopCommand
     Command testCommand1 = executedCount::incrementAndGet;
     Command testCommand2 = executedCount::incrementAndGet;
     Command testCommand3 = executedCount::incrementAndGet;
-    // Запускаем сервер
-    new StartCommand(serverThread).execute();
+    // Команды ставятся до запуска: добавленные после выполнения SoftStopCommand были бы отклонены
+    serverThread.add(new SoftStopCommand(serverThread));
+    serverThread.add(testCommand1);
+    serverThread.add(testCommand2);
+    serverThread.add(testCommand3);
 
     // Act
-    queue.add(new SoftStopCommand(queue, serverThread));
-    queue.add(testCommand1);
-    queue.add(testCommand2);
-    queue.add(testCommand3);
+    // Запускаем сервер
+    new StartCommand(serverThread).execute();
 
     // Проверяем, что все задачи (всего 3 шт + сама команда стоп) выполнены
     await()
@@ -56,4 +60,87 @@ class SoftStopCommandTest {
                     .as("Поток сервера должен завершиться после очистки очереди")
                     .isFalse());
   }
+
+  @Test
+  @DisplayName("SoftStopCommand должен дождаться выполнения команд, забранных потоком в пачку")
+  void shouldProcessBatchedCommandsBeforeStopServerThread() {
+    // Arrange
+    ServerThread serverThread =
+        new ServerThread(new ArrayBlockingQueue<>(100), new BlockingWaitStrategy(), 8);
+    AtomicInteger executedCount = new AtomicInteger(0);
+    serverThread.add(new SoftStopCommand(serverThread));
+    for (int i = 0; i < 20; i++) {
+      serverThread.add(executedCount::incrementAndGet);
+    }
+
+    // Act
+    new StartCommand(serverThread).execute();
+
+    // Assert
+    await()
+        .atMost(10, SECONDS)
+        .untilAsserted(
+            () ->
+                assertThat(serverThread.isAlive())
+                    .as("Поток сервера должен завершиться после очистки очереди")
+                    .isFalse());
+    assertThat(executedCount.get()).isEqualTo(20);
+  }
+
+  @Test
+  @DisplayName("softStop должен завершить поток, который уже ждёт команду в пустой очереди")
+  void shouldStopServerThreadWaitingOnEmptyQueue() throws Exception {
+    // Arrange
+    ServerThread serverThread = new ServerThread(new ArrayBlockingQueue<>(10));
+    new StartCommand(serverThread).execute();
+    Thread.sleep(50);
+
+    // Act
+    serverThread.add(new SoftStopCommand(serverThread));
+
+    // Assert
+    serverThread.getTermination().get(2, SECONDS);
+    // termination завершается последним действием потока - он вот-вот закончится
+    serverThread.join();
+    assertThat(serverThread.isAlive()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Команды, принятые до soft stop, должны выполниться, а после него - отклоняться")
+  void shouldExecuteAllAcceptedCommandsWhenProducersRaceWithSoftStop() throws Exception {
+    // Arrange
+    ServerThread serverThread = new ServerThread(new ArrayBlockingQueue<>(10_000));
+    AtomicInteger accepted = new AtomicInteger();
+    AtomicInteger executed = new AtomicInteger();
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < 4; p++) {
+      producers.add(
+          new Thread(
+              () -> {
+                for (int i = 0; i < 1_000; i++) {
+                  try {
+                    serverThread.add(executed::incrementAndGet);
+                    accepted.incrementAndGet();
+                  } catch (IllegalStateException e) {
+                    // цикл закрыт
+                  }
+                }
+              }));
+    }
+    new StartCommand(serverThread).execute();
+    producers.forEach(Thread::start);
+
+    // Act
+    Thread.sleep(5);
+    CompletableFuture<Void> termination = serverThread.softStop();
+
+    // Assert
+    termination.get(5, SECONDS);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertThat(executed.get()).isEqualTo(accepted.get());
+    assertThatThrownBy(() -> serverThread.add(executed::incrementAndGet))
+        .isInstanceOf(IllegalStateException.class);
+  }
 }
@@ -1,6 +1,8 @@
 package ru.otus.main_patterns.hw10;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 import freemarker.template.Configuration;
 import freemarker.template.Template;
@@ -207,6 +209,226 @@ class GameIntegrationTest {
         .isEqualTo("Operation 'MOVE_STRAIGHT' successfully created");
   }
 
+  @Test
+  @DisplayName("Приказ с аргументами неверного типа должен отклоняться с 400")
+  void shouldRejectOrderWithInvalidArgs() throws Exception {
+    // Arrange
+    String receivedToken = login();
+    Map<String, Object> dataOrderMap = new HashMap<>();
+    dataOrderMap.put(ID, "invalid-order");
+    dataOrderMap.put("velocity", "\"fast\"");
+
+    // Act
+    Response gameServerResponse =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body(processTemplate(ORDER_REQUEST_TEMPLATE, dataOrderMap))
+            .post(GAME_SERVER_BASE_URL + "/game/order");
+
+    // Assert
+    assertThat(gameServerResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST_400);
+    assertThat(gameServerResponse.jsonPath().getString("message")).contains("initialVelocity");
+  }
+
+  @Test
+  @DisplayName("Пакет приказов (JSON-массив) должен вернуть результат по каждому приказу")
+  void shouldReturnResultPerOrderForJsonArrayBatch() throws Exception {
+    // Arrange
+    String receivedToken = login();
+    Map<String, Object> allowedOrderMap = new HashMap<>();
+    allowedOrderMap.put(ID, "batch-order-1");
+    Map<String, Object> forbiddenOrderMap = new HashMap<>();
+    forbiddenOrderMap.put(ID, "batch-order-2");
+    forbiddenOrderMap.put("gameId", "game-2");
+    Map<String, Object> invalidArgsOrderMap = new HashMap<>();
+    invalidArgsOrderMap.put(ID, "batch-order-3");
+    invalidArgsOrderMap.put("operation", "TELEPORT");
+    String body =
+        "["
+            + processTemplate(ORDER_REQUEST_TEMPLATE, allowedOrderMap)
+            + ","
+            + processTemplate(ORDER_REQUEST_TEMPLATE, forbiddenOrderMap)
+            + ","
+            + processTemplate(ORDER_REQUEST_TEMPLATE, invalidArgsOrderMap)
+            + "]";
+
+    // Act
+    Response gameServerResponse =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body(body)
+            .post(GAME_SERVER_BASE_URL + "/game/orders");
+
+    // Assert
+    assertThat(gameServerResponse.getStatusCode()).isEqualTo(HttpStatus.OK_200);
+    assertThat(gameServerResponse.jsonPath().getList("results.orderId"))
+        .containsExactly("batch-order-1", "batch-order-2", null);
+    assertThat(gameServerResponse.jsonPath().getList("results.status", Integer.class))
+        .containsExactly(
+            HttpStatus.CREATED_201, HttpStatus.FORBIDDEN_403, HttpStatus.BAD_REQUEST_400);
+  }
+
+  @Test
+  @DisplayName("Повтор приказа с тем же id должен получить результат исходного приказа")
+  void shouldReturnOriginalResultForRetriedOrder() throws Exception {
+    // Arrange
+    String receivedToken = login();
+    Map<String, Object> dataOrderMap = new HashMap<>();
+    dataOrderMap.put(ID, "retried-order");
+    String order = processTemplate(ORDER_REQUEST_TEMPLATE, dataOrderMap);
+
+    // Act
+    Response first =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body(order)
+            .post(GAME_SERVER_BASE_URL + "/game/order");
+    Response retried =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body("[" + order + "]")
+            .post(GAME_SERVER_BASE_URL + "/game/orders");
+    Response retriedSingle =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body(order)
+            .post(GAME_SERVER_BASE_URL + "/game/order");
+
+    // Assert
+    assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED_201);
+    assertThat(retriedSingle.getStatusCode()).isEqualTo(HttpStatus.CREATED_201);
+    assertThat(retriedSingle.asString()).isEqualTo(first.asString());
+    assertThat(retried.jsonPath().getList("results.orderId")).containsExactly("retried-order");
+    assertThat(retried.jsonPath().getList("results.status", Integer.class))
+        .containsExactly(HttpStatus.CREATED_201);
+    assertThat(retried.jsonPath().getList("results.message"))
+        .containsExactly(first.jsonPath().getString("message"));
+  }
+
+  @Test
+  @DisplayName("Другой приказ с уже использованным id должен отклоняться с 422")
+  void shouldRejectOtherOrderWithUsedId() throws Exception {
+    // Arrange
+    String receivedToken = login();
+    Map<String, Object> dataOrderMap = new HashMap<>();
+    dataOrderMap.put(ID, "reused-order");
+    String order = processTemplate(ORDER_REQUEST_TEMPLATE, dataOrderMap);
+    dataOrderMap.put("velocity", 7);
+    String otherOrder = processTemplate(ORDER_REQUEST_TEMPLATE, dataOrderMap);
+
+    // Act
+    Response first =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body(order)
+            .post(GAME_SERVER_BASE_URL + "/game/order");
+    Response retried =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body(order)
+            .post(GAME_SERVER_BASE_URL + "/game/order");
+    Response reused =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body(otherOrder)
+            .post(GAME_SERVER_BASE_URL + "/game/order");
+
+    // Assert
+    assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED_201);
+    assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CREATED_201);
+    assertThat(retried.jsonPath().getString("orderId")).isEqualTo("reused-order");
+    assertThat(retried.jsonPath().getString("message"))
+        .isEqualTo(first.jsonPath().getString("message"));
+    assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY_422);
+  }
+
+  @Test
+  @DisplayName("Пакет приказов (NDJSON) должен принять все разрешённые приказы")
+  void shouldAcceptAllOrdersOfNdjsonBatch() throws Exception {
+    // Arrange
+    String receivedToken = login();
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < 10; i++) {
+      Map<String, Object> dataOrderMap = new HashMap<>();
+      dataOrderMap.put(ID, "ndjson-order-" + i);
+      body.append(processTemplate(ORDER_REQUEST_TEMPLATE, dataOrderMap).replaceAll("\\s+", ""));
+      body.append('\n');
+    }
+
+    // Act
+    Response gameServerResponse =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType("application/x-ndjson")
+            .body(body.toString().getBytes(StandardCharsets.UTF_8))
+            .post(GAME_SERVER_BASE_URL + "/game/orders");
+
+    // Assert
+    assertThat(gameServerResponse.getStatusCode()).isEqualTo(HttpStatus.OK_200);
+    assertThat(gameServerResponse.jsonPath().getList("results.status", Integer.class))
+        .hasSize(10)
+        .containsOnly(HttpStatus.CREATED_201);
+  }
+
+  @Test
+  @DisplayName("/metrics должен показывать принятые приказы и время выполнения команд")
+  void shouldExposeMetrics() throws Exception {
+    // Arrange
+    String receivedToken = login();
+    Map<String, Object> dataOrderMap = new HashMap<>();
+    dataOrderMap.put(ID, UUID.randomUUID().toString());
+    Response orderResponse =
+        RestAssured.given()
+            .header("Authorization", "Bearer " + receivedToken)
+            .contentType(ContentType.JSON)
+            .body(processTemplate(ORDER_REQUEST_TEMPLATE, dataOrderMap))
+            .post(GAME_SERVER_BASE_URL + "/game/order");
+    assertThat(orderResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED_201);
+
+    // Act
+    Response metricsResponse = RestAssured.given().get(GAME_SERVER_BASE_URL + "/metrics");
+
+    // Assert
+    assertThat(metricsResponse.getStatusCode()).isEqualTo(HttpStatus.OK_200);
+    assertThat(metricsResponse.jsonPath().getLong("counters.'orders.status.201'"))
+        .isGreaterThanOrEqualTo(1);
+    assertThat(metricsResponse.jsonPath().getInt("gauges.'queue.threads'")).isPositive();
+    // При order.ack=ENQUEUED команда могла ещё не выполниться
+    await()
+        .atMost(5, SECONDS)
+        .untilAsserted(
+            () ->
+                assertThat(
+                        RestAssured.given()
+                            .get(GAME_SERVER_BASE_URL + "/metrics")
+                            .jsonPath()
+                            .getLong("commands.MoveCommand.count"))
+                    .isPositive());
+  }
+
+  // Реальный HTTP-запрос в AuthServer - получение JWT токена для player-1
+  private String login() throws Exception {
+    Map<String, Object> dataCredentialsMap = new HashMap<>();
+    dataCredentialsMap.put(USER_NAME, VALID_USER_NAME);
+    dataCredentialsMap.put(PASSWORD_HASH, sha256(VALID_USER_PASSWORD));
+    Response authResponse =
+        RestAssured.given()
+            .contentType(ContentType.JSON)
+            .body(processTemplate(LOGIN_REQUEST_TEMPLATE, dataCredentialsMap))
+            .post(AUTH_SERVER_BASE_URL + "/auth/login");
+    String receivedToken = authResponse.jsonPath().getString(TOKEN);
+    assertThat(receivedToken).isNotNull();
+    return receivedToken;
+  }
+
   private String processTemplate(String templateName, Map<String, Object> model) throws Exception {
     Template template = freemarkerConfig.getTemplate(templateName);
     StringWriter writer = new StringWriter();
@@ -0,0 +1,44 @@
+package ru.otus.main_patterns.hw10.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AckCommandTest {
+
+  @Test
+  @DisplayName("executed должен завершаться только после выполнения команды")
+  void shouldCompleteAfterCommandExecution() {
+    // Arrange
+    CompletableFuture<Void> executed = new CompletableFuture<>();
+    Command command = () -> assertThat(executed).isNotDone();
+    AckCommand ackCommand = new AckCommand(command, executed);
+
+    // Act
+    ackCommand.execute();
+
+    // Assert
+    assertThat(executed).isCompleted();
+  }
+
+  @Test
+  @DisplayName("executed должен завершаться с ошибкой, если команда упала")
+  void shouldCompleteExceptionallyWhenCommandFails() {
+    // Arrange
+    CompletableFuture<Void> executed = new CompletableFuture<>();
+    IllegalStateException error = new IllegalStateException("boom");
+    AckCommand ackCommand =
+        new AckCommand(
+            () -> {
+              throw error;
+            },
+            executed);
+
+    // Act & Assert
+    assertThatThrownBy(ackCommand::execute).isSameAs(error);
+    assertThat(executed).isCompletedExceptionally();
+  }
+}
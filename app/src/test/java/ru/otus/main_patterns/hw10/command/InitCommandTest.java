@@ -0,0 +1,53 @@
+package ru.otus.main_patterns.hw10.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.hw10.IoC;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.args.MoveArgs;
+
+class InitCommandTest {
+
+  @Test
+  @DisplayName("Повторное выполнение InitCommand не должно менять стратегию IoC")
+  void shouldUpdateIocStrategyOnlyOnce() {
+    // Arrange
+    new InitCommand().execute();
+    BiFunction<String, Object[], Object> initializedStrategy = IoC.strategy;
+
+    // Act
+    for (int i = 0; i < 1000; i++) {
+      new InitCommand().execute();
+      new InterpretCommand(moveOrder());
+    }
+
+    // Assert
+    assertThat(IoC.strategy).isSameAs(initializedStrategy);
+  }
+
+  @Test
+  @DisplayName("После InitCommand IoC должен разрешать зависимости из глобального scope")
+  void shouldResolveDependencyFromGlobalScope() {
+    // Arrange
+    new InitCommand().execute();
+
+    // Act
+    Command command = IoC.resolve("create.command", moveOrder());
+
+    // Assert
+    assertThat(command).isInstanceOf(MoveCommand.class);
+  }
+
+  private Order moveOrder() {
+    Order order = new Order();
+    order.setId("order-1");
+    order.setGameId("game-1");
+    order.setPlayerId("player-1");
+    order.setOperationId(Operation.MOVE_STRAIGHT);
+    order.setOperationArgs(new MoveArgs(2));
+    return order;
+  }
+}
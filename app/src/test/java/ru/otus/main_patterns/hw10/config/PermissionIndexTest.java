@@ -0,0 +1,73 @@
+package ru.otus.main_patterns.hw10.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.dto.Order;
+
+class PermissionIndexTest {
+  private final PermissionIndex permissionIndex =
+      PermissionIndex.from(gameConfig("game-1", "player-1", "MOVE_STRAIGHT", "ROTATE"));
+
+  @Test
+  @DisplayName("Операция из списка игрока должна быть разрешена")
+  void shouldAllowConfiguredOperation() {
+    // Act & Assert
+    assertThat(permissionIndex.isAllowed("game-1", "player-1", Operation.ROTATE)).isTrue();
+    assertThat(permissionIndex.isAllowed("game-1", "player-1", Operation.TELEPORT)).isFalse();
+    permissionIndex.check(order("game-1", "player-1", Operation.MOVE_STRAIGHT));
+  }
+
+  @Test
+  @DisplayName("Неизвестная игра, игрок или запрещённая операция - SecurityException, а не NPE")
+  void shouldThrowSecurityExceptionForUnknownGameOrPlayer() {
+    // Act & Assert
+    assertThatThrownBy(() -> permissionIndex.check(order("game-9", "player-1", Operation.ROTATE)))
+        .isInstanceOf(SecurityException.class)
+        .hasMessageContaining("game-9");
+    assertThatThrownBy(() -> permissionIndex.check(order("game-1", "player-9", Operation.ROTATE)))
+        .isInstanceOf(SecurityException.class)
+        .hasMessageContaining("player-9");
+    assertThatThrownBy(() -> permissionIndex.check(order("game-1", "player-1", Operation.SHOOT)))
+        .isInstanceOf(SecurityException.class)
+        .hasMessageContaining("SHOOT");
+    assertThatThrownBy(() -> permissionIndex.check(order(null, null, null)))
+        .isInstanceOf(SecurityException.class);
+  }
+
+  @Test
+  @DisplayName("Неизвестная операция в конфигурации должна падать при построении индекса")
+  void shouldFailOnUnknownOperationInConfig() {
+    // Act & Assert
+    assertThatThrownBy(() -> PermissionIndex.from(gameConfig("game-1", "player-1", "FLY")))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("FLY");
+  }
+
+  private static GameConfig gameConfig(String gameId, String playerId, String... operations) {
+    GameConfig.Player player = new GameConfig.Player();
+    player.setOperations(Arrays.asList(operations));
+    Map<String, GameConfig.Player> players = new HashMap<>();
+    players.put(playerId, player);
+    GameConfig.Game game = new GameConfig.Game();
+    game.setPlayers(players);
+    GameConfig gameConfig = new GameConfig();
+    gameConfig.setGames(Collections.singletonMap(gameId, game));
+    return gameConfig;
+  }
+
+  private static Order order(String gameId, String playerId, Operation operation) {
+    Order order = new Order();
+    order.setGameId(gameId);
+    order.setPlayerId(playerId);
+    order.setOperationId(operation);
+    return order;
+  }
+}
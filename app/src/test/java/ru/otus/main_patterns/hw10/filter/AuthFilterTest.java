@@ -14,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
+import ru.otus.main_patterns.hw10.util.JwtCache;
 import ru.otus.main_patterns.hw10.util.JwtStatus;
 import ru.otus.main_patterns.hw10.util.JwtUtil;
 
@@ -48,7 +49,9 @@ class AuthFilterTest {
     String invalidToken = "invalid.token.format";
     when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + invalidToken);
     try (MockedStatic<JwtUtil> mockedJwtUtil = mockStatic(JwtUtil.class)) {
-      mockedJwtUtil.when(() -> JwtUtil.validate(invalidToken)).thenReturn(INVALID_FORMAT);
+      mockedJwtUtil
+          .when(() -> JwtUtil.validate(eq(invalidToken), any(JwtCache.class)))
+          .thenReturn(INVALID_FORMAT);
 
       // Act
       authFilter.doFilter(requestMock, responseMock, filterChainMock);
@@ -70,7 +73,9 @@ class AuthFilterTest {
     String badSigToken = "header.payload.badsig";
     when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + badSigToken);
     try (MockedStatic<JwtUtil> mockedJwtUtil = mockStatic(JwtUtil.class)) {
-      mockedJwtUtil.when(() -> JwtUtil.validate(badSigToken)).thenReturn(INVALID_SIGNATURE);
+      mockedJwtUtil
+          .when(() -> JwtUtil.validate(eq(badSigToken), any(JwtCache.class)))
+          .thenReturn(INVALID_SIGNATURE);
 
       // Act
       authFilter.doFilter(requestMock, responseMock, filterChainMock);
@@ -92,7 +97,9 @@ class AuthFilterTest {
     String tokenExpired = "header.payload.tokenExpired";
     when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + tokenExpired);
     try (MockedStatic<JwtUtil> mockedJwtUtil = mockStatic(JwtUtil.class)) {
-      mockedJwtUtil.when(() -> JwtUtil.validate(tokenExpired)).thenReturn(EXPIRED);
+      mockedJwtUtil
+          .when(() -> JwtUtil.validate(eq(tokenExpired), any(JwtCache.class)))
+          .thenReturn(EXPIRED);
 
       // Act
       authFilter.doFilter(requestMock, responseMock, filterChainMock);
@@ -114,7 +121,9 @@ class AuthFilterTest {
     String validToken = "valid.token.here";
     when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + validToken);
     try (MockedStatic<JwtUtil> mockedJwtUtil = mockStatic(JwtUtil.class)) {
-      mockedJwtUtil.when(() -> JwtUtil.validate(validToken)).thenReturn(JwtStatus.VALID);
+      mockedJwtUtil
+          .when(() -> JwtUtil.validate(eq(validToken), any(JwtCache.class)))
+          .thenReturn(JwtStatus.VALID);
 
       // Act
       authFilter.doFilter(requestMock, responseMock, filterChainMock);
@@ -125,4 +134,30 @@ class AuthFilterTest {
       verify(responseMock, never()).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
     }
   }
+
+  @Test
+  @DisplayName("Повторный запрос с валидным токеном не должен проверять токен заново")
+  void shouldNotValidateCachedTokenAgain() throws Exception {
+    // Arrange
+    String validToken = "valid.token.cached";
+    when(requestMock.getHeader("Authorization")).thenReturn("Bearer " + validToken);
+    try (MockedStatic<JwtUtil> mockedJwtUtil = mockStatic(JwtUtil.class)) {
+      mockedJwtUtil
+          .when(() -> JwtUtil.validate(eq(validToken), any(JwtCache.class)))
+          .thenAnswer(
+              invocation -> {
+                JwtCache cache = invocation.getArgument(1);
+                cache.put(validToken, System.currentTimeMillis() / 1000 + 60);
+                return JwtStatus.VALID;
+              });
+
+      // Act
+      authFilter.doFilter(requestMock, responseMock, filterChainMock);
+      authFilter.doFilter(requestMock, responseMock, filterChainMock);
+
+      // Assert
+      verify(filterChainMock, times(2)).doFilter(requestMock, responseMock);
+      mockedJwtUtil.verify(() -> JwtUtil.validate(eq(validToken), any(JwtCache.class)), times(1));
+    }
+  }
 }
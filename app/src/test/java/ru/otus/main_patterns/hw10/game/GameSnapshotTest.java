@@ -0,0 +1,66 @@
+package ru.otus.main_patterns.hw10.game;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameSnapshotTest {
+  @TempDir Path tempDir;
+
+  @Test
+  @DisplayName("Снимок должен восстанавливать корабли игр и seq журнала")
+  void shouldRoundTripGames() throws Exception {
+    // Arrange
+    GameState first = new GameState("game-1");
+    first.ship("player-1").setProperty(GameState.X, 12);
+    first.ship("player-1").setProperty(GameState.ANGLE, 270);
+    first.ship("player-2").setProperty(GameState.SHOTS, 3);
+    first.setLastSeq(7);
+    GameState second = new GameState("игра-2");
+    second.ship("player-1").setProperty(GameState.Y, -5);
+    second.setLastSeq(9);
+    Path file = tempDir.resolve("snapshot.bin");
+
+    // Act
+    new GameSnapshot(6, Arrays.asList(first, second)).write(file);
+    GameSnapshot restored = GameSnapshot.read(file);
+
+    // Assert
+    assertThat(restored.getSafeSeq()).isEqualTo(6);
+    assertThat(restored.getGames())
+        .extracting(GameState::getGameId)
+        .containsExactly("game-1", "игра-2");
+    GameState game = restored.getGames().get(0);
+    assertThat(game.getLastSeq()).isEqualTo(7);
+    assertThat(game.getShips()).containsOnlyKeys("player-1", "player-2");
+    assertThat(game.getShips().get("player-1").getProperties())
+        .isEqualTo(first.ship("player-1").getProperties());
+    assertThat(game.getShips().get("player-2").getInt(GameState.SHOTS)).isEqualTo(3);
+    assertThat(restored.getGames().get(1).getShips().get("player-1").getInt(GameState.Y))
+        .isEqualTo(-5);
+  }
+
+  @Test
+  @DisplayName("Повреждённый снимок не должен загружаться")
+  void shouldRejectCorruptedSnapshot() throws Exception {
+    // Arrange
+    GameState game = new GameState("game-1");
+    game.ship("player-1").setProperty(GameState.X, 12);
+    Path file = tempDir.resolve("snapshot.bin");
+    new GameSnapshot(1, Arrays.asList(game)).write(file);
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+      raf.seek(raf.length() - 9);
+      raf.write(raf.read() ^ 0xFF);
+    }
+
+    // Act & Assert
+    assertThatThrownBy(() -> GameSnapshot.read(file)).isInstanceOf(IOException.class);
+  }
+}
@@ -0,0 +1,144 @@
+package ru.otus.main_patterns.hw10.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.otus.main_patterns.hw10.command.Direction;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.command.Weapon;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.args.MoveArgs;
+import ru.otus.main_patterns.hw10.dto.args.OperationArgs;
+import ru.otus.main_patterns.hw10.dto.args.ShootArgs;
+
+class MappedOrderJournalTest {
+  private static final int SEGMENT_SIZE = 64 * 1024;
+
+  @TempDir Path tempDir;
+
+  @Test
+  @DisplayName("Приказы, подтверждённые журналом, должны восстанавливаться после рестарта")
+  void shouldReplayDurableOrdersAfterRestart() throws Exception {
+    // Arrange
+    MappedOrderJournal journal = new MappedOrderJournal(tempDir, SEGMENT_SIZE, 0);
+    journal.open((order, seq) -> {});
+    List<CompletableFuture<Void>> durable = new ArrayList<>();
+    durable.add(
+        journal.whenDurable(
+            journal.append(order("order-1", Operation.MOVE_STRAIGHT, new MoveArgs(2)))));
+    durable.add(
+        journal.whenDurable(
+            journal.append(
+                order("order-2", Operation.SHOOT, new ShootArgs(Weapon.LASER, Direction.UP)))));
+    CompletableFuture.allOf(durable.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+    journal.close();
+
+    // Act
+    List<Order> replayed = reopen();
+
+    // Assert
+    assertThat(replayed).extracting(Order::getId).containsExactly("order-1", "order-2");
+    assertThat(replayed.get(0).getGameId()).isEqualTo("game-1");
+    assertThat(((MoveArgs) replayed.get(0).getOperationArgs()).getInitialVelocity()).isEqualTo(2);
+    ShootArgs shootArgs = (ShootArgs) replayed.get(1).getOperationArgs();
+    assertThat(shootArgs.getWeaponId()).isEqualTo(Weapon.LASER);
+    assertThat(shootArgs.getDirection()).isEqualTo(Direction.UP);
+  }
+
+  @Test
+  @DisplayName("Журнал должен переходить в новый сегмент и восстанавливать приказы из всех")
+  void shouldRotateSegments() throws Exception {
+    // Arrange
+    MappedOrderJournal journal = new MappedOrderJournal(tempDir, 512, 0);
+    journal.open((order, seq) -> {});
+    long last = 0;
+    for (int i = 0; i < 20; i++) {
+      last = journal.append(order("order-" + i, Operation.MOVE_STRAIGHT, new MoveArgs(i)));
+    }
+    journal.whenDurable(last).get(5, TimeUnit.SECONDS);
+    journal.close();
+
+    // Act
+    List<Order> replayed = reopen();
+
+    // Assert
+    assertThat(segmentCount()).isGreaterThan(1);
+    assertThat(replayed)
+        .extracting(order -> ((MoveArgs) order.getOperationArgs()).getInitialVelocity())
+        .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19);
+  }
+
+  @Test
+  @DisplayName("Недописанная запись должна отбрасываться, а новые записи - идти с её места")
+  void shouldTruncateTornRecord() throws Exception {
+    // Arrange
+    MappedOrderJournal journal = new MappedOrderJournal(tempDir, SEGMENT_SIZE, 0);
+    journal.open((order, seq) -> {});
+    journal.append(order("order-1", Operation.MOVE_STRAIGHT, new MoveArgs(1)));
+    journal
+        .whenDurable(journal.append(order("order-2", Operation.MOVE_STRAIGHT, new MoveArgs(2))))
+        .get();
+    journal.close();
+    Path segment;
+    try (Stream<Path> files = Files.list(tempDir)) {
+      segment = files.findFirst().orElseThrow(IllegalStateException::new);
+    }
+    // Портим последний байт JSON второй записи, как будто она не успела записаться целиком
+    try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+      int firstLength = file.readInt();
+      long secondRecord = 16 + firstLength;
+      file.seek(secondRecord);
+      int secondLength = file.readInt();
+      file.seek(secondRecord + 16 + secondLength - 1);
+      file.write('x');
+    }
+
+    // Act
+    List<Order> afterCrash = new ArrayList<>();
+    MappedOrderJournal reopened = new MappedOrderJournal(tempDir, SEGMENT_SIZE, 0);
+    reopened.open((order, seq) -> afterCrash.add(order));
+    reopened
+        .whenDurable(reopened.append(order("order-3", Operation.MOVE_STRAIGHT, new MoveArgs(3))))
+        .get();
+    reopened.close();
+    List<Order> afterRestart = reopen();
+
+    // Assert
+    assertThat(afterCrash).extracting(Order::getId).containsExactly("order-1");
+    assertThat(afterRestart).extracting(Order::getId).containsExactly("order-1", "order-3");
+  }
+
+  private List<Order> reopen() throws Exception {
+    List<Order> replayed = new ArrayList<>();
+    MappedOrderJournal journal = new MappedOrderJournal(tempDir, SEGMENT_SIZE, 0);
+    journal.open((order, seq) -> replayed.add(order));
+    journal.close();
+    return replayed;
+  }
+
+  private long segmentCount() throws Exception {
+    try (Stream<Path> files = Files.list(tempDir)) {
+      return files.count();
+    }
+  }
+
+  private static Order order(String id, Operation operation, OperationArgs args) {
+    Order order = new Order();
+    order.setId(id);
+    order.setGameId("game-1");
+    order.setPlayerId("player-1");
+    order.setOperationId(operation);
+    order.setOperationArgs(args);
+    return order;
+  }
+}
@@ -0,0 +1,49 @@
+package ru.otus.main_patterns.hw10.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  @DisplayName("Перцентили должны считаться с точностью до 1/16 значения")
+  void shouldReportPercentilesWithBoundedError() {
+    // Arrange
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    // Act
+    for (long nanos = 1; nanos <= 100_000; nanos++) {
+      histogram.record(nanos * 1000);
+    }
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    // Assert
+    assertThat(snapshot.getCount()).isEqualTo(100_000);
+    assertThat(snapshot.getMax()).isEqualTo(100_000_000L);
+    assertThat(snapshot.getMean()).isEqualTo(50_000_500L);
+    assertThat((double) snapshot.percentile(0.5)).isCloseTo(50_000_000, within(50_000_000 / 16.0));
+    assertThat((double) snapshot.percentile(0.99)).isCloseTo(99_000_000, within(99_000_000 / 16.0));
+    assertThat(snapshot.percentile(1.0)).isEqualTo(100_000_000L);
+  }
+
+  @Test
+  @DisplayName("Каждое значение должно попадать в корзину, верхняя граница которой не меньше него")
+  void shouldMapValuesToCoveringBuckets() {
+    // Arrange
+    long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789L, Long.MAX_VALUE};
+
+    for (long value : values) {
+      // Act
+      int index = LatencyHistogram.index(value);
+
+      // Assert
+      assertThat(LatencyHistogram.upperBound(index)).isGreaterThanOrEqualTo(value);
+      if (index > 0) {
+        assertThat(LatencyHistogram.upperBound(index - 1)).isLessThan(value);
+      }
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package ru.otus.main_patterns.hw10.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StatusCountersTest {
+
+  @Test
+  @DisplayName("Счётчик статуса должен быть счётчиком реестра и появляться только после ответа")
+  void shouldCountInRegistryOnlySeenStatuses() {
+    // Arrange
+    MetricsRegistry metrics = new MetricsRegistry();
+    StatusCounters statusCounters = new StatusCounters(metrics, "orders.status.");
+
+    // Act
+    statusCounters.increment(201);
+    statusCounters.increment(201);
+    statusCounters.increment(429);
+    statusCounters.increment(1000);
+
+    // Assert
+    assertThat(statusCounters.get(201)).isSameAs(metrics.counter("orders.status.201"));
+    @SuppressWarnings("unchecked")
+    Map<String, Long> counters = (Map<String, Long>) metrics.snapshot().get("counters");
+    assertThat(counters)
+        .containsOnlyKeys("orders.status.201", "orders.status.429", "orders.status.1000")
+        .containsEntry("orders.status.201", 2L)
+        .containsEntry("orders.status.429", 1L)
+        .containsEntry("orders.status.1000", 1L);
+  }
+}
@@ -0,0 +1,85 @@
+package ru.otus.main_patterns.hw10.service;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.config.GameConfigSnapshot;
+
+class GameConfigReloaderTest {
+  private static final String GAME_1 =
+      "games:\n  game-1:\n    players:\n      player-1:\n        operations:\n          - ROTATE\n";
+  private static final String GAME_2 =
+      GAME_1 + "  game-2:\n    players:\n      player-2:\n        operations:\n          - SHOOT\n";
+
+  @TempDir Path tempDir;
+  private GameConfigReloader reloader;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (reloader != null) {
+      reloader.stop();
+    }
+  }
+
+  @Test
+  @DisplayName("Изменение файла должно публиковать новую конфигурацию без рестарта")
+  void shouldPublishNewSnapshotWhenFileChanges() throws Exception {
+    // Arrange
+    Path file = write(GAME_1);
+    reloader = new GameConfigReloader(file);
+    reloader.start();
+    assertThat(reloader.get().getPermissionIndex().isAllowed("game-2", "player-2", Operation.SHOOT))
+        .isFalse();
+
+    // Act
+    write(GAME_2);
+
+    // Assert
+    await()
+        .atMost(30, SECONDS)
+        .untilAsserted(
+            () ->
+                assertThat(
+                        reloader
+                            .get()
+                            .getPermissionIndex()
+                            .isAllowed("game-2", "player-2", Operation.SHOOT))
+                    .isTrue());
+  }
+
+  @Test
+  @DisplayName("Некорректный файл не должен заменять действующую конфигурацию")
+  void shouldKeepPreviousSnapshotWhenFileIsInvalid() throws Exception {
+    // Arrange
+    Path file = write(GAME_1);
+    reloader = new GameConfigReloader(file);
+    GameConfigSnapshot snapshot = reloader.get();
+
+    // Act
+    write(
+        "games:\n  game-1:\n    players:\n      player-1:\n        operations:\n          - FLY\n");
+    boolean reloaded = reloader.reload();
+
+    // Assert
+    assertThat(reloaded).isFalse();
+    assertThat(reloader.get()).isSameAs(snapshot);
+    assertThat(
+            reloader.get().getPermissionIndex().isAllowed("game-1", "player-1", Operation.ROTATE))
+        .isTrue();
+  }
+
+  private Path write(String content) throws IOException {
+    return Files.write(
+        tempDir.resolve("game-config.yml"), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
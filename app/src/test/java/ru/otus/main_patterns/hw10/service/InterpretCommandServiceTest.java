@@ -0,0 +1,110 @@
+package ru.otus.main_patterns.hw10.service;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjLongConsumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.OrderResult;
+import ru.otus.main_patterns.hw10.dto.args.MoveArgs;
+import ru.otus.main_patterns.hw10.game.GameState;
+import ru.otus.main_patterns.hw10.journal.OrderJournal;
+import ru.otus.main_patterns.hw10.util.OrderDedupWindow;
+
+class InterpretCommandServiceTest {
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    QueueService.getInstance().stop();
+    GameStateService.clear();
+  }
+
+  @Test
+  @DisplayName(
+      "Повтор приказа пакета, не сохранённого в журнале вовремя, не должен выполниться снова")
+  void shouldNotExecuteRetryOfBatchOrderAfterJournalTimeout() {
+    // Arrange
+    SlowJournal journal = new SlowJournal();
+    InterpretCommandService service =
+        new InterpretCommandService(new OrderDedupWindow(100, 60_000), journal, 50);
+    QueueService.getInstance().start();
+    GameState game = GameStateService.get("game-1");
+    int x = game.ship("player-1").getInt(GameState.X);
+
+    // Act
+    OrderResult first = process(service, "batch-retry-1");
+    await().atMost(5, SECONDS).until(() -> game.ship("player-1").getInt(GameState.X) == x + 2);
+    OrderResult retry = process(service, "batch-retry-1");
+    journal.flush();
+    OrderResult afterFlush = process(service, "batch-retry-1");
+
+    // Assert
+    assertThat(first.getStatus()).isEqualTo(503);
+    assertThat(retry.getStatus()).isEqualTo(409);
+    assertThat(afterFlush.getStatus()).isEqualTo(201);
+    assertThat(game.ship("player-1").getInt(GameState.X)).isEqualTo(x + 2);
+  }
+
+  private static OrderResult process(InterpretCommandService service, String id) {
+    Order order = new Order();
+    order.setId(id);
+    order.setGameId("game-1");
+    order.setPlayerId("player-1");
+    order.setOperationId(Operation.MOVE_STRAIGHT);
+    order.setOperationArgs(new MoveArgs(2));
+    return service.processBatch(Collections.singletonList(order)).get(0);
+  }
+
+  // Журнал, который сохраняет приказы на диске только по flush()
+  private static class SlowJournal implements OrderJournal {
+    private final AtomicLong lastSeq = new AtomicLong();
+    private final List<CompletableFuture<Void>> pending = new CopyOnWriteArrayList<>();
+
+    @Override
+    public boolean isEnabled() {
+      return true;
+    }
+
+    @Override
+    public void open(ObjLongConsumer<Order> replay) {}
+
+    @Override
+    public long append(Order order) {
+      return lastSeq.incrementAndGet();
+    }
+
+    @Override
+    public CompletableFuture<Void> whenDurable(long seq) {
+      CompletableFuture<Void> durable = new CompletableFuture<>();
+      pending.add(durable);
+      return durable;
+    }
+
+    void flush() {
+      for (CompletableFuture<Void> durable : pending) {
+        durable.complete(null);
+      }
+    }
+
+    @Override
+    public long lastSeq() {
+      return lastSeq.get();
+    }
+
+    @Override
+    public void deleteSegmentsUpTo(long seq) {}
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,445 @@
+package ru.otus.main_patterns.hw10.service;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.concurrent.QueueType;
+import ru.otus.main_patterns.hw10.command.AckCommand;
+import ru.otus.main_patterns.hw10.command.BatchCommand;
+import ru.otus.main_patterns.hw10.command.Command;
+import ru.otus.main_patterns.hw10.config.ServerConfig;
+import ru.otus.main_patterns.hw10.exception.QueueOverflowException;
+import ru.otus.main_patterns.hw10.metrics.MetricsRegistry;
+import ru.otus.main_patterns.hw10.queue.AdmissionPolicy;
+
+class QueueServiceTest {
+  private final QueueService queueService = new QueueService(3);
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    queueService.stop();
+  }
+
+  @Test
+  @DisplayName("start должен запустить фиксированное число потоков независимо от числа команд")
+  void shouldStartFixedNumberOfThreads() {
+    // Arrange
+    AtomicInteger executedCount = new AtomicInteger();
+
+    // Act
+    queueService.start();
+    queueService.start();
+    for (int i = 0; i < 50; i++) {
+      queueService.addCommand("game-" + i, executedCount::incrementAndGet);
+    }
+
+    // Assert
+    await().atMost(5, SECONDS).untilAsserted(() -> assertThat(executedCount.get()).isEqualTo(50));
+    assertThat(queueService.getThreadCount()).isEqualTo(3);
+    assertThat(queueService.getQueueDepth()).isZero();
+  }
+
+  @Test
+  @DisplayName("stop должен завершить все потоки, даже если очередь пуста")
+  void shouldStopAllThreads() throws InterruptedException {
+    // Arrange
+    queueService.start();
+
+    // Act
+    queueService.stop();
+
+    // Assert
+    assertThat(queueService.getThreadCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Команды, добавленные до start, должны ждать в очереди")
+  void shouldKeepCommandsUntilStart() {
+    // Arrange
+    AtomicInteger executedCount = new AtomicInteger();
+    queueService.addCommand("game-1", executedCount::incrementAndGet);
+
+    // Assert
+    assertThat(queueService.getQueueDepth()).isEqualTo(1);
+
+    // Act
+    queueService.start();
+
+    // Assert
+    await().atMost(5, SECONDS).untilAsserted(() -> assertThat(executedCount.get()).isEqualTo(1));
+  }
+
+  @Test
+  @DisplayName("Команды одной игры должны выполняться одним потоком в порядке поступления")
+  void shouldExecuteCommandsOfOneGameInOrderOnOneThread() {
+    // Arrange
+    List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+    Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    queueService.start();
+
+    // Act
+    for (int i = 0; i < 50; i++) {
+      int number = i;
+      queueService.addCommand(
+          "game-1",
+          () -> {
+            threadNames.add(Thread.currentThread().getName());
+            executed.add(number);
+          });
+    }
+
+    // Assert
+    await().atMost(5, SECONDS).untilAsserted(() -> assertThat(executed).hasSize(50));
+    assertThat(executed).isSorted();
+    assertThat(threadNames)
+        .containsExactly("ServerThread-" + queueService.getWorkerIndex("game-1"));
+  }
+
+  @Test
+  @DisplayName("REJECT: при заполненной очереди команда должна отклоняться сразу")
+  void shouldRejectCommandWhenQueueIsFull() {
+    // Arrange
+    QueueService service = new QueueService(1, 2, AdmissionPolicy.REJECT, 0);
+    service.addCommand("game-1", () -> {});
+    service.addCommand("game-1", () -> {});
+
+    // Act & Assert
+    assertThatThrownBy(() -> service.addCommand("game-1", () -> {}))
+        .isInstanceOf(QueueOverflowException.class)
+        .hasMessageContaining("game-1");
+    assertThat(service.getQueueDepth()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Метрики должны учитываться по командам приказов, а не по их обёрткам и пакетам")
+  void shouldRecordMetricsPerWrappedCommand() throws InterruptedException {
+    // Arrange
+    MetricsRegistry metrics = new MetricsRegistry();
+    QueueService service =
+        new QueueService(config("queue.workers", "1", "queue.capacity", "10"), metrics);
+    Command first = () -> {};
+    Command second = () -> {};
+    service.addCommand(
+        "game-1",
+        new BatchCommand(
+            Arrays.asList(new AckCommand(first, new CompletableFuture<>()), second, second)));
+
+    // Act
+    service.start();
+    await()
+        .atMost(5, SECONDS)
+        .until(
+            () -> metrics.commandStats(second.getClass()).getLatency().snapshot().getCount() == 2);
+    service.stop();
+
+    // Assert
+    assertThat(metrics.commandStats(first.getClass()).getLatency().snapshot().getCount())
+        .isEqualTo(1);
+    @SuppressWarnings("unchecked")
+    Map<String, Object> commands = (Map<String, Object>) metrics.snapshot().get("commands");
+    assertThat(commands).doesNotContainKeys("BatchCommand", "AckCommand");
+  }
+
+  @Test
+  @DisplayName("С реестром метрик должны учитываться выполнение, ошибки и отклонения команд")
+  void shouldRecordCommandMetrics() throws InterruptedException {
+    // Arrange
+    MetricsRegistry metrics = new MetricsRegistry();
+    QueueService service =
+        new QueueService(config("queue.workers", "1", "queue.capacity", "2"), metrics);
+    Command ok = () -> {};
+    Command failing =
+        () -> {
+          throw new IllegalStateException("fail");
+        };
+    service.addCommand("game-1", ok);
+    service.addCommand("game-1", failing);
+
+    // Act
+    assertThatThrownBy(() -> service.addCommand("game-1", ok))
+        .isInstanceOf(QueueOverflowException.class);
+    service.start();
+    await().atMost(5, SECONDS).until(() -> service.getQueueDepth() == 0);
+    await()
+        .atMost(5, SECONDS)
+        .until(() -> metrics.commandStats(failing.getClass()).getFailures() == 1);
+    service.stop();
+
+    // Assert
+    assertThat(metrics.commandStats(ok.getClass()).getLatency().snapshot().getCount()).isEqualTo(1);
+    assertThat(metrics.commandStats(ok.getClass()).getFailures()).isZero();
+    assertThat(metrics.counter("queue.rejected").sum()).isEqualTo(1);
+    @SuppressWarnings("unchecked")
+    Map<String, Long> gauges = (Map<String, Long>) metrics.snapshot().get("gauges");
+    assertThat(gauges).containsEntry("queue.depth", 0L).containsEntry("queue.depth.0", 0L);
+  }
+
+  @Test
+  @DisplayName("WAIT: команда должна отклоняться, если место не освободилось за timeout")
+  void shouldRejectCommandAfterTimeoutWhenQueueIsFull() {
+    // Arrange
+    QueueService service = new QueueService(1, 1, AdmissionPolicy.WAIT, 50);
+    service.addCommand("game-1", () -> {});
+    long startNanos = System.nanoTime();
+
+    // Act & Assert
+    assertThatThrownBy(() -> service.addCommand("game-1", () -> {}))
+        .isInstanceOf(QueueOverflowException.class);
+    assertThat(System.nanoTime() - startNanos).isGreaterThanOrEqualTo(50_000_000L);
+  }
+
+  @Test
+  @DisplayName("WAIT: команда должна приниматься, когда в очереди освобождается место")
+  void shouldAcceptCommandWhenQueueFreesUpWithinTimeout() {
+    // Arrange
+    AtomicInteger executedCount = new AtomicInteger();
+    QueueService service = new QueueService(1, 1, AdmissionPolicy.WAIT, 5_000);
+    service.addCommand("game-1", executedCount::incrementAndGet);
+
+    // Act
+    service.start();
+    try {
+      service.addCommand("game-1", executedCount::incrementAndGet);
+      service.addCommand("game-1", executedCount::incrementAndGet);
+
+      // Assert
+      await().atMost(5, SECONDS).untilAsserted(() -> assertThat(executedCount.get()).isEqualTo(3));
+    } finally {
+      stopQuietly(service);
+    }
+  }
+
+  @Test
+  @DisplayName("DROP_OLDEST: при заполненной очереди должна вытесняться самая старая команда")
+  void shouldDropOldestCommandWhenQueueIsFull() {
+    // Arrange
+    List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+    QueueService service = new QueueService(1, 2, AdmissionPolicy.DROP_OLDEST, 0);
+    for (int i = 0; i < 3; i++) {
+      int number = i;
+      Command command = () -> executed.add(number);
+      service.addCommand("game-1", command);
+    }
+
+    // Assert
+    assertThat(service.getQueueDepth()).isEqualTo(2);
+
+    // Act
+    service.start();
+    try {
+      // Assert
+      await().atMost(5, SECONDS).untilAsserted(() -> assertThat(executed).containsExactly(1, 2));
+    } finally {
+      stopQuietly(service);
+    }
+  }
+
+  @Test
+  @DisplayName("Пакет приказов должен занимать в очереди столько мест, сколько в нём команд")
+  void shouldCountBatchCommandsAgainstQueueCapacity() {
+    // Arrange
+    QueueService service = new QueueService(1, 3, AdmissionPolicy.REJECT, 0);
+    service.addCommand("game-1", () -> {});
+
+    // Act & Assert
+    assertThatThrownBy(
+            () ->
+                service.addCommand(
+                    "game-1", new BatchCommand(Arrays.asList(() -> {}, () -> {}, () -> {}))))
+        .isInstanceOf(QueueOverflowException.class);
+    service.addCommand("game-1", new BatchCommand(Arrays.asList(() -> {}, () -> {})));
+    assertThatThrownBy(
+            () ->
+                service.addCommand(
+                    "game-2",
+                    new BatchCommand(Arrays.asList(() -> {}, () -> {}, () -> {}, () -> {}))))
+        .isInstanceOf(QueueOverflowException.class)
+        .hasMessageContaining("exceeds queue capacity");
+    assertThat(service.getQueueDepth()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Пакеты подряд не должны занимать в очереди больше мест, чем её ёмкость")
+  void shouldCountSeveralBatchesAgainstQueueCapacity() {
+    // Arrange
+    AtomicInteger executedCount = new AtomicInteger();
+    QueueService service = new QueueService(1, 4, AdmissionPolicy.REJECT, 0);
+    Command command = executedCount::incrementAndGet;
+    service.addCommand("game-1", new BatchCommand(Arrays.asList(command, command)));
+    service.addCommand("game-2", new BatchCommand(Arrays.asList(command, command)));
+
+    // Act & Assert
+    assertThatThrownBy(
+            () -> service.addCommand("game-1", new BatchCommand(Arrays.asList(command, command))))
+        .isInstanceOf(QueueOverflowException.class);
+    assertThatThrownBy(() -> service.addCommand("game-1", command))
+        .isInstanceOf(QueueOverflowException.class);
+
+    // Act
+    service.start();
+    try {
+      await().atMost(5, SECONDS).until(() -> executedCount.get() == 4);
+
+      // Assert: выполненные команды освободили места
+      await()
+          .atMost(5, SECONDS)
+          .untilAsserted(
+              () ->
+                  service.addCommand(
+                      "game-1",
+                      new BatchCommand(Arrays.asList(command, command, command, command))));
+      await().atMost(5, SECONDS).until(() -> executedCount.get() == 8);
+    } finally {
+      stopQuietly(service);
+    }
+  }
+
+  @Test
+  @DisplayName("DROP_OLDEST: ожидающие вытесненной команды должны получить QueueOverflowException")
+  void shouldFailDroppedCommandFutures() {
+    // Arrange
+    QueueService service = new QueueService(1, 2, AdmissionPolicy.DROP_OLDEST, 0);
+    CompletableFuture<Void> first = new CompletableFuture<>();
+    CompletableFuture<Void> second = new CompletableFuture<>();
+    service.addCommand(
+        "game-1",
+        new BatchCommand(
+            Arrays.asList(new AckCommand(() -> {}, first), new AckCommand(() -> {}, second))));
+
+    // Act
+    service.addCommand("game-2", new BatchCommand(Arrays.asList(() -> {}, () -> {})));
+
+    // Assert
+    assertThat(service.getQueueDepth()).isEqualTo(1);
+    assertThat(first).isCompletedExceptionally();
+    assertThat(second).isCompletedExceptionally();
+    assertThatThrownBy(first::join).hasCauseInstanceOf(QueueOverflowException.class);
+  }
+
+  @Test
+  @DisplayName("MPSC_RING: команды одной игры из разных потоков должны выполняться по одной")
+  void shouldExecuteCommandsFromManyProducersWithRingBufferQueue() throws InterruptedException {
+    // Arrange
+    AtomicInteger executedCount = new AtomicInteger();
+    QueueService service =
+        new QueueService(
+            config(
+                "queue.workers",
+                "2",
+                "queue.capacity",
+                "8",
+                "queue.admission.policy",
+                AdmissionPolicy.WAIT.name(),
+                "queue.admission.timeoutMs",
+                "5000",
+                "queue.type",
+                QueueType.MPSC_RING.name()),
+            null);
+    service.start();
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < 4; p++) {
+      producers.add(
+          new Thread(
+              () -> {
+                for (int i = 0; i < 250; i++) {
+                  service.addCommand("game-1", executedCount::incrementAndGet);
+                }
+              }));
+    }
+
+    // Act
+    try {
+      producers.forEach(Thread::start);
+      for (Thread producer : producers) {
+        producer.join();
+      }
+
+      // Assert
+      await()
+          .atMost(5, SECONDS)
+          .untilAsserted(() -> assertThat(executedCount.get()).isEqualTo(1000));
+      assertThat(service.getQueueDepth()).isZero();
+    } finally {
+      stopQuietly(service);
+    }
+  }
+
+  @Test
+  @DisplayName("MPSC_RING не должен сочетаться с DROP_OLDEST: команду извлекает производитель")
+  void shouldRejectRingBufferQueueWithDropOldest() {
+    // Act & Assert
+    assertThatThrownBy(
+            () ->
+                new QueueService(
+                    config(
+                        "queue.admission.policy",
+                        AdmissionPolicy.DROP_OLDEST.name(),
+                        "queue.type",
+                        QueueType.MPSC_RING.name()),
+                    null))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("DROP_OLDEST");
+  }
+
+  @Test
+  @DisplayName(
+      "С queue.batchSize > 1 команды должны выполняться по порядку, ошибка не теряет пачку")
+  void shouldExecuteBatchedCommandsInOrderDespiteFailure() {
+    // Arrange
+    List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+    QueueService service =
+        new QueueService(config("queue.workers", "1", "queue.batchSize", "16"), null);
+    for (int i = 0; i < 50; i++) {
+      int number = i;
+      service.addCommand("game-1", () -> executed.add(number));
+      if (i == 10) {
+        service.addCommand(
+            "game-1",
+            () -> {
+              throw new IllegalStateException("command failure");
+            });
+      }
+    }
+
+    // Act
+    service.start();
+    try {
+      // Assert
+      await().atMost(5, SECONDS).untilAsserted(() -> assertThat(executed).hasSize(50));
+      assertThat(executed).isSorted();
+    } finally {
+      stopQuietly(service);
+    }
+  }
+
+  private static void stopQuietly(QueueService service) {
+    try {
+      service.stop();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static ServerConfig config(String... keyValues) {
+    Properties properties = new Properties();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      properties.setProperty(keyValues[i], keyValues[i + 1]);
+    }
+    return new ServerConfig(properties);
+  }
+}
@@ -0,0 +1,190 @@
+package ru.otus.main_patterns.hw10.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.otus.main_patterns.hw10.command.JournaledCommand;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.args.MoveArgs;
+import ru.otus.main_patterns.hw10.game.GameSnapshot;
+import ru.otus.main_patterns.hw10.game.GameState;
+import ru.otus.main_patterns.hw10.journal.MappedOrderJournal;
+import ru.otus.main_patterns.hw10.journal.OrderJournal;
+
+class SnapshotServiceTest {
+  private static final int SEGMENT_SIZE = 64 * 1024;
+
+  @TempDir Path tempDir;
+
+  @AfterEach
+  void tearDown() {
+    GameStateService.clear();
+  }
+
+  @Test
+  @DisplayName(
+      "После рестарта восстанавливается снимок, а из журнала нужны только приказы после него")
+  void shouldRestoreSnapshotAndLeaveJournalTail() throws Exception {
+    // Arrange
+    MappedOrderJournal journal = new MappedOrderJournal(tempDir, SEGMENT_SIZE, 0);
+    journal.open((order, seq) -> {});
+    SnapshotService snapshotService = new SnapshotService(tempDir, journal, 60000);
+    move(journal, "order-1", 2);
+    move(journal, "order-2", 3);
+    snapshotService.snapshot();
+    move(journal, "order-3", 4);
+    journal.close();
+    GameStateService.clear();
+
+    // Act
+    MappedOrderJournal reopened = new MappedOrderJournal(tempDir, SEGMENT_SIZE, 0);
+    GameSnapshot snapshot = new SnapshotService(tempDir, reopened, 60000).restore();
+    GameState game = GameStateService.get("game-1");
+    List<String> tail = new ArrayList<>();
+    reopened.open(
+        (order, seq) -> {
+          if (seq > game.getLastSeq()) {
+            tail.add(order.getId());
+          }
+        });
+    reopened.close();
+
+    // Assert
+    assertThat(snapshot.getSafeSeq()).isEqualTo(2);
+    assertThat(game.getLastSeq()).isEqualTo(2);
+    assertThat(game.ship("player-1").getInt(GameState.X)).isEqualTo(5);
+    assertThat(game.ship("player-1").getInt(GameState.VELOCITY)).isEqualTo(3);
+    assertThat(tail).containsExactly("order-3");
+  }
+
+  @Test
+  @DisplayName("Сегменты журнала до предыдущего снимка должны удаляться")
+  void shouldDeleteSegmentsCoveredByPreviousSnapshot() throws Exception {
+    // Arrange
+    MappedOrderJournal journal = new MappedOrderJournal(tempDir, 512, 0);
+    journal.open((order, seq) -> {});
+    SnapshotService snapshotService = new SnapshotService(tempDir, journal, 60000);
+    for (int i = 0; i < 20; i++) {
+      move(journal, "order-" + i, 1);
+    }
+    long segmentsBefore = segmentCount();
+
+    // Act
+    snapshotService.snapshot();
+    long afterFirst = segmentCount();
+    move(journal, "order-20", 1);
+    snapshotService.snapshot();
+    long afterSecond = segmentCount();
+    journal.close();
+
+    // Assert
+    assertThat(segmentsBefore).isGreaterThan(1);
+    assertThat(afterFirst).isEqualTo(segmentsBefore);
+    assertThat(afterSecond).isLessThan(segmentsBefore);
+    assertThat(Files.exists(tempDir.resolve("snapshot.bin"))).isTrue();
+    assertThat(Files.exists(tempDir.resolve("snapshot.bin.prev"))).isTrue();
+  }
+
+  @Test
+  @DisplayName("Снимок должен восстанавливаться и при выключенной записи снимков (interval = 0)")
+  void shouldRestoreSnapshotWhenPeriodicSnapshotsAreOff() throws Exception {
+    // Arrange
+    MappedOrderJournal journal = new MappedOrderJournal(tempDir, SEGMENT_SIZE, 0);
+    journal.open((order, seq) -> {});
+    move(journal, "order-1", 2);
+    new SnapshotService(tempDir, journal, 60000).snapshot();
+    journal.close();
+    GameStateService.clear();
+
+    // Act
+    SnapshotService snapshotService =
+        new SnapshotService(tempDir, new MappedOrderJournal(tempDir, SEGMENT_SIZE, 0), 0);
+    GameSnapshot snapshot = snapshotService.restore();
+
+    // Assert
+    assertThat(snapshotService.isEnabled()).isFalse();
+    assertThat(snapshot).isNotNull();
+    assertThat(GameStateService.get("game-1").getLastSeq()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Снимок не должен ждать сохранения приказов в журнале дольше таймаута")
+  void shouldFailSnapshotWhenJournalIsNotDurableInTime() {
+    // Arrange
+    OrderJournal stuckJournal =
+        new OrderJournal() {
+          @Override
+          public boolean isEnabled() {
+            return true;
+          }
+
+          @Override
+          public void open(ObjLongConsumer<Order> replay) {}
+
+          @Override
+          public long append(Order order) {
+            return 0;
+          }
+
+          @Override
+          public CompletableFuture<Void> whenDurable(long seq) {
+            return new CompletableFuture<>();
+          }
+
+          @Override
+          public long lastSeq() {
+            return 0;
+          }
+
+          @Override
+          public void deleteSegmentsUpTo(long seq) {}
+
+          @Override
+          public void close() {}
+        };
+    SnapshotService snapshotService = new SnapshotService(tempDir, stuckJournal, 60000, 50);
+
+    // Act & Assert
+    assertThatThrownBy(snapshotService::snapshot)
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("50 ms");
+    assertThat(Files.exists(tempDir.resolve("snapshot.bin"))).isFalse();
+  }
+
+  private static void move(MappedOrderJournal journal, String id, int velocity) {
+    Order order = new Order();
+    order.setId(id);
+    order.setGameId("game-1");
+    order.setPlayerId("player-1");
+    order.setOperationId(Operation.MOVE_STRAIGHT);
+    order.setOperationArgs(new MoveArgs(velocity));
+    GameState state = GameStateService.get(order.getGameId());
+    new JournaledCommand(
+            order,
+            order.getOperationId().createCommand(state.ship("player-1"), order.getOperationArgs()),
+            state,
+            journal,
+            null,
+            OrderDedupService.get())
+        .execute();
+  }
+
+  private long segmentCount() throws Exception {
+    try (Stream<Path> files = Files.list(tempDir)) {
+      return files.filter(path -> path.getFileName().toString().endsWith(".log")).count();
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package ru.otus.main_patterns.hw10.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JwtCacheTest {
+  private final AtomicLong nowSec = new AtomicLong(1_000);
+
+  @Test
+  @DisplayName("Проверенный токен должен считаться валидным до своего exp")
+  void shouldKeepTokenUntilExpiration() {
+    // Arrange
+    JwtCache jwtCache = new JwtCache(10, nowSec::get);
+    jwtCache.put("token", 1_060);
+
+    // Act & Assert
+    assertThat(jwtCache.isValid("token")).isTrue();
+    assertThat(jwtCache.isValid("other-token")).isFalse();
+
+    // Act
+    nowSec.set(1_061);
+
+    // Assert
+    assertThat(jwtCache.isValid("token")).isFalse();
+    assertThat(jwtCache.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Истекший токен не должен попадать в кэш")
+  void shouldNotCacheExpiredToken() {
+    // Arrange
+    JwtCache jwtCache = new JwtCache(10, nowSec::get);
+
+    // Act
+    jwtCache.put("token", 999);
+
+    // Assert
+    assertThat(jwtCache.isValid("token")).isFalse();
+    assertThat(jwtCache.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Размер кэша не должен превышать maxSize, вытесняется давно не использованный токен")
+  void shouldBeBoundedByMaxSize() {
+    // Arrange
+    JwtCache jwtCache = new JwtCache(2, nowSec::get);
+    jwtCache.put("token-1", 2_000);
+    jwtCache.put("token-2", 2_000);
+    jwtCache.isValid("token-1");
+
+    // Act
+    jwtCache.put("token-3", 2_000);
+
+    // Assert
+    assertThat(jwtCache.size()).isEqualTo(2);
+    assertThat(jwtCache.isValid("token-2")).isFalse();
+    assertThat(jwtCache.isValid("token-1")).isTrue();
+    assertThat(jwtCache.isValid("token-3")).isTrue();
+  }
+}
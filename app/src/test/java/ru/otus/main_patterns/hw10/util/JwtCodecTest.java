@@ -0,0 +1,121 @@
+package ru.otus.main_patterns.hw10.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.otus.main_patterns.hw10.util.JwtStatus.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JwtCodecTest {
+  private static final byte[] SECRET = "test-secret".getBytes(StandardCharsets.UTF_8);
+  private static final long NOW_SEC = 1_000_000L;
+  private final JwtCodec jwtCodec = new JwtCodec(SECRET);
+
+  @Test
+  @DisplayName("Корректно подписанный и не истекший токен должен быть VALID")
+  void shouldReturnValidForSignedToken() throws Exception {
+    // Arrange
+    String token = sign("{\"sub\":\"player-1\",\"exp\":" + (NOW_SEC + 60) + "}");
+
+    // Act & Assert
+    assertThat(jwtCodec.verify(token, NOW_SEC)).isEqualTo(VALID);
+    assertThat(jwtCodec.readExpiration(token)).isEqualTo(NOW_SEC + 60);
+    assertThat(jwtCodec.readSubject(token)).isEqualTo("player-1");
+  }
+
+  @Test
+  @DisplayName("exp валидного токена должен отдаваться при той же проверке, а невалидного - нет")
+  void shouldPassExpirationOfValidTokenOnly() throws Exception {
+    // Arrange
+    String token = sign("{\"sub\":\"player-1\",\"exp\":" + (NOW_SEC + 60) + "}");
+    String expired = sign("{\"exp\":" + (NOW_SEC - 1) + "}");
+    JwtCache cache = new JwtCache(10, () -> NOW_SEC);
+
+    // Act
+    JwtStatus validStatus = jwtCodec.verify(token, NOW_SEC, cache::put);
+    JwtStatus expiredStatus = jwtCodec.verify(expired, NOW_SEC, cache::put);
+
+    // Assert
+    assertThat(validStatus).isEqualTo(VALID);
+    assertThat(expiredStatus).isEqualTo(EXPIRED);
+    assertThat(cache.isValid(token)).isTrue();
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Истекший токен должен быть EXPIRED")
+  void shouldReturnExpiredForExpiredToken() throws Exception {
+    // Arrange
+    String token = sign("{\"exp\":" + (NOW_SEC - 1) + ",\"sub\":\"player-1\"}");
+
+    // Act & Assert
+    assertThat(jwtCodec.verify(token, NOW_SEC)).isEqualTo(EXPIRED);
+  }
+
+  @Test
+  @DisplayName("Токен с чужой или испорченной подписью должен быть INVALID_SIGNATURE")
+  void shouldReturnInvalidSignatureForTamperedToken() throws Exception {
+    // Arrange
+    String token = sign("{\"sub\":\"player-1\",\"exp\":" + (NOW_SEC + 60) + "}");
+    String otherSecretToken =
+        new JwtCodecTest().signWith("other".getBytes(StandardCharsets.UTF_8), "{\"exp\":1}");
+    char last = token.charAt(token.length() - 1);
+    String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+    // Act & Assert
+    assertThat(jwtCodec.verify(tampered, NOW_SEC)).isEqualTo(INVALID_SIGNATURE);
+    assertThat(jwtCodec.verify(token + "AAAA", NOW_SEC)).isEqualTo(INVALID_SIGNATURE);
+    assertThat(jwtCodec.verify(otherSecretToken, NOW_SEC)).isEqualTo(INVALID_SIGNATURE);
+  }
+
+  @Test
+  @DisplayName(
+      "Подпись с ненулевыми лишними битами последнего символа должна быть INVALID_SIGNATURE")
+  void shouldRejectNonCanonicalSignature() throws Exception {
+    // Arrange
+    String token = sign("{\"sub\":\"player-1\",\"exp\":" + (NOW_SEC + 60) + "}");
+    String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    char last = token.charAt(token.length() - 1);
+    // Те же 6 бит без младших двух - декодируются в те же 32 байта подписи
+    String nonCanonical =
+        token.substring(0, token.length() - 1) + alphabet.charAt(alphabet.indexOf(last) + 1);
+
+    // Act & Assert
+    assertThat(Base64.getUrlDecoder().decode(nonCanonical.substring(token.lastIndexOf('.') + 1)))
+        .isEqualTo(Base64.getUrlDecoder().decode(token.substring(token.lastIndexOf('.') + 1)));
+    assertThat(jwtCodec.verify(nonCanonical, NOW_SEC)).isEqualTo(INVALID_SIGNATURE);
+  }
+
+  @Test
+  @DisplayName("Токен не из трёх частей или без exp должен быть INVALID_FORMAT")
+  void shouldReturnInvalidFormatForMalformedToken() throws Exception {
+    // Act & Assert
+    assertThat(jwtCodec.verify(null, NOW_SEC)).isEqualTo(INVALID_FORMAT);
+    assertThat(jwtCodec.verify("only-one-part", NOW_SEC)).isEqualTo(INVALID_FORMAT);
+    assertThat(jwtCodec.verify("a.b.c.d", NOW_SEC)).isEqualTo(INVALID_FORMAT);
+    assertThat(jwtCodec.verify(sign("{\"sub\":\"player-1\"}"), NOW_SEC)).isEqualTo(INVALID_FORMAT);
+    assertThat(jwtCodec.verify(sign("not json"), NOW_SEC)).isEqualTo(INVALID_FORMAT);
+  }
+
+  private String sign(String payloadJson) throws Exception {
+    return signWith(SECRET, payloadJson);
+  }
+
+  private String signWith(byte[] secret, String payloadJson) throws Exception {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    String header =
+        encoder.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    String payload = encoder.encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+    String signature =
+        encoder.encodeToString(
+            mac.doFinal((header + "." + payload).getBytes(StandardCharsets.UTF_8)));
+    return header + "." + payload + "." + signature;
+  }
+}
@@ -0,0 +1,184 @@
+package ru.otus.main_patterns.hw10.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.hw10.command.Direction;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.command.Weapon;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.dto.args.MoveArgs;
+import ru.otus.main_patterns.hw10.dto.args.ShootArgs;
+import ru.otus.main_patterns.hw10.dto.args.TeleportArgs;
+import ru.otus.main_patterns.hw10.exception.InvalidOrderException;
+
+class OrderDecoderTest {
+  private final OrderDecoder orderDecoder = new OrderDecoder();
+
+  @Test
+  @DisplayName("operationArgs должен разбираться в тип аргументов операции")
+  void shouldDecodeTypedOperationArgs() throws Exception {
+    // Act
+    Order order =
+        orderDecoder.decode(
+            bytes(
+                "{\"id\":\"order-1\",\"gameId\":\"game-1\",\"playerId\":\"player-1\","
+                    + "\"operationId\":\"SHOOT\","
+                    + "\"operationArgs\":{\"weaponId\":\"laser\",\"direction\":\"UP\"}}"));
+
+    // Assert
+    assertThat(order.getId()).isEqualTo("order-1");
+    assertThat(order.getGameId()).isEqualTo("game-1");
+    assertThat(order.getPlayerId()).isEqualTo("player-1");
+    assertThat(order.getOperationId()).isEqualTo(Operation.SHOOT);
+    assertThat(order.getOperationArgs()).isInstanceOf(ShootArgs.class);
+    ShootArgs args = (ShootArgs) order.getOperationArgs();
+    assertThat(args.getWeaponId()).isEqualTo(Weapon.LASER);
+    assertThat(args.getDirection()).isEqualTo(Direction.UP);
+  }
+
+  @Test
+  @DisplayName(
+      "operationArgs перед operationId должен разбираться после того, как операция известна")
+  void shouldDecodeArgsPrecedingOperationId() throws Exception {
+    // Act
+    Order order =
+        orderDecoder.decode(
+            bytes(
+                "{\"operationArgs\":{\"x\":3,\"y\":-4},\"gameId\":\"game-1\","
+                    + "\"playerId\":\"player-1\",\"operationId\":\"TELEPORT\"}"));
+
+    // Assert
+    assertThat(order.getOperationId()).isEqualTo(Operation.TELEPORT);
+    TeleportArgs args = (TeleportArgs) order.getOperationArgs();
+    assertThat(args.getX()).isEqualTo(3);
+    assertThat(args.getY()).isEqualTo(-4);
+  }
+
+  @Test
+  @DisplayName("Неизвестная операция или неизвестное поле приказа - ошибка разбора")
+  void shouldFailOnUnknownOperationOrField() {
+    // Act & Assert
+    assertThatThrownBy(() -> orderDecoder.decode(bytes("{\"operationId\":\"FLY\"}")))
+        .isInstanceOf(InvalidOrderException.class);
+    assertThatThrownBy(() -> orderDecoder.decode(bytes("{\"unknown\":1}")))
+        .isInstanceOf(InvalidOrderException.class);
+  }
+
+  @Test
+  @DisplayName("Объект или массив вместо строкового поля приказа должен отклоняться при разборе")
+  void shouldRejectNonScalarStringFields() {
+    // Act & Assert
+    assertThatThrownBy(
+            () ->
+                orderDecoder.decode(
+                    bytes(
+                        "{\"id\":{\"gameId\":\"game-1\",\"playerId\":\"player-1\"},"
+                            + "\"operationId\":\"MOVE_STRAIGHT\","
+                            + "\"operationArgs\":{\"initialVelocity\":1}}")))
+        .isInstanceOf(InvalidOrderException.class)
+        .hasMessageContaining("'id' must be a string");
+    assertThatThrownBy(
+            () ->
+                orderDecoder.decode(
+                    bytes(
+                        "{\"gameId\":[\"game-1\"],\"playerId\":\"player-1\","
+                            + "\"operationId\":\"MOVE_STRAIGHT\","
+                            + "\"operationArgs\":{\"initialVelocity\":1}}")))
+        .isInstanceOf(InvalidOrderException.class)
+        .hasMessageContaining("'gameId' must be a string");
+    assertThatThrownBy(() -> orderDecoder.decode(bytes("{\"operationId\":{\"x\":1}}")))
+        .isInstanceOf(InvalidOrderException.class)
+        .hasMessageContaining("'operationId' must be a string");
+  }
+
+  @Test
+  @DisplayName("Приказ без обязательного поля или аргумента должен отклоняться при разборе")
+  void shouldRejectOrderWithMissingField() {
+    // Act & Assert
+    assertThatThrownBy(() -> orderDecoder.decode(bytes(order("MOVE_STRAIGHT", "{}"))))
+        .isInstanceOf(InvalidOrderException.class)
+        .hasMessageContaining("initialVelocity");
+    assertThatThrownBy(
+            () ->
+                orderDecoder.decode(
+                    bytes("{\"gameId\":\"game-1\",\"operationId\":\"MOVE_STRAIGHT\"}")))
+        .isInstanceOf(InvalidOrderException.class)
+        .hasMessageContaining("playerId");
+    assertThatThrownBy(
+            () ->
+                orderDecoder.decode(
+                    bytes(
+                        "{\"gameId\":\"game-1\",\"playerId\":\"player-1\","
+                            + "\"operationId\":\"MOVE_STRAIGHT\"}")))
+        .isInstanceOf(InvalidOrderException.class)
+        .hasMessageContaining("operationArgs");
+  }
+
+  @Test
+  @DisplayName("Аргументы неверного типа должны отклоняться")
+  void shouldRejectInvalidArgs() {
+    // Act & Assert
+    assertThatThrownBy(
+            () ->
+                orderDecoder.decode(
+                    bytes(order("MOVE_STRAIGHT", "{\"initialVelocity\":\"fast\"}"))))
+        .isInstanceOf(InvalidOrderException.class)
+        .hasMessageContaining("initialVelocity");
+    assertThatThrownBy(
+            () -> orderDecoder.decode(bytes(order("MOVE_STRAIGHT", "{\"initialVelocity\":2.5}"))))
+        .isInstanceOf(InvalidOrderException.class);
+    assertThatThrownBy(
+            () ->
+                orderDecoder.decode(
+                    bytes(order("SHOOT", "{\"weaponId\":\"sword\",\"direction\":\"UP\"}"))))
+        .isInstanceOf(InvalidOrderException.class)
+        .hasMessageContaining("'weaponId' must be one of");
+  }
+
+  @Test
+  @DisplayName("decodeAll должен читать и JSON-массив, и NDJSON")
+  void shouldDecodeArrayAndNdjson() throws Exception {
+    // Arrange
+    String move = order("MOVE_STRAIGHT", "{\"initialVelocity\":%d}");
+    String array = "[" + String.format(move, 1) + "," + String.format(move, 2) + "]";
+    String ndjson = String.format(move, 3) + "\n" + String.format(move, 4) + "\n";
+
+    // Act
+    List<Order> fromArray = readAll(array);
+    List<Order> fromNdjson = readAll(ndjson);
+
+    // Assert
+    assertThat(fromArray)
+        .extracting(order -> ((MoveArgs) order.getOperationArgs()).getInitialVelocity())
+        .containsExactly(1, 2);
+    assertThat(fromNdjson)
+        .extracting(order -> ((MoveArgs) order.getOperationArgs()).getInitialVelocity())
+        .containsExactly(3, 4);
+  }
+
+  private List<Order> readAll(String json) throws Exception {
+    try (MappingIterator<Order> iterator =
+        orderDecoder.decodeAll(new ByteArrayInputStream(bytes(json)))) {
+      return iterator.readAll();
+    }
+  }
+
+  private static String order(String operation, String args) {
+    return "{\"gameId\":\"game-1\",\"playerId\":\"player-1\",\"operationId\":\""
+        + operation
+        + "\",\"operationArgs\":"
+        + args
+        + "}";
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,122 @@
+package ru.otus.main_patterns.hw10.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.dto.OrderResult;
+import ru.otus.main_patterns.hw10.exception.OrderConflictException;
+import ru.otus.main_patterns.hw10.exception.QueueOverflowException;
+
+class OrderDedupWindowTest {
+  private static final Object MOVE = "MOVE_STRAIGHT";
+  private final AtomicLong clock = new AtomicLong(1_000);
+
+  @Test
+  @DisplayName("Повтор принятого приказа должен получать результат исходного")
+  void shouldReturnOriginalResultForDuplicate() {
+    // Arrange
+    OrderDedupWindow window = new OrderDedupWindow(10, 60_000, clock::get);
+    OrderResult created = OrderResult.created("order-1", Operation.MOVE_STRAIGHT);
+
+    // Act
+    CompletableFuture<OrderResult> first = window.reserve("game-1", "order-1", MOVE);
+    CompletableFuture<OrderResult> pending = window.reserve("game-1", "order-1", MOVE);
+    window.complete("game-1", "order-1", created);
+    CompletableFuture<OrderResult> retry = window.reserve("game-1", "order-1", MOVE);
+    CompletableFuture<OrderResult> otherGame = window.reserve("game-2", "order-1", MOVE);
+
+    // Assert
+    assertThat(first).isNull();
+    assertThat(pending).isCompletedWithValue(created);
+    assertThat(retry).isCompletedWithValue(created);
+    assertThat(otherGame).isNull();
+  }
+
+  @Test
+  @DisplayName("Id, повторно использованный для другого приказа, должен отклоняться")
+  void shouldRejectReusedIdWithOtherPayload() {
+    // Arrange
+    OrderDedupWindow window = new OrderDedupWindow(10, 60_000, clock::get);
+    window.reserve("game-1", "order-1", MOVE);
+    window.complete("game-1", "order-1", OrderResult.created("order-1", Operation.MOVE_STRAIGHT));
+
+    // Act & Assert
+    assertThatThrownBy(() -> window.reserve("game-1", "order-1", "ROTATE"))
+        .isInstanceOf(OrderConflictException.class);
+    assertThat(window.reserve("game-1", "order-1", MOVE)).isCompleted();
+  }
+
+  @Test
+  @DisplayName("Повтор ещё не обработанного приказа должен получать 409")
+  void shouldAnswerConflictWhileOriginalIsPending() {
+    // Arrange
+    OrderDedupWindow window = new OrderDedupWindow(10, 60_000, clock::get);
+    window.reserve("game-1", "order-1", MOVE);
+    CompletableFuture<OrderResult> pending = window.reserve("game-1", "order-1", MOVE);
+
+    // Act
+    OrderResult beforeComplete = OrderDedupWindow.duplicateResult("order-1", pending);
+    window.complete("game-1", "order-1", OrderResult.created("order-1", Operation.MOVE_STRAIGHT));
+    OrderResult afterComplete = OrderDedupWindow.duplicateResult("order-1", pending);
+
+    // Assert
+    assertThat(beforeComplete.getStatus()).isEqualTo(409);
+    assertThat(afterComplete.getStatus()).isEqualTo(201);
+  }
+
+  @Test
+  @DisplayName("Не принятый приказ должен освобождать id для повтора")
+  void shouldReleaseRejectedOrder() {
+    // Arrange
+    OrderDedupWindow window = new OrderDedupWindow(10, 60_000, clock::get);
+    window.reserve("game-1", "order-1", MOVE);
+    CompletableFuture<OrderResult> waiting = window.reserve("game-1", "order-1", MOVE);
+
+    // Act
+    window.release("game-1", "order-1", new QueueOverflowException("full"));
+
+    // Assert
+    assertThat(waiting).isCompletedExceptionally();
+    assertThat(window.size("game-1")).isZero();
+    assertThat(window.reserve("game-1", "order-1", MOVE)).isNull();
+  }
+
+  @Test
+  @DisplayName("Окно должно забывать id по истечении ttl и при переполнении")
+  void shouldEvictExpiredAndEldestOrders() {
+    // Arrange
+    OrderDedupWindow window = new OrderDedupWindow(2, 1_000, clock::get);
+    window.reserve("game-1", "order-1", MOVE);
+    clock.addAndGet(500);
+    window.reserve("game-1", "order-2", MOVE);
+    window.reserve("game-1", "order-3", MOVE);
+
+    // Act
+    CompletableFuture<OrderResult> kept = window.reserve("game-1", "order-3", MOVE);
+    CompletableFuture<OrderResult> evictedBySize = window.reserve("game-1", "order-1", MOVE);
+    clock.addAndGet(1_000);
+    CompletableFuture<OrderResult> evictedByTtl = window.reserve("game-1", "order-3", MOVE);
+
+    // Assert
+    assertThat(kept).isNotNull();
+    assertThat(evictedBySize).isNull();
+    assertThat(evictedByTtl).isNull();
+    assertThat(window.size("game-1")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("При maxSize = 0 окно выключено")
+  void shouldNotDeduplicateWhenDisabled() {
+    // Arrange
+    OrderDedupWindow window = new OrderDedupWindow(0, 60_000, clock::get);
+
+    // Act & Assert
+    assertThat(window.reserve("game-1", "order-1", MOVE)).isNull();
+    assertThat(window.reserve("game-1", "order-1", MOVE)).isNull();
+  }
+}
@@ -0,0 +1,53 @@
+package ru.otus.main_patterns.hw10.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.otus.main_patterns.hw10.command.Operation;
+
+class OrderResponseWriterTest {
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final OrderResponseWriter responseWriter = new OrderResponseWriter();
+
+  @Test
+  @DisplayName("Ответ должен совпадать с ответом, сериализованным через ObjectMapper")
+  void shouldMatchObjectMapperOutput() throws Exception {
+    for (Operation operation : Operation.values()) {
+      // Arrange
+      Map<String, Object> expected = new LinkedHashMap<>();
+      expected.put("orderId", "order-1");
+      expected.put("message", "Operation '" + operation + "' successfully created");
+
+      // Act
+      OrderResponseWriter.Body body = responseWriter.encodeCreated("order-1", operation);
+
+      // Assert
+      assertThat(body.toString()).isEqualTo(mapper.writeValueAsString(expected));
+      assertThat(body.length()).isEqualTo(body.toString().getBytes(StandardCharsets.UTF_8).length);
+    }
+  }
+
+  @Test
+  @DisplayName("Id приказа должен экранироваться по правилам JSON")
+  void shouldEscapeOrderId() throws Exception {
+    // Arrange
+    String orderId = "id \"quoted\" \\ \n\t приказ 🚀";
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // Act
+    responseWriter.encodeCreated(orderId, Operation.SHOOT).writeTo(out);
+
+    // Assert
+    JsonNode response = mapper.readTree(out.toByteArray());
+    assertThat(response.get("orderId").asText()).isEqualTo(orderId);
+    assertThat(response.get("message").asText())
+        .isEqualTo("Operation 'SHOOT' successfully created");
+  }
+}
@@ -0,0 +1,95 @@
+package ru.otus.main_patterns.hw10.authserver.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/*
+   Подпись JWT (HS256) без лишних аллокаций:
+   - header у всех токенов одинаковый, поэтому закодирован в Base64Url один раз;
+   - Mac создаётся и инициализируется ключом один раз на поток (ThreadLocal), а не на каждый токен;
+   - payload пишется потоковым JsonGenerator прямо через Base64Url-кодировщик JDK (Encoder.wrap)
+     в буфер потока, и header.payload.signature собирается в одном массиве байт - без конкатенации
+     строк и промежуточных Base64-строк.
+   Кроме самого токена на вызов создаются только обёртки кодировщика и генератор.
+*/
+public class JwtCodec {
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int SIGNATURE_LENGTH = 32;
+  private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+  private static final byte[] HEADER =
+      BASE64_URL.encode("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+  private final ThreadLocal<Scratch> scratch;
+
+  public JwtCodec(byte[] secret) {
+    SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+    this.scratch = ThreadLocal.withInitial(() -> new Scratch(key));
+  }
+
+  public String sign(String subject, long expSec) throws IOException {
+    Scratch s = scratch.get();
+    TokenBuffer token = s.token;
+    token.reset();
+
+    // 1. header.payload в Base64Url: генератор пишет JSON сразу через кодировщик
+    token.write(HEADER);
+    token.write('.');
+    try (JsonGenerator generator = jsonFactory.createGenerator(BASE64_URL.wrap(token))) {
+      generator.writeStartObject();
+      generator.writeStringField("sub", subject);
+      generator.writeNumberField("exp", expSec);
+      generator.writeEndObject();
+    }
+
+    // 2. Подпись
+    try {
+      s.mac.update(token.array(), 0, token.size());
+      s.mac.doFinal(s.signature, 0);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Failed to sign JWT", e);
+    }
+    token.write('.');
+    try (OutputStream signature = BASE64_URL.wrap(token)) {
+      signature.write(s.signature);
+    }
+
+    // 3. Собираем JWT
+    return new String(token.array(), 0, token.size(), StandardCharsets.US_ASCII);
+  }
+
+  // Mac и буферы одного потока
+  private static final class Scratch {
+    private final Mac mac;
+    private final byte[] signature = new byte[SIGNATURE_LENGTH];
+    private final TokenBuffer token = new TokenBuffer();
+
+    Scratch(SecretKeySpec key) {
+      try {
+        mac = Mac.getInstance(ALGORITHM);
+        mac.init(key);
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("HmacSHA256 is not available", e);
+      }
+    }
+  }
+
+  // ByteArrayOutputStream, отдающий свой массив без копирования
+  private static final class TokenBuffer extends ByteArrayOutputStream {
+    TokenBuffer() {
+      super(256);
+    }
+
+    byte[] array() {
+      return buf;
+    }
+  }
+}
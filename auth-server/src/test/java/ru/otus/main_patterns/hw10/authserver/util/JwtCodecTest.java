@@ -0,0 +1,59 @@
+package ru.otus.main_patterns.hw10.authserver.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JwtCodecTest {
+  private static final byte[] SECRET = "test-secret".getBytes(StandardCharsets.UTF_8);
+  private final JwtCodec jwtCodec = new JwtCodec(SECRET);
+
+  @Test
+  @DisplayName("Токен должен совпадать с токеном, собранным через Base64 и Mac JDK")
+  void shouldSignTokenLikeJdkImplementation() throws Exception {
+    // Act
+    String token = jwtCodec.sign("player-1", 1774645855L);
+
+    // Assert
+    assertThat(token).isEqualTo(referenceToken("player-1", 1774645855L));
+  }
+
+  @Test
+  @DisplayName("sub должен экранироваться и кодироваться в UTF-8")
+  void shouldEscapeSubject() throws Exception {
+    // Arrange
+    String subject = "игрок \"1\"\\";
+
+    // Act
+    String token = jwtCodec.sign(subject, 1L);
+
+    // Assert
+    assertThat(token).isEqualTo(referenceToken(subject, 1L));
+    String payload =
+        new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+    assertThat(payload).isEqualTo("{\"sub\":\"игрок \\\"1\\\"\\\\\",\"exp\":1}");
+  }
+
+  private static String referenceToken(String subject, long expSec) throws Exception {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    String header =
+        encoder.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    String escaped = subject.replace("\\", "\\\\").replace("\"", "\\\"");
+    String payload =
+        encoder.encodeToString(
+            ("{\"sub\":\"" + escaped + "\",\"exp\":" + expSec + "}")
+                .getBytes(StandardCharsets.UTF_8));
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(SECRET, "HmacSHA256"));
+    String signature =
+        encoder.encodeToString(
+            mac.doFinal((header + "." + payload).getBytes(StandardCharsets.UTF_8)));
+    return header + "." + payload + "." + signature;
+  }
+}
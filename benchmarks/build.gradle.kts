@@ -0,0 +1,62 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+    id("com.diffplug.spotless") version "6.13.0"
+}
+
+repositories {
+    mavenCentral()
+}
+
+group = "ru.otus.main_patterns.benchmarks"
+version = "1.0.0"
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(8))
+    }
+}
+
+val jmhCoreVersion = "1.37"
+val fasterxml = "2.19.2"
+
+dependencies {
+    // Import the Spring Boot BOM using the platform() function (compatible Java 8)
+    jmh(platform("org.springframework.boot:spring-boot-dependencies:2.7.18"))
+    jmh(project(":app"))
+    jmh(project(":auth-server"))
+    jmh("com.fasterxml.jackson.core:jackson-databind:$fasterxml")
+}
+
+// Запуск: ./gradlew :benchmarks:jmh
+// Результаты: benchmarks/build/results/jmh/results.json
+jmh {
+    jmhVersion.set(jmhCoreVersion)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // gc.alloc.rate.norm - количество байт, аллоцируемых на одну операцию
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    // Фильтр бенчмарков: ./gradlew :benchmarks:jmh -Pjmh.includes=MoveRotate
+    if (project.hasProperty("jmh.includes")) {
+        includes.set(listOf(project.property("jmh.includes").toString()))
+    }
+}
+
+// Format code
+spotless {
+    java {
+        target("src/**/*.java")
+        // Версия 1.7 — последняя с поддержкой Java 8
+        googleJavaFormat("1.7")
+        removeUnusedImports()
+        trimTrailingWhitespace()
+        endWithNewline()
+    }
+
+    kotlinGradle {
+        target("*.gradle.kts")
+        ktlint()
+    }
+}
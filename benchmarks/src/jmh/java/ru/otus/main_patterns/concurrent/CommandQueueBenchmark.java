@@ -0,0 +1,111 @@
+package ru.otus.main_patterns.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+   Пропускная способность очереди команд: несколько производителей (1/4/16) и один потребитель
+   (поток цикла) работают с одной очередью одновременно - группа JMH (@Group).
+   offer/poll не блокируются, поэтому результат - счётчики успешных операций (@AuxCounters):
+   polled - сколько команд прошло через очередь, offered - сколько команд принято.
+   Сравниваются ArrayBlockingQueue и LinkedBlockingQueue с MpscArrayBlockingQueue.
+   Потоков в группе больше одного, поэтому цифры имеют смысл только на машине, где ядер
+   не меньше, чем потоков в группе.
+   Запуск: ./gradlew :benchmarks:jmh -Pjmh.includes=CommandQueueBenchmark
+*/
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommandQueueBenchmark {
+  private static final int CAPACITY = 1024;
+  private static final Runnable COMMAND = () -> {};
+
+  @Param({"ARRAY_BLOCKING", "LINKED_BLOCKING", "MPSC_RING"})
+  private String queueType;
+
+  private BlockingQueue<Runnable> queue;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    switch (queueType) {
+      case "LINKED_BLOCKING":
+        queue = new LinkedBlockingQueue<>(CAPACITY);
+        break;
+      case "MPSC_RING":
+        queue = new MpscArrayBlockingQueue<>(CAPACITY);
+        break;
+      case "ARRAY_BLOCKING":
+      default:
+        queue = new ArrayBlockingQueue<>(CAPACITY);
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class OfferCounters {
+    public long offered;
+  }
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class PollCounters {
+    public long polled;
+  }
+
+  @Benchmark
+  @Group("producers1")
+  @GroupThreads(1)
+  public void producers1Offer(OfferCounters counters) {
+    offer(counters);
+  }
+
+  @Benchmark
+  @Group("producers1")
+  @GroupThreads(1)
+  public void producers1Poll(PollCounters counters) {
+    poll(counters);
+  }
+
+  @Benchmark
+  @Group("producers4")
+  @GroupThreads(4)
+  public void producers4Offer(OfferCounters counters) {
+    offer(counters);
+  }
+
+  @Benchmark
+  @Group("producers4")
+  @GroupThreads(1)
+  public void producers4Poll(PollCounters counters) {
+    poll(counters);
+  }
+
+  @Benchmark
+  @Group("producers16")
+  @GroupThreads(16)
+  public void producers16Offer(OfferCounters counters) {
+    offer(counters);
+  }
+
+  @Benchmark
+  @Group("producers16")
+  @GroupThreads(1)
+  public void producers16Poll(PollCounters counters) {
+    poll(counters);
+  }
+
+  private void offer(OfferCounters counters) {
+    if (queue.offer(COMMAND)) {
+      counters.offered++;
+    }
+  }
+
+  private void poll(PollCounters counters) {
+    if (queue.poll() != null) {
+      counters.polled++;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package ru.otus.main_patterns.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+   Задержка передачи команды потоку цикла (ServerThread) при разных WaitStrategy.
+   Поток бенчмарка кладёт команду в очередь потока-исполнителя, тот ждёт её выбранной стратегией,
+   выполняет и возвращает ответ через вторую очередь (ожидание ответа - той же стратегией).
+   Замер - полный круг: две передачи. SampleTime даёт распределение: смотрите p0.50 и p0.99.
+   BUSY_SPIN имеет смысл, только если ядер не меньше, чем крутящихся потоков (здесь - двух).
+   Запуск: ./gradlew :benchmarks:jmh -Pjmh.includes=WaitStrategyBenchmark
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WaitStrategyBenchmark {
+
+  @Param({"BLOCKING", "SPIN_YIELD_PARK", "BUSY_SPIN"})
+  private WaitStrategyType strategy;
+
+  private final BlockingQueue<Runnable> commands = new ArrayBlockingQueue<>(16);
+  private final BlockingQueue<Runnable> replies = new ArrayBlockingQueue<>(16);
+  private WaitStrategy waitStrategy;
+  private Thread serverThread;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    waitStrategy = strategy.create();
+    WaitStrategy serverWaitStrategy = strategy.create();
+    serverThread =
+        new Thread(
+            () -> {
+              try {
+                while (true) {
+                  Runnable command = serverWaitStrategy.take(commands);
+                  command.run();
+                  replies.put(command);
+                }
+              } catch (InterruptedException e) {
+                // остановка бенчмарка
+              }
+            },
+            "ServerThread");
+    serverThread.setDaemon(true);
+    serverThread.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    serverThread.interrupt();
+    serverThread.join();
+  }
+
+  @Benchmark
+  public Runnable handoff() throws InterruptedException {
+    commands.put(() -> {});
+    return waitStrategy.take(replies);
+  }
+}
@@ -0,0 +1,44 @@
+package ru.otus.main_patterns.hw02.command;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import ru.otus.main_patterns.UObjectImpl;
+import ru.otus.main_patterns.hw02.adapter.MoveAdapter;
+import ru.otus.main_patterns.hw02.adapter.RotateAdapter;
+import ru.otus.main_patterns.hw02.inter.UObject;
+import ru.otus.main_patterns.hw02.model.Direction;
+import ru.otus.main_patterns.hw02.model.Point;
+import ru.otus.main_patterns.hw02.model.Velocity;
+
+/*
+   Команды Move/Rotate из hw02: чтение свойств из UObject через адаптер, вычисление и запись
+   нового значения обратно.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoveRotateBenchmark {
+  private Move move;
+  private Rotate rotate;
+
+  @Setup
+  public void setUp() {
+    UObject spaceship = new UObjectImpl();
+    spaceship.setProperty(MoveAdapter.POINT, new Point(12, 5));
+    spaceship.setProperty(MoveAdapter.VELOCITY, new Velocity(-7, 3));
+    spaceship.setProperty(RotateAdapter.DIRECTION, new Direction(0, 1));
+    spaceship.setProperty(RotateAdapter.ANGULAR_VELOCITY, 1);
+    move = new Move(new MoveAdapter(spaceship));
+    rotate = new Rotate(new RotateAdapter(spaceship));
+  }
+
+  @Benchmark
+  public void move() {
+    move.execute();
+  }
+
+  @Benchmark
+  public void rotate() {
+    rotate.execute();
+  }
+}
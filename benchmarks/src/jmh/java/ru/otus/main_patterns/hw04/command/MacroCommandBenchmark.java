@@ -0,0 +1,44 @@
+package ru.otus.main_patterns.hw04.command;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+   MacroCommand из hw04: последовательное выполнение команд, извлекаемых из блокирующей очереди.
+   Очередь наполняется заново перед каждым вызовом (Level.Invocation), т.к. макрокоманда её
+   опустошает.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MacroCommandBenchmark {
+
+  @Param({"3", "16", "64"})
+  private int commandsCount;
+
+  private BlockingQueue<Command> blockQueue;
+  private MacroCommand macroCommand;
+  private Command command;
+
+  @Setup(Level.Trial)
+  public void setUp(Blackhole blackhole) {
+    blockQueue = new ArrayBlockingQueue<>(commandsCount);
+    macroCommand = new MacroCommand(blockQueue);
+    command = () -> blackhole.consume(blockQueue);
+  }
+
+  @Setup(Level.Invocation)
+  public void fillQueue() {
+    for (int i = 0; i < commandsCount; i++) {
+      blockQueue.add(command);
+    }
+  }
+
+  @Benchmark
+  public void execute() {
+    macroCommand.execute();
+  }
+}
@@ -0,0 +1,57 @@
+package ru.otus.main_patterns.hw05.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.*;
+import ru.otus.main_patterns.hw05.interfaces.Command;
+
+/*
+   IoC.resolve из hw05. Каждое выполнение "update.ioc.resolve.dependency.strategy" оборачивает
+   текущую стратегию в новую лямбду, поэтому стоимость resolve растёт с глубиной цепочки (strategyDepth).
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IoCResolveBenchmark {
+  private static final String DEPENDENCY = "benchmark.dependency";
+
+  @Param({"1", "8", "64"})
+  private int strategyDepth;
+
+  private BiFunction<String, Object[], Object> originalStrategy;
+  private final Object value = new Object();
+
+  @Setup
+  public void setUp() {
+    originalStrategy = IoC.strategy;
+    // Самая "глубокая" стратегия знает о зависимости, остальные делегируют дальше по цепочке
+    updateStrategy(
+        oldStrategy ->
+            (dependency, args) ->
+                DEPENDENCY.equals(dependency) ? value : oldStrategy.apply(dependency, args));
+    for (int i = 1; i < strategyDepth; i++) {
+      String layerDependency = "benchmark.layer." + i;
+      updateStrategy(
+          oldStrategy ->
+              (dependency, args) ->
+                  layerDependency.equals(dependency) ? this : oldStrategy.apply(dependency, args));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    IoC.strategy = originalStrategy;
+  }
+
+  @Benchmark
+  public Object resolve() {
+    return IoC.resolve(DEPENDENCY);
+  }
+
+  private static void updateStrategy(
+      Function<BiFunction<String, Object[], Object>, BiFunction<String, Object[], Object>>
+          updater) {
+    IoC.<Command>resolve("update.ioc.resolve.dependency.strategy", updater).execute();
+  }
+}
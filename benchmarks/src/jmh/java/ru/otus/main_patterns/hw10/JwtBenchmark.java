@@ -0,0 +1,112 @@
+package ru.otus.main_patterns.hw10;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.*;
+import ru.otus.main_patterns.hw10.authserver.util.JwtUtil;
+import ru.otus.main_patterns.hw10.util.JwtStatus;
+
+/*
+   Подпись (auth-server) и проверка (app) JWT через JwtCodec в сравнении с прежней реализацией:
+   Mac.getInstance + init на каждый токен, String.split по regex, конкатенация строк и readTree.
+   Запуск: ./gradlew :benchmarks:jmh -Pjmh.includes=JwtBenchmark
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+  private static final String SECRET =
+      "n7F3kD8pX2bR1vZ6qT9mH4wS0jL5cY8aV2uN1rP6eQ3xB7tG9fM0sK4yW8dJ2hL";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private String token;
+
+  @Setup
+  public void setUp() throws Exception {
+    token = JwtUtil.createToken("player-1");
+    if (ru.otus.main_patterns.hw10.util.JwtUtil.validate(token) != JwtStatus.VALID
+        || legacyValidate(token) != JwtStatus.VALID) {
+      throw new IllegalStateException("Token is not valid: " + token);
+    }
+  }
+
+  @Benchmark
+  public String sign() throws Exception {
+    return JwtUtil.createToken("player-1");
+  }
+
+  @Benchmark
+  public String signLegacy() throws Exception {
+    return legacyCreateToken("player-1");
+  }
+
+  @Benchmark
+  public JwtStatus verify() {
+    return ru.otus.main_patterns.hw10.util.JwtUtil.validate(token);
+  }
+
+  @Benchmark
+  public JwtStatus verifyLegacy() {
+    return legacyValidate(token);
+  }
+
+  // Прежний JwtUtil.createToken из auth-server
+  private String legacyCreateToken(String username) throws Exception {
+    ObjectNode headerNode = mapper.createObjectNode();
+    headerNode.put("alg", "HS256");
+    headerNode.put("typ", "JWT");
+    String headerJson = mapper.writeValueAsString(headerNode);
+
+    long expSec = (System.currentTimeMillis() / 1000) + 900;
+    ObjectNode payloadNode = mapper.createObjectNode();
+    payloadNode.put("sub", username);
+    payloadNode.put("exp", expSec);
+    String payloadJson = mapper.writeValueAsString(payloadNode);
+
+    String base64Header =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(headerJson.getBytes(StandardCharsets.UTF_8));
+    String base64Payload =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
+    String signature = legacyHmacSha256(base64Header + "." + base64Payload);
+    return base64Header + "." + base64Payload + "." + signature;
+  }
+
+  // Прежний JwtUtil.validate из app
+  private JwtStatus legacyValidate(String token) {
+    try {
+      String[] parts = token.split("\\.");
+      if (parts.length != 3) {
+        return JwtStatus.INVALID_FORMAT;
+      }
+      String expectedSignature = legacyHmacSha256(parts[0] + "." + parts[1]);
+      if (!expectedSignature.equals(parts[2])) {
+        return JwtStatus.INVALID_SIGNATURE;
+      }
+      byte[] payloadBytes = Base64.getUrlDecoder().decode(parts[1]);
+      ObjectNode payloadNode = (ObjectNode) mapper.readTree(payloadBytes);
+      long expSec = payloadNode.get("exp").asLong();
+      if (expSec < System.currentTimeMillis() / 1000) {
+        return JwtStatus.EXPIRED;
+      }
+      return JwtStatus.VALID;
+    } catch (Exception e) {
+      return JwtStatus.INVALID_FORMAT;
+    }
+  }
+
+  private static String legacyHmacSha256(String data) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    byte[] hmac = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac);
+  }
+}
@@ -0,0 +1,35 @@
+package ru.otus.main_patterns.hw10;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+   Стоимость строки лога уровня INFO для вызывающего потока при двух конфигурациях log4j2
+   (каждая - в своём форке JVM, вывод в файл во временном каталоге):
+   - syncWithLocation - как log4j2.xml: синхронный appender и место вызова %l
+     (обход стека на каждую строку);
+   - asyncWithoutLocation - как log4j2-prod.xml: Async appender без места вызова.
+   Запуск: ./gradlew :benchmarks:jmh -Pjmh.includes=LogAppenderBenchmark
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LogAppenderBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(LogAppenderBenchmark.class);
+
+  private long orderNumber;
+
+  @Benchmark
+  @Fork(jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-bench-sync-location.xml")
+  public void syncWithLocation() {
+    logger.info("doPost, successfully created order '{}' ({})", ++orderNumber, "MOVE_STRAIGHT");
+  }
+
+  @Benchmark
+  @Fork(jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-bench-async.xml")
+  public void asyncWithoutLocation() {
+    logger.info("doPost, successfully created order '{}' ({})", ++orderNumber, "MOVE_STRAIGHT");
+  }
+}
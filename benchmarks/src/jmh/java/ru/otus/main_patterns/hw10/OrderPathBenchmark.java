@@ -0,0 +1,77 @@
+package ru.otus.main_patterns.hw10;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import ru.otus.main_patterns.hw10.command.Command;
+import ru.otus.main_patterns.hw10.command.InitCommand;
+import ru.otus.main_patterns.hw10.dto.Order;
+import ru.otus.main_patterns.hw10.game.GameState;
+import ru.otus.main_patterns.hw10.game.UObject;
+import ru.otus.main_patterns.hw10.util.OrderDecoder;
+
+/*
+   Путь приказа в hw10 (без HTTP и JWT): разбор JSON тела запроса в Order и создание команды по
+   operationId напрямую и через IoC.
+   decodeOrderUntyped - прежний разбор: через Reader и в Map<String, Object> operationArgs.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderPathBenchmark {
+  private static final byte[] ORDER_JSON =
+      ("{\"id\":\"c4370147-695f-4a43-aea1-9fb5d6fb5da1\","
+              + "\"gameId\":\"game-1\","
+              + "\"playerId\":\"player-1\","
+              + "\"operationId\":\"MOVE_STRAIGHT\","
+              + "\"operationArgs\":{\"initialVelocity\":2}}")
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final OrderDecoder orderDecoder = new OrderDecoder(mapper);
+  private Order order;
+  private UObject ship;
+
+  @Setup
+  public void setUp() throws IOException {
+    order = orderDecoder.decode(ORDER_JSON);
+    ship = new GameState(order.getGameId()).ship(order.getPlayerId());
+    new InitCommand().execute();
+  }
+
+  @Benchmark
+  public Order decodeOrder() throws IOException {
+    return orderDecoder.decode(ORDER_JSON);
+  }
+
+  @Benchmark
+  public UntypedOrder decodeOrderUntyped() throws IOException {
+    return mapper.readValue(
+        new InputStreamReader(new ByteArrayInputStream(ORDER_JSON), StandardCharsets.UTF_8),
+        UntypedOrder.class);
+  }
+
+  @Benchmark
+  public Command createCommand() {
+    return order.getOperationId().createCommand(ship, order.getOperationArgs());
+  }
+
+  @Benchmark
+  public Command resolveCommand() {
+    return IoC.resolve("create.command", order);
+  }
+
+  // Прежняя форма приказа: аргументы операции - Map<String, Object>
+  public static class UntypedOrder {
+    public String id;
+    public String gameId;
+    public String playerId;
+    public String operationId;
+    public Map<String, Object> operationArgs;
+  }
+}
@@ -0,0 +1,78 @@
+package ru.otus.main_patterns.hw10;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import ru.otus.main_patterns.hw10.command.Operation;
+import ru.otus.main_patterns.hw10.util.OrderResponseWriter;
+
+/*
+   Ответ 201 на приказ: OrderResponseWriter (заранее закодированные фрагменты ответа операции)
+   в сравнении с прежним путём OrderServlet - LinkedHashMap, конкатенация сообщения,
+   ObjectMapper.writeValueAsString и запись строки через Writer (response.getWriter()).
+   Тело ответа пишется в OutputStream, который только считает байты.
+   Запуск: ./gradlew :benchmarks:jmh -Pjmh.includes=OrderResponseBenchmark (с -prof gc)
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderResponseBenchmark {
+  private static final String ORDER_ID = "c4370147-695f-4a43-aea1-9fb5d6fb5da1";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final OrderResponseWriter responseWriter = new OrderResponseWriter();
+  private final CountingOutputStream out = new CountingOutputStream();
+  // Jetty переиспользует Writer ответа между запросами, поэтому и здесь он создаётся один раз
+  private final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+
+  @Setup
+  public void setUp() throws IOException {
+    String expected = mapper.writeValueAsString(legacyResponse());
+    String actual = responseWriter.encodeCreated(ORDER_ID, Operation.MOVE_STRAIGHT).toString();
+    if (!expected.equals(actual)) {
+      throw new IllegalStateException(actual + " != " + expected);
+    }
+  }
+
+  @Benchmark
+  public long writeCreated() throws IOException {
+    responseWriter.encodeCreated(ORDER_ID, Operation.MOVE_STRAIGHT).writeTo(out);
+    return out.count;
+  }
+
+  @Benchmark
+  public long writeCreatedLegacy() throws IOException {
+    writer.write(mapper.writeValueAsString(legacyResponse()));
+    writer.flush();
+    return out.count;
+  }
+
+  // Прежний ответ OrderServlet.doPost
+  private static Map<String, Object> legacyResponse() {
+    Map<String, Object> responseMap = new LinkedHashMap<>();
+    responseMap.put("orderId", ORDER_ID);
+    responseMap.put("message", "Operation '" + Operation.MOVE_STRAIGHT + "' successfully created");
+    return responseMap;
+  }
+
+  private static final class CountingOutputStream extends OutputStream {
+    private long count;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+  }
+}
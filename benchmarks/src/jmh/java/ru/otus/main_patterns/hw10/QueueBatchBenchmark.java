@@ -0,0 +1,55 @@
+package ru.otus.main_patterns.hw10;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import ru.otus.main_patterns.concurrent.BlockingWaitStrategy;
+import ru.otus.main_patterns.hw10.command.Command;
+import ru.otus.main_patterns.hw10.queue.ServerQueueThread;
+
+/*
+   Пропускная способность потока очереди (ServerQueueThread) при разном queue.batchSize.
+   За одну операцию бенчмарк кладёт в очередь COMMANDS команд и ждёт выполнения последней:
+   с batchSize = 1 поток берёт блокировку очереди на каждую команду, с большим - на каждую пачку.
+   Запуск: ./gradlew :benchmarks:jmh -Pjmh.includes=QueueBatchBenchmark
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueueBatchBenchmark {
+  private static final int COMMANDS = 1000;
+  private static final Command NOOP = () -> {};
+
+  @Param({"1", "16", "64"})
+  private int batchSize;
+
+  private final BlockingQueue<Command> queue = new ArrayBlockingQueue<>(COMMANDS + 1);
+  private ServerQueueThread serverThread;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    serverThread =
+        new ServerQueueThread(
+            queue, "ServerThread-bench", null, new BlockingWaitStrategy(), batchSize);
+    serverThread.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    serverThread.stop();
+    serverThread.join();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COMMANDS)
+  public void executeCommands() throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    for (int i = 0; i < COMMANDS; i++) {
+      queue.put(NOOP);
+    }
+    queue.put(done::countDown);
+    done.await();
+  }
+}
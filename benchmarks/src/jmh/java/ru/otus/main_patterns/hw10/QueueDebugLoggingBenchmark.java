@@ -0,0 +1,83 @@
+package ru.otus.main_patterns.hw10;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.otus.main_patterns.hw10.command.Command;
+
+/*
+   Постановка команды в очередь игры (QueueService.addCommand) при выключенном debug:
+   - unguarded - прежний путь: имя класса команды для debug-сообщения и дамп всей очереди
+     (StringBuilder по каждой команде) строятся на каждый приказ и отбрасываются логгером;
+   - guarded - текущий путь: всё это только под logger.isDebugEnabled().
+   Очередь держится на глубине depth: команда ставится и сразу снимается.
+   Уровень логирования - WARN (log4j2-test.xml модуля benchmarks).
+   Запуск: ./gradlew :benchmarks:jmh -Pjmh.includes=QueueDebugLoggingBenchmark (с -prof gc)
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueueDebugLoggingBenchmark {
+  private static final Logger logger = LoggerFactory.getLogger(QueueDebugLoggingBenchmark.class);
+
+  @Param({"10", "100"})
+  private int depth;
+
+  private final Command command = () -> {};
+  private BlockingQueue<Command> queue;
+
+  @Setup
+  public void setUp() {
+    if (logger.isDebugEnabled()) {
+      throw new IllegalStateException("Benchmark expects debug logging to be disabled");
+    }
+    queue = new ArrayBlockingQueue<>(depth + 1);
+    for (int i = 0; i < depth; i++) {
+      queue.add(() -> {});
+    }
+  }
+
+  @Benchmark
+  public Command unguarded() {
+    logger.debug(
+        "addCommand, add command {} of game {} to queue",
+        command.getClass().getSimpleName(),
+        "game-1");
+    queue.offer(command);
+    printQueue(queue);
+    return queue.poll();
+  }
+
+  @Benchmark
+  public Command guarded() {
+    boolean debug = logger.isDebugEnabled();
+    if (debug) {
+      logger.debug(
+          "addCommand, add command {} of game {} to queue",
+          command.getClass().getSimpleName(),
+          "game-1");
+    }
+    queue.offer(command);
+    if (debug) {
+      printQueue(queue);
+    }
+    return queue.poll();
+  }
+
+  // Копия QueueService.printQueue
+  private static void printQueue(BlockingQueue<Command> blockingQueue) {
+    StringBuilder sb = new StringBuilder();
+    int i = 0;
+    for (Command cmd : blockingQueue) {
+      sb.append("Queue[")
+          .append(i++)
+          .append("] = ")
+          .append(cmd.getClass().getSimpleName())
+          .append("\n");
+    }
+    logger.debug("\n{}", sb);
+  }
+}
@@ -0,0 +1,54 @@
+package ru.otus.main_patterns.hw12.command;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import ru.otus.main_patterns.hw12.GameObject;
+import ru.otus.main_patterns.hw12.Grid;
+
+/*
+   UpdateObjectCellCommand из hw12: перенос объекта между клетками двух смещённых сеток и
+   генерация CollisionCommand для соседей. На поле расставлено objectsCount объектов, на каждой
+   итерации один объект сдвигается на следующую позицию.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UpdateObjectCellCommandBenchmark {
+  private static final int FIELD_SIZE = 1000;
+  private static final int CELL_SIZE = 50;
+
+  @Param({"100", "1000"})
+  private int objectsCount;
+
+  private List<Grid> grids;
+  private MacroCommand macroCommand;
+  private GameObject movingObject;
+  private int step;
+
+  @Setup
+  public void setUp() {
+    grids = Arrays.asList(new Grid(CELL_SIZE, 0, 0), new Grid(CELL_SIZE, CELL_SIZE / 2, 0));
+    macroCommand = new MacroCommand();
+    List<GameObject> objects = new ArrayList<>();
+    for (int i = 0; i < objectsCount; i++) {
+      objects.add(new GameObject(i, (i * 37) % FIELD_SIZE, (i * 91) % FIELD_SIZE, 5));
+    }
+    for (GameObject object : objects) {
+      new UpdateObjectCellCommand(object, grids, macroCommand).execute();
+    }
+    movingObject = objects.get(0);
+  }
+
+  @Benchmark
+  public MacroCommand execute() {
+    step = (step + 7) % FIELD_SIZE;
+    movingObject.setX(step);
+    movingObject.setY(FIELD_SIZE - step);
+    macroCommand.clear();
+    new UpdateObjectCellCommand(movingObject, grids, macroCommand).execute();
+    return macroCommand;
+  }
+}
@@ -0,0 +1,71 @@
+package ru.otus.main_patterns.hw13.command;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import ru.otus.main_patterns.hw13.ActionRegistry;
+import ru.otus.main_patterns.hw13.GameObject;
+import ru.otus.main_patterns.hw13.IoC;
+import ru.otus.main_patterns.hw13.UObject;
+import ru.otus.main_patterns.hw13.handler.ShootHandler;
+import ru.otus.main_patterns.hw13.handler.StartMoveHandler;
+
+/*
+   InterpretCommand из hw13: разбор приказа (UObject), поиск объекта в scope игрока, проверка
+   владельца, построение команды через ActionRegistry/IoC и её выполнение.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InterpretCommandBenchmark {
+  private static final String PLAYER_ID = "player-1";
+
+  private InterpretCommand startMove;
+  private InterpretCommand shoot;
+
+  @Setup
+  public void setUp() {
+    IoC.clear();
+    ActionRegistry.clear();
+    IoC.register(
+        "Commands.StartMove", args -> new StartMoveCommand((UObject) args[0], (int) args[1]));
+    IoC.register(
+        "Commands.Shoot",
+        args -> new ShootCommand((UObject) args[0], (String) args[1], (String) args[2]));
+    ActionRegistry.register("StartMove", new StartMoveHandler());
+    ActionRegistry.register("Shoot", new ShootHandler());
+
+    UObject ship = new GameObject();
+    ship.setProperty("id", "548");
+    ship.setProperty("ownerId", PLAYER_ID);
+    IoC.register(PLAYER_ID, "Objects.GetById", args -> ship);
+
+    UObject startMoveOrder = new GameObject();
+    startMoveOrder.setProperty("id", "548");
+    startMoveOrder.setProperty("action", "StartMove");
+    startMoveOrder.setProperty("initialVelocity", 2);
+    startMove = new InterpretCommand(startMoveOrder, PLAYER_ID);
+
+    UObject shootOrder = new GameObject();
+    shootOrder.setProperty("id", "548");
+    shootOrder.setProperty("action", "Shoot");
+    shootOrder.setProperty("weaponId", "laser");
+    shootOrder.setProperty("direction", "up");
+    shoot = new InterpretCommand(shootOrder, PLAYER_ID);
+  }
+
+  @TearDown
+  public void tearDown() {
+    IoC.clear();
+    ActionRegistry.clear();
+  }
+
+  @Benchmark
+  public void startMove() {
+    startMove.execute();
+  }
+
+  @Benchmark
+  public void shoot() {
+    shoot.execute();
+  }
+}
@@ -1,3 +1,4 @@
 rootProject.name = "OTUS_MainPatterns"
 include("processor", "app")
-include("auth-server")
\ No newline at end of file
+include("auth-server")
+include("benchmarks")
\ No newline at end of file